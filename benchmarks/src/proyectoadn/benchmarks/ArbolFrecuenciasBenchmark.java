@@ -0,0 +1,68 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package proyectoadn.benchmarks;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import logic.MiArbolBinarioBusqueda;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import proyectoadn.ListaUbicacionesComprimida;
+import proyectoadn.PatronADN;
+
+/**
+ * Mide {@link MiArbolBinarioBusqueda#insertar(PatronADN)} construyendo un árbol
+ * nuevo con {@code cantidad} patrones por operación, y la consulta del orden completo.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ArbolFrecuenciasBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int cantidad;
+
+    private PatronADN[] patrones;
+    private MiArbolBinarioBusqueda arbolLleno;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        String[] claves = GeneradorSecuencias.generarClaves(cantidad);
+        patrones = new PatronADN[cantidad];
+        SplittableRandom aleatorio = new SplittableRandom(GeneradorSecuencias.SEMILLA);
+        for (int i = 0; i < cantidad; i++) {
+            // Frecuencias con muchos empates, como las de los k-mers reales.
+            patrones[i] = new PatronADN(claves[i], 1 + aleatorio.nextInt(1000), new ListaUbicacionesComprimida());
+        }
+        arbolLleno = llenarArbol();
+    }
+
+    @Benchmark
+    public MiArbolBinarioBusqueda llenarArbol() {
+        MiArbolBinarioBusqueda arbol = new MiArbolBinarioBusqueda();
+        for (PatronADN patron : patrones) {
+            arbol.insertar(patron);
+        }
+        return arbol;
+    }
+
+    @Benchmark
+    public PatronADN[] obtenerPatronesOrdenados() {
+        return arbolLleno.obtenerPatronesOrdenados();
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package proyectoadn.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import proyectoadn.Modelo;
+
+/**
+ * Mide {@link Modelo#cargarSecuenciaADN(File)} de principio a fin: proyección del
+ * archivo, empaquetado de las bases y conteo de los codones, para archivos
+ * sintéticos de 10 KB a 1 GB. La caché de análisis y las instantáneas se desactivan:
+ * si no, desde la segunda llamada se mediría un acierto de la caché o la apertura del
+ * índice guardado, y no una carga (además de dejar el índice junto al archivo temporal).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+public class CargaSecuenciaBenchmark {
+
+    @Param({"10KB", "1MB", "100MB", "1GB"})
+    public String tamano;
+
+    @Param({"false", "true"})
+    public boolean paralelo;
+
+    private File archivo;
+    private Modelo modelo;
+
+    @Setup(Level.Trial)
+    public void preparar() throws IOException {
+        archivo = GeneradorSecuencias.crearArchivoSecuencia(tamano);
+        modelo = new Modelo();
+        modelo.setProcesamientoParalelo(paralelo);
+        modelo.getCacheAnalisis().setCapacidadBytes(0);
+        modelo.setUsarInstantaneas(false);
+    }
+
+    @TearDown(Level.Trial)
+    public void limpiar() {
+        archivo.delete();
+    }
+
+    /**
+     * Carga el archivo reutilizando el mismo modelo, como al abrir archivos
+     * sucesivos desde la interfaz (la secuencia anterior se libera en cada carga).
+     */
+    @Benchmark
+    public Modelo cargarSecuencia() throws IOException {
+        modelo.cargarSecuenciaADN(archivo);
+        return modelo;
+    }
+}
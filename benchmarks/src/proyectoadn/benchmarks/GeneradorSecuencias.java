@@ -0,0 +1,112 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package proyectoadn.benchmarks;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.SplittableRandom;
+
+/**
+ * Genera las entradas sintéticas de los benchmarks: archivos de secuencia con el
+ * mismo formato que {@code secuencia.txt} (bases en mayúsculas, líneas de 60) y
+ * claves de patrones distintas entre sí. Todo se genera con una semilla fija para
+ * que dos corridas midan exactamente los mismos datos.
+ */
+final class GeneradorSecuencias {
+
+    private static final byte[] BASES = {'A', 'C', 'G', 'T'};
+    private static final int BASES_POR_LINEA = 60;
+    static final long SEMILLA = 20240501L;
+
+    private GeneradorSecuencias() {
+    }
+
+    /**
+     * Convierte un tamaño como {@code "10KB"}, {@code "100MB"} o {@code "1GB"} a bytes.
+     *
+     * @param tamano El tamaño con sufijo KB, MB o GB (o sin sufijo, en bytes).
+     * @return La cantidad de bytes.
+     */
+    static long aBytes(String tamano) {
+        String texto = tamano.trim().toUpperCase();
+        long multiplicador = 1;
+        if (texto.endsWith("KB")) {
+            multiplicador = 1024L;
+        } else if (texto.endsWith("MB")) {
+            multiplicador = 1024L * 1024;
+        } else if (texto.endsWith("GB")) {
+            multiplicador = 1024L * 1024 * 1024;
+        }
+        if (multiplicador > 1) {
+            texto = texto.substring(0, texto.length() - 2);
+        }
+        return Long.parseLong(texto) * multiplicador;
+    }
+
+    /**
+     * Escribe un archivo temporal con una secuencia aleatoria del tamaño pedido.
+     * El archivo se borra al terminar la JVM si no se borró antes.
+     *
+     * @param tamano El tamaño del archivo, en el formato de {@link #aBytes(String)}.
+     * @return El archivo generado.
+     * @throws IOException Si no se puede escribir el archivo.
+     */
+    static File crearArchivoSecuencia(String tamano) throws IOException {
+        long bytes = aBytes(tamano);
+        File archivo = File.createTempFile("secuencia-" + tamano + "-", ".txt");
+        archivo.deleteOnExit();
+        SplittableRandom aleatorio = new SplittableRandom(SEMILLA);
+        byte[] linea = new byte[BASES_POR_LINEA + 1];
+        linea[BASES_POR_LINEA] = '\n';
+        try (OutputStream salida = new BufferedOutputStream(new FileOutputStream(archivo), 1 << 20)) {
+            long escritos = 0;
+            while (escritos < bytes) {
+                for (int i = 0; i < BASES_POR_LINEA; i++) {
+                    linea[i] = BASES[aleatorio.nextInt(4)];
+                }
+                int porEscribir = (int) Math.min(linea.length, bytes - escritos);
+                salida.write(linea, 0, porEscribir);
+                escritos += porEscribir;
+            }
+        }
+        return archivo;
+    }
+
+    /**
+     * Genera claves de patrones distintas entre sí: cada una es el número de orden
+     * escrito en base 4 con las letras A, C, G y T, rellenado a la misma longitud.
+     * Se devuelven en orden aleatorio para no favorecer a ninguna estructura.
+     *
+     * @param cantidad La cantidad de claves.
+     * @return Las claves generadas.
+     */
+    static String[] generarClaves(int cantidad) {
+        int longitud = 1;
+        while ((1L << (2 * longitud)) < cantidad) {
+            longitud++;
+        }
+        String[] claves = new String[cantidad];
+        char[] letras = new char[longitud];
+        for (int i = 0; i < cantidad; i++) {
+            int valor = i;
+            for (int j = longitud - 1; j >= 0; j--) {
+                letras[j] = (char) BASES[valor & 3];
+                valor >>>= 2;
+            }
+            claves[i] = new String(letras);
+        }
+        SplittableRandom aleatorio = new SplittableRandom(SEMILLA);
+        for (int i = cantidad - 1; i > 0; i--) {
+            int j = aleatorio.nextInt(i + 1);
+            String temporal = claves[i];
+            claves[i] = claves[j];
+            claves[j] = temporal;
+        }
+        return claves;
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package proyectoadn.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import proyectoadn.Modelo;
+
+/**
+ * Mide el análisis de una secuencia ya cargada: {@link Modelo#procesarSecuenciaADN()}
+ * con codones y con k-mers solapados, y {@link Modelo#generarReporteAminoacidos()}.
+ * La carga queda fuera de la medición y se hace sin instantáneas, para no dejar el
+ * índice del archivo temporal en el disco.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+public class ProcesamientoBenchmark {
+
+    @Param({"10KB", "1MB", "100MB", "1GB"})
+    public String tamano;
+
+    @Param({"false", "true"})
+    public boolean paralelo;
+
+    private Modelo modelo;
+
+    @Setup(Level.Trial)
+    public void preparar() throws IOException {
+        File archivo = GeneradorSecuencias.crearArchivoSecuencia(tamano);
+        try {
+            modelo = new Modelo();
+            modelo.setProcesamientoParalelo(paralelo);
+            modelo.setUsarInstantaneas(false);
+            modelo.cargarSecuenciaADN(archivo);
+        } finally {
+            archivo.delete();
+        }
+    }
+
+    @Benchmark
+    public Modelo procesarCodones() {
+        modelo.configurarPatrones(3, 3);
+        return modelo;
+    }
+
+    /**
+     * K-mers solapados de longitud 8: pasa por {@code ContadorKmers} en lugar del
+     * contador especializado de codones.
+     */
+    @Benchmark
+    public Modelo procesarKmers() {
+        modelo.configurarPatrones(8, 1);
+        return modelo;
+    }
+
+    @Benchmark
+    public String generarReporteAminoacidos() {
+        return modelo.generarReporteAminoacidos();
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package proyectoadn.benchmarks;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import proyectoadn.ListaUbicacionesComprimida;
+import proyectoadn.MiHashTable;
+import proyectoadn.MiHashTableAbierta;
+import proyectoadn.PatronADN;
+import proyectoadn.TablaHash;
+
+/**
+ * Mide cada implementación de {@link TablaHash} con cantidades de patrones crecientes.
+ * <p>
+ * {@link #llenarTabla()} inserta todos los patrones en una tabla nueva por operación,
+ * así que su tiempo es el de {@code cantidad} inserciones; {@link #buscarEnTabla()}
+ * consulta una sola clave por operación sobre una tabla ya llena.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TablaHashBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int cantidad;
+
+    @Param({"encadenada", "abierta"})
+    public String implementacion;
+
+    private String[] claves;
+    private PatronADN[] patrones;
+    private TablaHash tablaLlena;
+    private int siguienteBusqueda;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        claves = GeneradorSecuencias.generarClaves(cantidad);
+        patrones = new PatronADN[cantidad];
+        SplittableRandom aleatorio = new SplittableRandom(GeneradorSecuencias.SEMILLA);
+        for (int i = 0; i < cantidad; i++) {
+            // Frecuencias con muchos empates, como las de los k-mers reales.
+            patrones[i] = new PatronADN(claves[i], 1 + aleatorio.nextInt(1000), new ListaUbicacionesComprimida());
+        }
+        tablaLlena = llenarTabla();
+    }
+
+    private TablaHash crearTabla() {
+        switch (implementacion) {
+            case "encadenada":
+                // No se redimensiona: con 16 listas cada inserción recorrería una cadena
+                // de miles de entradas, así que se crea con lugar para todos los patrones.
+                return new MiHashTable(cantidad * 4 / 3 + 1);
+            case "abierta":
+                return new MiHashTableAbierta(16);
+            default:
+                throw new IllegalArgumentException("Implementación desconocida: " + implementacion);
+        }
+    }
+
+    /**
+     * Inserta todos los patrones en una tabla nueva. La tabla abierta empieza pequeña,
+     * así que su medición incluye los redimensionamientos; la encadenada, que no se
+     * redimensiona, empieza con su tamaño final.
+     */
+    @Benchmark
+    public TablaHash llenarTabla() {
+        TablaHash tabla = crearTabla();
+        for (int i = 0; i < cantidad; i++) {
+            tabla.insertar(claves[i], patrones[i]);
+        }
+        return tabla;
+    }
+
+    @Benchmark
+    public Object buscarEnTabla() {
+        int indice = siguienteBusqueda;
+        siguienteBusqueda = indice + 1 == cantidad ? 0 : indice + 1;
+        return tablaLlena.buscar(claves[indice]);
+    }
+}
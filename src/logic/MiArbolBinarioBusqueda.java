@@ -3,6 +3,7 @@
  * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
  */
 package logic;
+import proyectoadn.MiHashTableAbierta;
 import proyectoadn.PatronADN;
 
 /**
@@ -25,23 +26,38 @@ import proyectoadn.PatronADN;
     private int cantidadNodos;
 
     /**
-     * Clase interna privada que representa un nodo individual dentro del árbol binario de búsqueda.
-     * Cada nodo almacena un objeto {@link PatronADN} y referencias a sus hijos izquierdo y derecho.
+     * Índice auxiliar de secuencia a nodo. Permite comprobar en O(1) si un patrón
+     * ya está en el árbol, sin recorrerlo.
+     */
+    private MiHashTableAbierta indicePorSecuencia;
+
+    /**
+     * Clase interna privada que representa un nodo individual dentro del árbol.
+     * Cada nodo almacena un objeto {@link PatronADN}, referencias a sus hijos izquierdo
+     * y derecho y a su padre, su color (rojo o negro) para el balanceo y el tamaño de
+     * su subárbol, que permite calcular rangos en O(log n).
      */
     private class Nodo {
         PatronADN patron;
         Nodo izquierda;
         Nodo derecha;
+        Nodo padre;
+        boolean rojo;
+        int tamano;
 
         /**
-         * Constructor para un nuevo nodo.
+         * Constructor para un nuevo nodo. Los nodos nuevos se insertan en rojo.
          *
          * @param patron El objeto {@link PatronADN} que se almacenará en este nodo.
+         * @param padre El nodo padre, o {@code null} si es la raíz.
          */
-        public Nodo(PatronADN patron) {
+        public Nodo(PatronADN patron, Nodo padre) {
             this.patron = patron;
             this.izquierda = null;
             this.derecha = null;
+            this.padre = padre;
+            this.rojo = true;
+            this.tamano = 1;
         }
 
         /**
@@ -71,121 +87,377 @@ import proyectoadn.PatronADN;
 
     /**
      * Constructor de la clase MiArbolBinarioBusqueda.
-     * Inicializa un árbol binario de búsqueda vacío, estableciendo la raíz a {@code null}
+     * Inicializa un árbol vacío, estableciendo la raíz a {@code null}
      * y la cantidad de nodos a cero.
      */
     public MiArbolBinarioBusqueda() {
         this.raiz = null;
         this.cantidadNodos = 0;
+        this.indicePorSecuencia = new MiHashTableAbierta(64);
+    }
+
+    /**
+     * Construye un árbol a partir de patrones ya ordenados según {@link PatronADN#compareTo}
+     * y sin secuencias repetidas, como los que retorna {@link #obtenerPatronesOrdenados()}.
+     * En lugar de insertarlos uno por uno, con sus comparaciones y rotaciones, arma
+     * directamente un árbol balanceado en O(n): el elemento central de cada tramo es la
+     * raíz de su subárbol. Los nodos del nivel más profundo, el único que puede quedar
+     * incompleto, se pintan de rojo y los demás de negro, de modo que todos los caminos
+     * tienen la misma cantidad de nodos negros. La raíz siempre es negra, aunque sea el
+     * único nodo.
+     *
+     * @param ordenados Los patrones en el orden del árbol (de mayor a menor frecuencia).
+     * @return Un árbol con todos los patrones.
+     */
+    public static MiArbolBinarioBusqueda desdeOrdenados(PatronADN[] ordenados) {
+        MiArbolBinarioBusqueda arbol = new MiArbolBinarioBusqueda();
+        int cantidad = ordenados.length;
+        if (cantidad == 0) {
+            return arbol;
+        }
+        arbol.indicePorSecuencia = new MiHashTableAbierta(cantidad);
+        int nivelRojo = 31 - Integer.numberOfLeadingZeros(cantidad);
+        arbol.raiz = arbol.construirSubarbol(ordenados, 0, cantidad - 1, null, 0, nivelRojo);
+        arbol.cantidadNodos = cantidad;
+        return arbol;
+    }
+
+    /**
+     * Construye el subárbol balanceado con los patrones {@code ordenados[desde..hasta]}.
+     */
+    private Nodo construirSubarbol(PatronADN[] ordenados, int desde, int hasta, Nodo padre, int nivel, int nivelRojo) {
+        if (desde > hasta) {
+            return null;
+        }
+        int medio = (desde + hasta) >>> 1;
+        Nodo nodo = new Nodo(ordenados[medio], padre);
+        nodo.rojo = nivel > 0 && nivel == nivelRojo;
+        nodo.tamano = hasta - desde + 1;
+        nodo.izquierda = construirSubarbol(ordenados, desde, medio - 1, nodo, nivel + 1, nivelRojo);
+        nodo.derecha = construirSubarbol(ordenados, medio + 1, hasta, nodo, nivel + 1, nivelRojo);
+        indicePorSecuencia.insertar(ordenados[medio].getSecuencia(), nodo);
+        return nodo;
     }
 
     /**
      * Inserta un nuevo objeto {@link PatronADN} en el árbol.
      * Si un patrón con la misma secuencia ya existe en el árbol, no se inserta un duplicado.
      * La inserción se basa en la comparación de los objetos {@link PatronADN}
-     * utilizando su método {@code compareTo}, que debería ordenar por frecuencia.
+     * utilizando su método {@code compareTo}, que ordena de mayor a menor frecuencia.
+     * El árbol es rojo-negro: después de insertar se recolorea y rota para que su altura
+     * se mantenga en O(log n), incluso si muchos patrones comparten frecuencia.
      *
      * @param nuevoPatron El {@link PatronADN} a insertar en el árbol.
      */
     public void insertar(PatronADN nuevoPatron) {
         // Solo inserta si el patrón no existe previamente en el árbol por su secuencia.
-        // Esto es crucial para la lógica de Modelo.transferirPatronesATree()
-        // que vuelve a insertar todos los patrones cada vez.
-        if (buscarNodoPorSecuencia(raiz, nuevoPatron.getSecuencia()) == null) {
-            raiz = insertarRecursivo(raiz, nuevoPatron);
-            cantidadNodos++;
+        if (indicePorSecuencia.buscar(nuevoPatron.getSecuencia()) != null) {
+            return;
+        }
+        Nodo padre = null;
+        Nodo actual = raiz;
+        int comparacion = 0;
+        while (actual != null) {
+            padre = actual;
+            comparacion = nuevoPatron.compareTo(actual.getPatron());
+            if (comparacion < 0) {
+                actual = actual.izquierda;
+            } else if (comparacion > 0) {
+                actual = actual.derecha;
+            } else {
+                return;
+            }
+        }
+        Nodo nuevo = new Nodo(nuevoPatron, padre);
+        if (padre == null) {
+            raiz = nuevo;
+        } else if (comparacion < 0) {
+            padre.izquierda = nuevo;
+        } else {
+            padre.derecha = nuevo;
+        }
+        for (Nodo ancestro = padre; ancestro != null; ancestro = ancestro.padre) {
+            ancestro.tamano++;
         }
+        indicePorSecuencia.insertar(nuevoPatron.getSecuencia(), nuevo);
+        cantidadNodos++;
+        balancearDespuesDeInsertar(nuevo);
     }
 
     /**
-     * Método auxiliar recursivo para insertar un {@link PatronADN} en el árbol.
-     * Navega por el árbol hasta encontrar la posición correcta para el nuevo patrón
-     * basándose en su frecuencia relativa a los patrones existentes.
+     * Restaura las propiedades rojo-negro después de insertar un nodo rojo:
+     * mientras el padre también sea rojo, recolorea si el tío es rojo, o rota
+     * alrededor del abuelo si es negro.
      *
-     * @param actual El nodo actual en la recursión.
-     * @param patron El {@link PatronADN} a insertar.
-     * @return El nodo actual después de la inserción.
+     * @param nodo El nodo recién insertado.
      */
-    private Nodo insertarRecursivo(Nodo actual, PatronADN patron) {
-        if (actual == null) {
-            return new Nodo(patron);
+    private void balancearDespuesDeInsertar(Nodo nodo) {
+        while (nodo != raiz && nodo.padre.rojo) {
+            Nodo padre = nodo.padre;
+            Nodo abuelo = padre.padre;
+            if (padre == abuelo.izquierda) {
+                Nodo tio = abuelo.derecha;
+                if (tio != null && tio.rojo) {
+                    padre.rojo = false;
+                    tio.rojo = false;
+                    abuelo.rojo = true;
+                    nodo = abuelo;
+                } else {
+                    if (nodo == padre.derecha) {
+                        nodo = padre;
+                        rotarIzquierda(nodo);
+                        padre = nodo.padre;
+                    }
+                    padre.rojo = false;
+                    abuelo.rojo = true;
+                    rotarDerecha(abuelo);
+                }
+            } else {
+                Nodo tio = abuelo.izquierda;
+                if (tio != null && tio.rojo) {
+                    padre.rojo = false;
+                    tio.rojo = false;
+                    abuelo.rojo = true;
+                    nodo = abuelo;
+                } else {
+                    if (nodo == padre.izquierda) {
+                        nodo = padre;
+                        rotarDerecha(nodo);
+                        padre = nodo.padre;
+                    }
+                    padre.rojo = false;
+                    abuelo.rojo = true;
+                    rotarIzquierda(abuelo);
+                }
+            }
         }
-        int comparacion = patron.compareTo(actual.getPatron());
+        raiz.rojo = false;
+    }
 
-        if (comparacion < 0) {
-            actual.izquierda = insertarRecursivo(actual.izquierda, patron);
-        } else if (comparacion > 0) {
-            actual.derecha = insertarRecursivo(actual.derecha, patron);
+    /**
+     * Rota a la izquierda alrededor de un nodo: su hijo derecho ocupa su lugar.
+     */
+    private void rotarIzquierda(Nodo nodo) {
+        Nodo hijo = nodo.derecha;
+        nodo.derecha = hijo.izquierda;
+        if (hijo.izquierda != null) {
+            hijo.izquierda.padre = nodo;
+        }
+        reemplazarEnPadre(nodo, hijo);
+        hijo.izquierda = nodo;
+        nodo.padre = hijo;
+        hijo.tamano = nodo.tamano;
+        nodo.tamano = tamano(nodo.izquierda) + tamano(nodo.derecha) + 1;
+    }
+
+    /**
+     * Rota a la derecha alrededor de un nodo: su hijo izquierdo ocupa su lugar.
+     */
+    private void rotarDerecha(Nodo nodo) {
+        Nodo hijo = nodo.izquierda;
+        nodo.izquierda = hijo.derecha;
+        if (hijo.derecha != null) {
+            hijo.derecha.padre = nodo;
+        }
+        reemplazarEnPadre(nodo, hijo);
+        hijo.derecha = nodo;
+        nodo.padre = hijo;
+        hijo.tamano = nodo.tamano;
+        nodo.tamano = tamano(nodo.izquierda) + tamano(nodo.derecha) + 1;
+    }
+
+    /**
+     * Retorna el tamaño del subárbol, o 0 si es {@code null}.
+     */
+    private static int tamano(Nodo nodo) {
+        return nodo == null ? 0 : nodo.tamano;
+    }
+
+    /**
+     * Coloca {@code reemplazo} en la posición que ocupaba {@code nodo} bajo su padre.
+     */
+    private void reemplazarEnPadre(Nodo nodo, Nodo reemplazo) {
+        reemplazo.padre = nodo.padre;
+        if (nodo.padre == null) {
+            raiz = reemplazo;
+        } else if (nodo == nodo.padre.izquierda) {
+            nodo.padre.izquierda = reemplazo;
         } else {
-            
+            nodo.padre.derecha = reemplazo;
         }
-        return actual;
     }
 
     /**
-     * Busca un nodo en el árbol que contenga un {@link PatronADN} con una secuencia específica.
-     * Este método realiza una búsqueda recursiva que no se basa en el orden de frecuencia
-     * del árbol, sino en una comparación directa de la secuencia de ADN.
+     * Busca un patrón en el árbol por su secuencia de ADN, usando el índice auxiliar.
      *
-     * @param nodoActual El nodo desde el cual iniciar la búsqueda (típicamente la raíz).
      * @param secuencia La secuencia de ADN (String) del patrón a buscar.
-     * @return El {@link Nodo} que contiene el patrón con la secuencia deseada, o {@code null} si no se encuentra.
+     * @return El {@link PatronADN} con esa secuencia, o {@code null} si no está en el árbol.
+     */
+    public PatronADN buscarPorSecuencia(String secuencia) {
+        Object nodo = indicePorSecuencia.buscar(secuencia);
+        return nodo != null ? ((Nodo) nodo).getPatron() : null;
+    }
+
+    /**
+     * Calcula el rango de un patrón: su posición (desde 1) en el orden de
+     * {@link PatronADN#compareTo}, donde el rango 1 es el patrón más frecuente.
+     * El nodo se localiza con el índice auxiliar y el rango se obtiene subiendo
+     * hasta la raíz y sumando los tamaños de los subárboles a su izquierda, en O(log n).
+     *
+     * @param secuencia La secuencia de ADN (String) del patrón.
+     * @return El rango del patrón, o -1 si no está en el árbol.
      */
-    private Nodo buscarNodoPorSecuencia(Nodo nodoActual, String secuencia) {
-        if (nodoActual == null) {
+    public int rango(String secuencia) {
+        Object encontrado = indicePorSecuencia.buscar(secuencia);
+        if (encontrado == null) {
+            return -1;
+        }
+        Nodo nodo = (Nodo) encontrado;
+        int rango = tamano(nodo.izquierda) + 1;
+        while (nodo.padre != null) {
+            if (nodo == nodo.padre.derecha) {
+                rango += tamano(nodo.padre.izquierda) + 1;
+            }
+            nodo = nodo.padre;
+        }
+        return rango;
+    }
+
+    /**
+     * Obtiene el patrón que ocupa un rango dado (desde 1) en el orden de
+     * {@link PatronADN#compareTo}, descendiendo por los tamaños de los subárboles en O(log n).
+     *
+     * @param rango El rango buscado, entre 1 y {@link #getCantidadNodos()}.
+     * @return El {@link PatronADN} con ese rango, o {@code null} si el rango está fuera de límites.
+     */
+    public PatronADN seleccionarPorRango(int rango) {
+        Nodo nodo = nodoEnRango(rango);
+        return nodo != null ? nodo.getPatron() : null;
+    }
+
+    private Nodo nodoEnRango(int rango) {
+        if (rango < 1 || rango > cantidadNodos) {
             return null;
         }
-        if (nodoActual.getPatron().getSecuencia().equals(secuencia)) {
-            return nodoActual;
+        Nodo actual = raiz;
+        while (actual != null) {
+            int rangoActual = tamano(actual.izquierda) + 1;
+            if (rango == rangoActual) {
+                return actual;
+            } else if (rango < rangoActual) {
+                actual = actual.izquierda;
+            } else {
+                rango -= rangoActual;
+                actual = actual.derecha;
+            }
         }
+        return null;
+    }
 
-        Nodo encontrado = buscarNodoPorSecuencia(nodoActual.izquierda, secuencia);
-        if (encontrado != null) return encontrado;
-        encontrado = buscarNodoPorSecuencia(nodoActual.derecha, secuencia);
-        return encontrado;
+    /**
+     * Cuenta los patrones cuya frecuencia es estrictamente mayor que la dada, en O(log n).
+     * Como el árbol ordena de mayor a menor frecuencia, esos patrones ocupan exactamente
+     * los primeros rangos.
+     *
+     * @param frecuencia La frecuencia de referencia.
+     * @return La cantidad de patrones con mayor frecuencia.
+     */
+    public int contarConFrecuenciaMayorQue(long frecuencia) {
+        int cantidad = 0;
+        Nodo actual = raiz;
+        while (actual != null) {
+            if (actual.getPatron().getFrecuencia() > frecuencia) {
+                cantidad += tamano(actual.izquierda) + 1;
+                actual = actual.derecha;
+            } else {
+                actual = actual.izquierda;
+            }
+        }
+        return cantidad;
     }
 
+    /**
+     * Obtiene los patrones cuya frecuencia está entre dos valores (ambos incluidos),
+     * en el orden de {@link PatronADN#compareTo}. Los límites del intervalo se ubican
+     * en O(log n) y luego se recorre solo ese tramo, en O(log n + m) para m resultados.
+     *
+     * @param frecuenciaMinima La frecuencia mínima (incluida).
+     * @param frecuenciaMaxima La frecuencia máxima (incluida).
+     * @return Los patrones dentro del intervalo; vacío si no hay ninguno.
+     */
+    public PatronADN[] obtenerPorRangoDeFrecuencia(long frecuenciaMinima, long frecuenciaMaxima) {
+        if (frecuenciaMinima > frecuenciaMaxima) {
+            return new PatronADN[0];
+        }
+        int primerRango = contarConFrecuenciaMayorQue(frecuenciaMaxima) + 1;
+        int ultimoRango = frecuenciaMinima == Long.MIN_VALUE
+                ? cantidadNodos : contarConFrecuenciaMayorQue(frecuenciaMinima - 1);
+        int cantidad = Math.max(0, ultimoRango - primerRango + 1);
+        PatronADN[] resultado = new PatronADN[cantidad];
+        Nodo actual = nodoEnRango(primerRango);
+        for (int i = 0; i < cantidad; i++) {
+            resultado[i] = actual.getPatron();
+            actual = sucesor(actual);
+        }
+        return resultado;
+    }
 
     /**
      * Obtiene todos los objetos {@link PatronADN} almacenados en el árbol,
-     * ordenados de mayor a menor frecuencia.
-     * Esto se logra mediante un recorrido "inorden inverso" (derecha-raíz-izquierda)
-     * del árbol, que aprovecha la ordenación del árbol por frecuencia.
+     * ordenados de mayor a menor frecuencia (el orden de {@link PatronADN#compareTo}).
+     * Se logra con un recorrido inorden iterativo que avanza de cada nodo a su sucesor
+     * mediante las referencias al padre, sin recursión ni pila auxiliar.
      *
      * @return Un arreglo de {@link PatronADN} ordenados de mayor a menor frecuencia.
      */
     public PatronADN[] obtenerPatronesOrdenados() {
-     
         PatronADN[] patronesOrdenados = new PatronADN[cantidadNodos];
-        int[] indiceActual = {0};
-
-        recorridoInordenInversoToArray(raiz, patronesOrdenados, indiceActual);
-
+        int indice = 0;
+        for (Nodo actual = minimo(raiz); actual != null; actual = sucesor(actual)) {
+            patronesOrdenados[indice++] = actual.getPatron();
+        }
         return patronesOrdenados;
     }
 
     /**
-     * Método auxiliar recursivo para realizar un recorrido inorden inverso (derecha-raíz-izquierda)
-     * del árbol y almacenar los patrones en el arreglo proporcionado.
-     * Este recorrido garantiza que los patrones se recuperen en orden descendente de frecuencia.
-     *
-     * @param nodoActual El nodo actual en el recorrido.
-     * @param array El arreglo donde se almacenarán los patrones.
-     * @param indice Un arreglo de un solo elemento que actúa como contador para la posición actual en el array.
-     */
-    private void recorridoInordenInversoToArray(Nodo nodoActual, PatronADN[] array, int[] indice) {
-        if (nodoActual != null) {
-            recorridoInordenInversoToArray(nodoActual.derecha, array, indice);
-
-          
-            if (indice[0] < array.length) { 
-                array[indice[0]] = nodoActual.getPatron();
-                indice[0]++;
-            }
+     * Retorna el nodo más a la izquierda del subárbol, o {@code null} si está vacío.
+     */
+    private Nodo minimo(Nodo nodo) {
+        if (nodo == null) {
+            return null;
+        }
+        while (nodo.getIzquierda() != null) {
+            nodo = nodo.getIzquierda();
+        }
+        return nodo;
+    }
+
+    /**
+     * Retorna el nodo más a la derecha del subárbol, o {@code null} si está vacío.
+     */
+    private Nodo maximo(Nodo nodo) {
+        if (nodo == null) {
+            return null;
+        }
+        while (nodo.getDerecha() != null) {
+            nodo = nodo.getDerecha();
+        }
+        return nodo;
+    }
 
-           
-            recorridoInordenInversoToArray(nodoActual.izquierda, array, indice);
+    /**
+     * Retorna el nodo siguiente en el recorrido inorden, o {@code null} si es el último.
+     */
+    private Nodo sucesor(Nodo nodo) {
+        if (nodo.derecha != null) {
+            return minimo(nodo.derecha);
         }
+        Nodo padre = nodo.padre;
+        while (padre != null && nodo == padre.derecha) {
+            nodo = padre;
+            padre = padre.padre;
+        }
+        return padre;
     }
 
     /**
@@ -199,38 +471,25 @@ import proyectoadn.PatronADN;
 
     /**
      * Obtiene el patrón de ADN con la mayor frecuencia.
-     * En un árbol binario de búsqueda donde los elementos "mayores" (más frecuentes)
-     * están a la derecha, el patrón más frecuente será el elemento más a la derecha del árbol.
+     * Como {@link PatronADN#compareTo} coloca primero a los más frecuentes, el patrón
+     * más frecuente es el elemento más a la izquierda del árbol. Al estar balanceado,
+     * llegar a él cuesta O(log n).
      *
      * @return El objeto {@link PatronADN} con la mayor frecuencia, o {@code null} si el árbol está vacío.
      */
     public PatronADN obtenerPatronMasFrecuente() {
-        if (raiz == null) {
-            return null;
-        }
-        Nodo actual = raiz;
-        // Navega al nodo más a la derecha (el de mayor valor/frecuencia)
-        while (actual.getDerecha() != null) {
-            actual = actual.getDerecha();
-        }
-        return actual.getPatron();
+        Nodo nodo = minimo(raiz);
+        return nodo != null ? nodo.getPatron() : null;
     }
 
     /**
-     * Obtiene el patrón de ADN con la menor frecuencia.
-     * En un árbol binario de búsqueda donde los elementos "menores" (menos frecuentes)
-     * están a la izquierda, el patrón menos frecuente será el elemento más a la izquierda del árbol.
+     * Obtiene el patrón de ADN con la menor frecuencia, que es el elemento
+     * más a la derecha del árbol. Al estar balanceado, llegar a él cuesta O(log n).
      *
      * @return El objeto {@link PatronADN} con la menor frecuencia, o {@code null} si el árbol está vacío.
      */
     public PatronADN obtenerPatronMenosFrecuente() {
-        if (raiz == null) {
-            return null;
-        }
-        Nodo actual = raiz;
-        while (actual.getIzquierda() != null) {
-            actual = actual.getIzquierda();
-        }
-        return actual.getPatron();
+        Nodo nodo = maximo(raiz);
+        return nodo != null ? nodo.getPatron() : null;
     }
-}
\ No newline at end of file
+}
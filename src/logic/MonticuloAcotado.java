@@ -0,0 +1,128 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package logic;
+import proyectoadn.PatronADN;
+
+/**
+ * Montículo binario de capacidad fija que conserva solo los {@code k} patrones
+ * que van primero (o los {@code k} que van al final) según {@link PatronADN#compareTo}.
+ * Se le ofrecen todos los patrones en una sola pasada; cada oferta cuesta O(log k)
+ * y la memoria usada es O(k), sin importar cuántos patrones existan.
+ * <p>
+ * La raíz siempre es el peor patrón conservado, así decidir si uno nuevo entra
+ * es una sola comparación contra ella.
+ * </p>
+ *
+ * @author Gloria
+ */
+public class MonticuloAcotado {
+
+    private final PatronADN[] elementos;
+    private final int signo;
+    private int tamano;
+
+    /**
+     * Constructor del montículo.
+     *
+     * @param capacidad La cantidad máxima de patrones a conservar ({@code k}).
+     * @param conservarPrimeros {@code true} para conservar los que van primero en el orden
+     * de {@link PatronADN#compareTo} (los más frecuentes), {@code false} para los últimos.
+     * @throws IllegalArgumentException Si la capacidad es negativa.
+     */
+    public MonticuloAcotado(int capacidad, boolean conservarPrimeros) {
+        if (capacidad < 0) {
+            throw new IllegalArgumentException("La capacidad no puede ser negativa: " + capacidad);
+        }
+        this.elementos = new PatronADN[capacidad];
+        this.signo = conservarPrimeros ? 1 : -1;
+        this.tamano = 0;
+    }
+
+    /**
+     * Compara dos patrones de modo que el "mayor" sea el peor candidato a conservar.
+     */
+    private int comparar(PatronADN a, PatronADN b) {
+        return signo * a.compareTo(b);
+    }
+
+    /**
+     * Ofrece un patrón al montículo. Se conserva si aún hay espacio o si es mejor
+     * que el peor patrón conservado, al que reemplaza.
+     *
+     * @param patron El patrón a ofrecer.
+     */
+    public void ofrecer(PatronADN patron) {
+        if (tamano < elementos.length) {
+            elementos[tamano] = patron;
+            subir(tamano++);
+        } else if (tamano > 0 && comparar(patron, elementos[0]) < 0) {
+            elementos[0] = patron;
+            bajar(elementos, 0, tamano);
+        }
+    }
+
+    private void subir(int indice) {
+        PatronADN patron = elementos[indice];
+        while (indice > 0) {
+            int padre = (indice - 1) >>> 1;
+            if (comparar(patron, elementos[padre]) <= 0) {
+                break;
+            }
+            elementos[indice] = elementos[padre];
+            indice = padre;
+        }
+        elementos[indice] = patron;
+    }
+
+    private void bajar(PatronADN[] monticulo, int indice, int limite) {
+        PatronADN patron = monticulo[indice];
+        int hijo;
+        while ((hijo = 2 * indice + 1) < limite) {
+            if (hijo + 1 < limite && comparar(monticulo[hijo + 1], monticulo[hijo]) > 0) {
+                hijo++;
+            }
+            if (comparar(monticulo[hijo], patron) <= 0) {
+                break;
+            }
+            monticulo[indice] = monticulo[hijo];
+            indice = hijo;
+        }
+        monticulo[indice] = patron;
+    }
+
+    /**
+     * Retorna la cantidad de patrones conservados.
+     * @return El número de patrones en el montículo.
+     */
+    public int getTamano() {
+        return tamano;
+    }
+
+    /**
+     * Obtiene los patrones conservados en el orden de {@link PatronADN#compareTo}
+     * (de mayor a menor frecuencia). El montículo no se modifica.
+     *
+     * @return Un arreglo nuevo con los patrones ordenados.
+     */
+    public PatronADN[] obtenerOrdenados() {
+        PatronADN[] copia = new PatronADN[tamano];
+        System.arraycopy(elementos, 0, copia, 0, tamano);
+        // Ordenamiento por montículo sobre la copia: la raíz (el peor) pasa al final en cada paso.
+        for (int fin = tamano - 1; fin > 0; fin--) {
+            PatronADN raiz = copia[0];
+            copia[0] = copia[fin];
+            copia[fin] = raiz;
+            bajar(copia, 0, fin);
+        }
+        if (signo > 0) {
+            return copia;
+        }
+        PatronADN[] ordenados = new PatronADN[tamano];
+        for (int i = 0; i < tamano; i++) {
+            ordenados[i] = copia[tamano - 1 - i];
+        }
+        return ordenados;
+    }
+}
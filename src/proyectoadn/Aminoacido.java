@@ -33,7 +33,7 @@ public class Aminoacido {
      * Frecuencia total acumulada de este aminoácido, calculada a partir de
      * la suma de las frecuencias de todos los patrones de ADN que lo codifican.
      */
-    private int frecuenciaGlobal;
+    private long frecuenciaGlobal;
 
     /**
      * Constructor para crear una nueva instancia de `Aminoacido`.
@@ -150,7 +150,7 @@ public class Aminoacido {
      *
      * @param cantidad La cantidad por la cual se incrementará la frecuencia global.
      */
-    public void incrementarFrecuenciaGlobal(int cantidad) {
+    public void incrementarFrecuenciaGlobal(long cantidad) {
         this.frecuenciaGlobal += cantidad;
     }
 
@@ -158,7 +158,7 @@ public class Aminoacido {
      * Obtiene la frecuencia global acumulada de este aminoácido.
      * @return La frecuencia global del aminoácido.
      */
-    public int getFrecuenciaGlobal() {
+    public long getFrecuenciaGlobal() {
         return frecuenciaGlobal;
     }
 
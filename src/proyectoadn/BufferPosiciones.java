@@ -0,0 +1,153 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package proyectoadn;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+
+/**
+ * Buffer de posiciones de tipo primitivo que crece agregando bloques en lugar de
+ * copiar el arreglo completo. Los bloques comienzan pequeños y duplican su tamaño
+ * hasta un máximo, así los patrones poco frecuentes no reservan memoria de más.
+ * Dos buffers pueden concatenarse sin copiar sus datos.
+ * <p>
+ * Las posiciones son {@code long}, pero cada bloque guarda una base de 64 bits y sus
+ * elementos como desplazamientos de 32 bits sin signo respecto de ella. Mientras las
+ * posiciones de un bloque quepan en ese rango (siempre, si la secuencia tiene menos
+ * de 2^32 bases) cada posición ocupa 4 bytes; si no caben se abre un bloque nuevo.
+ * </p>
+ * <p>
+ * Los bloques se reservan fuera del heap en la {@link Arena} que recibe el constructor;
+ * el buffer no la cierra, eso le corresponde a su dueño cuando ya no necesite las posiciones.
+ * </p>
+ */
+class BufferPosiciones {
+
+    private static final int BLOQUE_INICIAL = 16;
+    private static final int BLOQUE_MAXIMO = 64 * 1024;
+    private static final long RANGO_DESPLAZAMIENTO = 1L << 32;
+
+    private final Arena arena;
+    private MemorySegment[] bloques;
+    private long[] bases;
+    private int[] ocupacion;
+    private int numBloques;
+    private long tamano;
+
+    // Último bloque, su base y su ocupación, para que agregar no recorra los arreglos de bloques.
+    private MemorySegment bloqueActual;
+    private int capacidadActual;
+    private long baseActual;
+    private int ocupacionActual;
+
+    /**
+     * Constructor para crear un buffer vacío.
+     *
+     * @param arena La arena de la que se reservan los bloques.
+     */
+    BufferPosiciones(Arena arena) {
+        this.arena = arena;
+        this.bloques = new MemorySegment[4];
+        this.bases = new long[4];
+        this.ocupacion = new int[4];
+        this.numBloques = 0;
+        this.tamano = 0;
+    }
+
+    /**
+     * Agrega una posición al final del buffer.
+     *
+     * @param posicion La posición a agregar.
+     */
+    void agregar(long posicion) {
+        long desplazamiento = posicion - baseActual;
+        if (bloqueActual == null || ocupacionActual == capacidadActual
+                || desplazamiento < 0 || desplazamiento >= RANGO_DESPLAZAMIENTO) {
+            int tamanoBloque = bloqueActual == null
+                    ? BLOQUE_INICIAL
+                    : Math.min(capacidadActual * 2, BLOQUE_MAXIMO);
+            agregarBloque(arena.allocate((long) tamanoBloque * Integer.BYTES, Integer.BYTES), posicion, 0);
+            desplazamiento = 0;
+        }
+        bloqueActual.setAtIndex(ValueLayout.JAVA_INT, ocupacionActual++, (int) desplazamiento);
+        ocupacion[numBloques - 1] = ocupacionActual;
+        tamano++;
+    }
+
+    /**
+     * Agrega al final de este buffer todas las posiciones de otro, reutilizando
+     * sus bloques sin copiarlos. El otro buffer no debe modificarse después, y la
+     * arena de sus bloques debe seguir abierta mientras se use este.
+     *
+     * @param otro El buffer cuyas posiciones se agregan.
+     */
+    void concatenar(BufferPosiciones otro) {
+        for (int i = 0; i < otro.numBloques; i++) {
+            agregarBloque(otro.bloques[i], otro.bases[i], otro.ocupacion[i]);
+        }
+        tamano += otro.tamano;
+    }
+
+    private void agregarBloque(MemorySegment bloque, long base, int ocupados) {
+        if (numBloques == bloques.length) {
+            MemorySegment[] nuevosBloques = new MemorySegment[numBloques * 2];
+            long[] nuevasBases = new long[numBloques * 2];
+            int[] nuevaOcupacion = new int[numBloques * 2];
+            System.arraycopy(bloques, 0, nuevosBloques, 0, numBloques);
+            System.arraycopy(bases, 0, nuevasBases, 0, numBloques);
+            System.arraycopy(ocupacion, 0, nuevaOcupacion, 0, numBloques);
+            bloques = nuevosBloques;
+            bases = nuevasBases;
+            ocupacion = nuevaOcupacion;
+        }
+        bloques[numBloques] = bloque;
+        bases[numBloques] = base;
+        ocupacion[numBloques] = ocupados;
+        numBloques++;
+        bloqueActual = bloque;
+        capacidadActual = (int) (bloque.byteSize() / Integer.BYTES);
+        baseActual = base;
+        ocupacionActual = ocupados;
+    }
+
+    /**
+     * Obtiene la cantidad de posiciones almacenadas.
+     * @return El número de posiciones.
+     */
+    long tamano() {
+        return tamano;
+    }
+
+    /**
+     * Obtiene la primera posición almacenada.
+     * @return La primera posición, o -1 si el buffer está vacío.
+     */
+    long primera() {
+        for (int i = 0; i < numBloques; i++) {
+            if (ocupacion[i] > 0) {
+                return bases[i] + Integer.toUnsignedLong(bloques[i].getAtIndex(ValueLayout.JAVA_INT, 0));
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Copia todas las posiciones, en orden, a una lista comprimida ya compactada.
+     * @return Una lista nueva con las posiciones.
+     */
+    ListaUbicacionesComprimida aLista() {
+        ListaUbicacionesComprimida lista = new ListaUbicacionesComprimida();
+        for (int i = 0; i < numBloques; i++) {
+            MemorySegment bloque = bloques[i];
+            long base = bases[i];
+            for (int j = 0; j < ocupacion[i]; j++) {
+                lista.agregar(base + Integer.toUnsignedLong(bloque.getAtIndex(ValueLayout.JAVA_INT, j)));
+            }
+        }
+        lista.compactar();
+        return lista;
+    }
+}
@@ -0,0 +1,327 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package proyectoadn;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * La clase `BuscadorAproximado` encuentra las apariciones de un patrón de hasta 64 bases
+ * con a lo sumo {@code k} diferencias, con algoritmos de paralelismo de bits: el estado de
+ * todas las posiciones del patrón se guarda en un {@code long} y se actualiza con unas
+ * pocas operaciones por base de la secuencia.
+ * <ul>
+ * <li>Solo sustituciones (distancia de Hamming): shift-and de Wu y Manber, con un vector
+ * por cantidad de errores; se informa cada inicio con su menor cantidad de sustituciones.</li>
+ * <li>Sustituciones, inserciones y eliminaciones (distancia de edición): el algoritmo de
+ * Myers, que mantiene las diferencias verticales de la columna de programación dinámica.
+ * Se informa cada posición final cuya distancia no supera {@code k}; el inicio es el de
+ * la alineación más corta con esa distancia, calculado aparte solo para las coincidencias.</li>
+ * </ul>
+ * <p>
+ * El patrón puede contener códigos de ambigüedad IUPAC (por ejemplo {@code GRCGYC}): cada
+ * posición acepta un conjunto de bases, y la máscara de cada base tiene un bit en todas las
+ * posiciones que la aceptan, así que el autómata es el mismo que para un patrón exacto.
+ * Una posición de la secuencia con un código ambiguo coincide solo con las posiciones del
+ * patrón que aceptan todas sus bases (ver {@link CodigoIUPAC}); los separadores y demás
+ * caracteres inválidos no coinciden con ninguna.
+ * </p>
+ * <p>
+ * La secuencia se reparte
+ * en tramos de posiciones finales que se recorren en paralelo; cada tramo empieza a leer
+ * {@code m + k} bases antes, lo que alcanza para que su estado sea el mismo que en un
+ * recorrido completo en todas las posiciones que informa.
+ * </p>
+ */
+public class BuscadorAproximado {
+
+    /**
+     * Longitud máxima del patrón: una posición por bit de un {@code long}.
+     */
+    public static final int LONGITUD_MAXIMA = 64;
+
+    /**
+     * Cantidad mínima de bases por tramo; por debajo no compensa dividir.
+     */
+    private static final long BASES_MINIMAS_POR_TRAMO = 1L << 20;
+
+    private final int[] conjuntos;
+    private final long[] mascaras;
+    private final long[] mascarasRegion;
+    private final long bitFinal;
+    private final int maximoDiferencias;
+    private final boolean permitirIndels;
+
+    /**
+     * Constructor de `BuscadorAproximado`.
+     *
+     * @param patron Las bases a buscar (A, C, G, T o códigos IUPAC), de 1 a {@link #LONGITUD_MAXIMA}.
+     * @param maximoDiferencias La cantidad máxima de diferencias, menor que la longitud del patrón.
+     * @param permitirIndels {@code true} para contar inserciones y eliminaciones además de sustituciones.
+     * @throws IllegalArgumentException Si el patrón o la cantidad de diferencias no son válidos.
+     */
+    public BuscadorAproximado(String patron, int maximoDiferencias, boolean permitirIndels) {
+        int m = patron.length();
+        if (m == 0 || m > LONGITUD_MAXIMA) {
+            throw new IllegalArgumentException("El patrón debe tener entre 1 y " + LONGITUD_MAXIMA + " bases: " + m);
+        }
+        if (maximoDiferencias < 0 || maximoDiferencias >= m) {
+            throw new IllegalArgumentException("La cantidad de diferencias debe estar entre 0 y " + (m - 1)
+                    + ": " + maximoDiferencias);
+        }
+        this.conjuntos = new int[m];
+        this.mascaras = new long[4];
+        for (int i = 0; i < m; i++) {
+            int conjunto = CodigoIUPAC.conjunto(patron.charAt(i));
+            if (conjunto <= 0) {
+                throw new IllegalArgumentException("El patrón solo puede contener bases o códigos IUPAC: " + patron);
+            }
+            conjuntos[i] = conjunto;
+            for (int codigo = 0; codigo < 4; codigo++) {
+                if ((conjunto & (1 << codigo)) != 0) {
+                    mascaras[codigo] |= 1L << i;
+                }
+            }
+        }
+        // Una región con un conjunto de bases coincide donde el patrón acepta todas ellas.
+        this.mascarasRegion = new long[16];
+        for (int conjunto = 1; conjunto < 16; conjunto++) {
+            long mascara = -1L;
+            for (int codigo = 0; codigo < 4; codigo++) {
+                if ((conjunto & (1 << codigo)) != 0) {
+                    mascara &= mascaras[codigo];
+                }
+            }
+            mascarasRegion[conjunto] = mascara;
+        }
+        this.bitFinal = 1L << (m - 1);
+        this.maximoDiferencias = maximoDiferencias;
+        this.permitirIndels = permitirIndels;
+    }
+
+    /**
+     * Busca las coincidencias en una secuencia usando un {@link ForkJoinPool}.
+     *
+     * @param secuencia La secuencia a recorrer.
+     * @param pool El pool de hilos en el que se recorren los tramos.
+     * @return Las coincidencias, ordenadas por posición final.
+     */
+    public CoincidenciaAproximada[] buscar(SecuenciaEmpaquetada secuencia, ForkJoinPool pool) {
+        long longitud = secuencia.longitud();
+        // Posiciones (de la última base) donde puede terminar una coincidencia.
+        long primerFinal = permitirIndels ? conjuntos.length - maximoDiferencias - 1 : conjuntos.length - 1;
+        if (longitud <= primerFinal) {
+            return new CoincidenciaAproximada[0];
+        }
+        long numFinales = longitud - primerFinal;
+        long basesPorTramo = Math.max(BASES_MINIMAS_POR_TRAMO, numFinales / (4L * pool.getParallelism()) + 1);
+        int numTramos = (int) ((numFinales + basesPorTramo - 1) / basesPorTramo);
+        Tramo[] tramos = new Tramo[numTramos];
+        for (int t = 0; t < numTramos; t++) {
+            long desde = primerFinal + t * basesPorTramo;
+            long fin = Math.min(desde + basesPorTramo, longitud);
+            tramos[t] = permitirIndels ? new TramoMyers(secuencia, desde, fin) : new TramoShiftAnd(secuencia, desde, fin);
+        }
+        pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(tramos)));
+
+        int total = 0;
+        for (Tramo tramo : tramos) {
+            total += tramo.encontradas.tamano;
+        }
+        CoincidenciaAproximada[] resultado = new CoincidenciaAproximada[total];
+        int copiadas = 0;
+        for (Tramo tramo : tramos) {
+            System.arraycopy(tramo.encontradas.elementos, 0, resultado, copiadas, tramo.encontradas.tamano);
+            copiadas += tramo.encontradas.tamano;
+        }
+        return resultado;
+    }
+
+    /**
+     * Calcula dónde empieza la alineación más corta del patrón que termina justo antes de
+     * {@code fin} con la distancia dada, con programación dinámica sobre el patrón y el
+     * texto leídos hacia atrás (a lo sumo {@code m + k} bases).
+     */
+    private long calcularInicio(SecuenciaEmpaquetada secuencia, long fin, int distancia) {
+        int m = conjuntos.length;
+        int ventana = (int) Math.min(fin, m + maximoDiferencias);
+        int[] anterior = new int[m + 1];
+        int[] actual = new int[m + 1];
+        for (int i = 0; i <= m; i++) {
+            anterior[i] = i;
+        }
+        for (int l = 1; l <= ventana; l++) {
+            long posicion = fin - l;
+            int bases = CodigoIUPAC.conjunto(secuencia.baseEn(posicion));
+            actual[0] = l;
+            for (int i = 1; i <= m; i++) {
+                boolean coincide = bases > 0 && (bases & ~conjuntos[m - i]) == 0;
+                int sustitucion = anterior[i - 1] + (coincide ? 0 : 1);
+                actual[i] = Math.min(sustitucion, Math.min(anterior[i], actual[i - 1]) + 1);
+            }
+            if (actual[m] == distancia) {
+                return posicion;
+            }
+            int[] auxiliar = anterior;
+            anterior = actual;
+            actual = auxiliar;
+        }
+        return fin - ventana;
+    }
+
+    /**
+     * Recorre las posiciones finales {@code [desde, hasta)} de un tramo. Los tramos de
+     * bases válidas se leen palabra por palabra; en cada región inválida la máscara es la
+     * misma para todas sus posiciones, y si no coincide con nada basta con procesar
+     * {@code m + k} de ellas: el estado ya no cambia y ninguna posición de la región
+     * puede informarse, así que el resto se salta.
+     */
+    private abstract class Tramo extends RecursiveTask<Void> {
+        private static final long serialVersionUID = 1L;
+
+        final transient SecuenciaEmpaquetada secuencia;
+        final long desde;
+        final long hasta;
+
+        // Resultado, leído por buscar después de invokeAll.
+        final transient ListaCoincidencias encontradas = new ListaCoincidencias();
+
+        Tramo(SecuenciaEmpaquetada secuencia, long desde, long hasta) {
+            this.secuencia = secuencia;
+            this.desde = desde;
+            this.hasta = hasta;
+        }
+
+        /**
+         * Actualiza el estado con la máscara del patrón para la base en la posición {@code j}.
+         */
+        abstract void avanzar(long mascara, long j);
+
+        @Override
+        protected Void compute() {
+            int pasosHastaEstable = conjuntos.length + maximoDiferencias;
+            long j = Math.max(0, desde - pasosHastaEstable);
+            int numRegiones = secuencia.getNumRegionesInvalidas();
+            int region = secuencia.regionInvalidaDesde(j);
+            if (region < 0) {
+                region = numRegiones;
+            }
+            while (j < hasta) {
+                long inicioRegion = region < numRegiones ? secuencia.getInicioRegionInvalida(region) : hasta;
+                long finValidas = Math.min(inicioRegion, hasta);
+                if (j < finValidas) {
+                    long palabra = secuencia.palabra(j >>> 5);
+                    for (; j < finValidas; j++) {
+                        if ((j & 31) == 0) {
+                            palabra = secuencia.palabra(j >>> 5);
+                        }
+                        avanzar(mascaras[(int) (palabra >>> ((j & 31) << 1)) & 3], j);
+                    }
+                }
+                if (j >= hasta) {
+                    break;
+                }
+                long finRegion = Math.min(inicioRegion + secuencia.getLongitudRegionInvalida(region), hasta);
+                long mascara = mascarasRegion[CodigoIUPAC.conjunto(secuencia.getLetraRegionInvalida(region))];
+                long limite = mascara == 0 ? Math.min(finRegion, j + pasosHastaEstable) : finRegion;
+                for (; j < limite; j++) {
+                    avanzar(mascara, j);
+                }
+                j = finRegion;
+                region++;
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Tramo de búsqueda con sustituciones solamente (shift-and).
+     */
+    private final class TramoShiftAnd extends Tramo {
+        private static final long serialVersionUID = 1L;
+
+        // El bit i de estados[d] indica que los primeros i + 1 caracteres del patrón
+        // coinciden con d sustituciones o menos terminando en la última posición leída.
+        private final transient long[] estados = new long[maximoDiferencias + 1];
+
+        TramoShiftAnd(SecuenciaEmpaquetada secuencia, long desde, long hasta) {
+            super(secuencia, desde, hasta);
+        }
+
+        @Override
+        void avanzar(long mascara, long j) {
+            long previo = estados[0];
+            estados[0] = ((previo << 1) | 1) & mascara;
+            for (int d = 1; d <= maximoDiferencias; d++) {
+                long actual = estados[d];
+                estados[d] = (((actual << 1) | 1) & mascara) | (previo << 1) | 1;
+                previo = actual;
+            }
+            if (j >= desde) {
+                for (int d = 0; d <= maximoDiferencias; d++) {
+                    if ((estados[d] & bitFinal) != 0) {
+                        encontradas.agregar(new CoincidenciaAproximada(j - conjuntos.length + 1, j + 1, d));
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Tramo de búsqueda con sustituciones, inserciones y eliminaciones (Myers).
+     */
+    private final class TramoMyers extends Tramo {
+        private static final long serialVersionUID = 1L;
+
+        private long positivos = -1L; // Diferencias verticales +1.
+        private long negativos = 0;   // Diferencias verticales -1.
+        private int distancia = conjuntos.length;
+
+        TramoMyers(SecuenciaEmpaquetada secuencia, long desde, long hasta) {
+            super(secuencia, desde, hasta);
+        }
+
+        @Override
+        void avanzar(long mascara, long j) {
+            long xv = mascara | negativos;
+            long xh = (((mascara & positivos) + positivos) ^ positivos) | mascara;
+            long horizontalesPositivos = negativos | ~(xh | positivos);
+            long horizontalesNegativos = positivos & xh;
+            if ((horizontalesPositivos & bitFinal) != 0) {
+                distancia++;
+            } else if ((horizontalesNegativos & bitFinal) != 0) {
+                distancia--;
+            }
+            // Sin "| 1": la coincidencia puede empezar en cualquier posición del texto.
+            horizontalesPositivos <<= 1;
+            horizontalesNegativos <<= 1;
+            positivos = horizontalesNegativos | ~(xv | horizontalesPositivos);
+            negativos = horizontalesPositivos & xv;
+            if (j >= desde && distancia <= maximoDiferencias) {
+                encontradas.agregar(new CoincidenciaAproximada(
+                        calcularInicio(secuencia, j + 1, distancia), j + 1, distancia));
+            }
+        }
+    }
+
+    /**
+     * Lista dinámica de coincidencias respaldada por un arreglo.
+     */
+    private static final class ListaCoincidencias {
+        CoincidenciaAproximada[] elementos = new CoincidenciaAproximada[8];
+        int tamano;
+
+        void agregar(CoincidenciaAproximada coincidencia) {
+            if (tamano == elementos.length) {
+                CoincidenciaAproximada[] nuevos = new CoincidenciaAproximada[tamano * 2];
+                System.arraycopy(elementos, 0, nuevos, 0, tamano);
+                elementos = nuevos;
+            }
+            elementos[tamano++] = coincidencia;
+        }
+    }
+}
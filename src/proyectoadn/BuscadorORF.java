@@ -0,0 +1,256 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package proyectoadn;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * La clase `BuscadorORF` encuentra los marcos abiertos de lectura de los seis marcos
+ * de una secuencia: tramos que empiezan en un codón de inicio (Metionina) y terminan
+ * en el primer codón de parada del mismo marco. Un codón de inicio dentro de un ORF
+ * abierto no abre otro, así cada ORF es el más largo posible para su parada. Los
+ * tramos sin parada al final de la secuencia, o cortados por una base inválida,
+ * se descartan.
+ * <p>
+ * Los codones se clasifican con dos arreglos de 64 posiciones indexados por el
+ * código del codón, armados una sola vez a partir del {@link CodigoGenetico} (con los
+ * codones de inicio de esa tabla, incluidos los alternativos como GTG o TTG), y las
+ * proteínas se traducen con un {@link TraductorProteinas}; el codón de inicio siempre
+ * se traduce como Metionina.
+ * </p>
+ * <p>
+ * La secuencia se reparte en tramos que se recorren en paralelo, cada uno suponiendo
+ * que no hay un ORF abierto al empezar. Como un ORF que viene de un tramo anterior
+ * solo afecta a los codones anteriores al primer terminador (parada o codón inválido)
+ * del tramo, basta con que cada tramo recuerde ese terminador y el ORF que queda
+ * abierto al final para unir los resultados en orden sin volver a recorrer nada.
+ * </p>
+ */
+public class BuscadorORF {
+
+    /**
+     * Cantidad mínima de bases por tramo; por debajo no compensa dividir.
+     */
+    private static final long BASES_MINIMAS_POR_TRAMO = 3L * 256 * 1024;
+    private static final int CODONES_POR_BLOQUE = 1024;
+    private static final int SIN_POSICION = -1;
+    private static final byte METIONINA = 'M';
+
+    private final TraductorProteinas traductor;
+    private final boolean[] esInicio;
+    private final boolean[] esParada;
+    private final int longitudMinima;
+
+    /**
+     * Constructor de `BuscadorORF`.
+     *
+     * @param traductor El traductor con el código genético a usar.
+     * @param longitudMinima La cantidad mínima de aminoácidos (sin la parada) que debe codificar un ORF.
+     * @throws IllegalArgumentException Si la longitud mínima es negativa.
+     */
+    public BuscadorORF(TraductorProteinas traductor, int longitudMinima) {
+        if (longitudMinima < 0) {
+            throw new IllegalArgumentException("La longitud mínima no puede ser negativa: " + longitudMinima);
+        }
+        this.traductor = traductor;
+        this.esInicio = new boolean[64];
+        this.esParada = new boolean[64];
+        CodigoGenetico codigoGenetico = traductor.getCodigoGenetico();
+        for (int codigo = 0; codigo < 64; codigo++) {
+            esInicio[codigo] = codigoGenetico.esInicio(codigo);
+            esParada[codigo] = codigoGenetico.esParada(codigo);
+        }
+        this.longitudMinima = longitudMinima;
+    }
+
+    /**
+     * Busca los ORF de los seis marcos de una secuencia usando un {@link ForkJoinPool}.
+     *
+     * @param secuencia La secuencia a analizar.
+     * @param pool El pool de hilos en el que se recorren los tramos.
+     * @return Los ORF encontrados, agrupados por marco (de {@code +1} a {@code -3})
+     * y, dentro de cada marco, en el orden en que se leen.
+     */
+    public MarcoAbiertoLectura[] buscar(SecuenciaEmpaquetada secuencia, ForkJoinPool pool) {
+        long longitud = secuencia.longitud();
+        if (longitud < 3) {
+            return new MarcoAbiertoLectura[0];
+        }
+        long numInicios = longitud - 2; // Posiciones donde puede comenzar un codón.
+        long basesPorTramo = Math.max(BASES_MINIMAS_POR_TRAMO, numInicios / (4L * pool.getParallelism()) + 1);
+        int numTramos = (int) ((numInicios + basesPorTramo - 1) / basesPorTramo);
+
+        Tramo[] tramos = new Tramo[ContadorSeisMarcos.NUM_MARCOS * numTramos];
+        for (int marco = 0; marco < ContadorSeisMarcos.NUM_MARCOS; marco++) {
+            for (int t = 0; t < numTramos; t++) {
+                long desde = t * basesPorTramo;
+                long hasta = Math.min(desde + basesPorTramo, numInicios);
+                tramos[marco * numTramos + t] = new Tramo(secuencia, marco, desde, hasta);
+            }
+        }
+        pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(tramos)));
+
+        ListaORF resultado = new ListaORF();
+        for (int marco = 0; marco < ContadorSeisMarcos.NUM_MARCOS; marco++) {
+            unirTramos(secuencia, marco, tramos, marco * numTramos, numTramos, resultado);
+        }
+        return resultado.aArreglo();
+    }
+
+    /**
+     * Une en orden de lectura los resultados de los tramos de un marco: en los marcos
+     * directos de izquierda a derecha y en los inversos de derecha a izquierda.
+     */
+    private void unirTramos(SecuenciaEmpaquetada secuencia, int marco, Tramo[] tramos, int primero,
+            int cantidad, ListaORF resultado) {
+        boolean inverso = marco >= 3;
+        long abiertoDesde = SIN_POSICION;
+        for (int k = 0; k < cantidad; k++) {
+            Tramo tramo = tramos[primero + (inverso ? cantidad - 1 - k : k)];
+            int omitir = 0;
+            if (abiertoDesde != SIN_POSICION) {
+                if (tramo.primerTerminador == SIN_POSICION) {
+                    continue; // El ORF sigue abierto a través de todo el tramo.
+                }
+                if (tramo.terminadorEsParada) {
+                    agregarSiAlcanza(secuencia, marco, abiertoDesde, tramo.primerTerminador, resultado);
+                }
+                // El ORF que el tramo abrió antes de su primer terminador era parte del que venía abierto.
+                omitir = tramo.primeroCierraEnTerminador ? 1 : 0;
+            }
+            for (int i = omitir; i < tramo.encontrados.tamano; i++) {
+                resultado.agregar(tramo.encontrados.elementos[i]);
+            }
+            abiertoDesde = tramo.abiertoAlFinal;
+        }
+    }
+
+    private void agregarSiAlcanza(SecuenciaEmpaquetada secuencia, int marco, long codonInicio,
+            long codonParada, ListaORF destino) {
+        if (Math.abs(codonParada - codonInicio) / 3 >= longitudMinima) {
+            destino.agregar(crearORF(secuencia, marco, codonInicio, codonParada));
+        }
+    }
+
+    /**
+     * Crea un ORF a partir de las posiciones (en la hebra directa) de la primera base
+     * de su codón de inicio y de su codón de parada, traduciendo los codones intermedios.
+     */
+    private MarcoAbiertoLectura crearORF(SecuenciaEmpaquetada secuencia, int marco, long codonInicio, long codonParada) {
+        // En la hebra inversa el tramo a traducir va desde después de la parada hasta el
+        // final del codón de inicio, y se lee hacia atrás empezando por este.
+        byte[] aminoacidos = marco >= 3
+                ? traductor.traducir(secuencia, codonParada + 3, codonInicio + 3, true)
+                : traductor.traducir(secuencia, codonInicio, codonParada, false);
+        // Un inicio alternativo (GTG, TTG...) codifica Metionina cuando abre la proteína.
+        aminoacidos[0] = METIONINA;
+        String proteina = new String(aminoacidos, StandardCharsets.ISO_8859_1);
+        return marco >= 3
+                ? new MarcoAbiertoLectura(marco, codonParada, codonInicio + 3, proteina)
+                : new MarcoAbiertoLectura(marco, codonInicio, codonParada + 3, proteina);
+    }
+
+    /**
+     * Recorre los codones de un marco cuyo inicio cae en {@code [desde, hasta)},
+     * suponiendo que no hay un ORF abierto antes del tramo.
+     */
+    private final class Tramo extends RecursiveTask<Void> {
+        private static final long serialVersionUID = 1L;
+
+        private final transient SecuenciaEmpaquetada secuencia;
+        private final int marco;
+        private final long desde;
+        private final long hasta;
+
+        // Resultados, leídos por unirTramos después de invokeAll.
+        final transient ListaORF encontrados = new ListaORF();
+        long primerTerminador = SIN_POSICION;
+        boolean terminadorEsParada;
+        boolean primeroCierraEnTerminador;
+        long abiertoAlFinal = SIN_POSICION;
+
+        Tramo(SecuenciaEmpaquetada secuencia, int marco, long desde, long hasta) {
+            this.secuencia = secuencia;
+            this.marco = marco;
+            this.desde = desde;
+            this.hasta = hasta;
+        }
+
+        @Override
+        protected Void compute() {
+            boolean inverso = marco >= 3;
+            // Residuo módulo 3 de las posiciones donde empiezan los codones de este marco.
+            long residuo = inverso ? Math.floorMod(secuencia.longitud() - 3 - (marco - 3), 3L) : marco;
+            long primerCodon = desde + Math.floorMod(residuo - desde, 3L);
+            if (primerCodon >= hasta) {
+                return null;
+            }
+            long numCodones = (hasta - 1 - primerCodon) / 3 + 1;
+            int[] codones = new int[CODONES_POR_BLOQUE];
+            long abiertoDesde = SIN_POSICION;
+
+            for (long hecho = 0; hecho < numCodones; ) {
+                int bloque = (int) Math.min(CODONES_POR_BLOQUE, numCodones - hecho);
+                // Los marcos inversos toman los bloques desde el final del tramo.
+                long primerIndice = inverso ? numCodones - hecho - bloque : hecho;
+                secuencia.extraerCodones(primerCodon + 3 * primerIndice, codones, bloque);
+                for (int j = 0; j < bloque; j++) {
+                    int i = inverso ? bloque - 1 - j : j;
+                    long posicion = primerCodon + 3 * (primerIndice + i);
+                    int codigo = codones[i];
+                    if (codigo >= 0 && inverso) {
+                        codigo = SecuenciaEmpaquetada.codonComplementarioInverso(codigo);
+                    }
+                    if (codigo < 0 || esParada[codigo]) {
+                        boolean esPrimero = primerTerminador == SIN_POSICION;
+                        if (esPrimero) {
+                            primerTerminador = posicion;
+                            terminadorEsParada = codigo >= 0;
+                        }
+                        if (abiertoDesde != SIN_POSICION && codigo >= 0) {
+                            int antes = encontrados.tamano;
+                            agregarSiAlcanza(secuencia, marco, abiertoDesde, posicion, encontrados);
+                            if (esPrimero) {
+                                primeroCierraEnTerminador = encontrados.tamano > antes;
+                            }
+                        }
+                        abiertoDesde = SIN_POSICION;
+                    } else if (abiertoDesde == SIN_POSICION && esInicio[codigo]) {
+                        abiertoDesde = posicion;
+                    }
+                }
+                hecho += bloque;
+            }
+            abiertoAlFinal = abiertoDesde;
+            return null;
+        }
+    }
+
+    /**
+     * Lista dinámica de ORF respaldada por un arreglo.
+     */
+    private static final class ListaORF {
+        MarcoAbiertoLectura[] elementos = new MarcoAbiertoLectura[8];
+        int tamano;
+
+        void agregar(MarcoAbiertoLectura orf) {
+            if (tamano == elementos.length) {
+                MarcoAbiertoLectura[] nuevos = new MarcoAbiertoLectura[tamano * 2];
+                System.arraycopy(elementos, 0, nuevos, 0, tamano);
+                elementos = nuevos;
+            }
+            elementos[tamano++] = orf;
+        }
+
+        MarcoAbiertoLectura[] aArreglo() {
+            MarcoAbiertoLectura[] resultado = new MarcoAbiertoLectura[tamano];
+            System.arraycopy(elementos, 0, resultado, 0, tamano);
+            return resultado;
+        }
+    }
+}
@@ -0,0 +1,324 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package proyectoadn;
+
+import logic.MiArbolBinarioBusqueda;
+
+/**
+ * La clase `CacheAnalisis` conserva los análisis de los últimos archivos cargados
+ * (secuencia, tabla hash, árbol de frecuencias y resultados por marco) para que volver
+ * a un archivo reciente no requiera cargarlo ni procesarlo otra vez.
+ * <p>
+ * La capacidad se mide en bytes estimados, no en cantidad de archivos, ya que un genoma
+ * puede ocupar mil veces más que otro. Cuando se supera, se descartan los análisis usados
+ * hace más tiempo (LRU). Las entradas se mantienen en una lista doblemente enlazada,
+ * de la más reciente a la más antigua; como son pocas (cada una es un archivo completo),
+ * buscarlas recorriendo la lista es más simple que mantener además una tabla hash.
+ * </p>
+ * <p>
+ * La memoria de la secuencia de una entrada descartada se libera, salvo que sea la que
+ * el {@link Modelo} está usando (ver {@link #setSecuenciaEnUso(SecuenciaEmpaquetada)});
+ * en ese caso la libera el modelo cuando la reemplaza.
+ * </p>
+ */
+public class CacheAnalisis {
+
+    /**
+     * Capacidad por defecto: 1 GiB.
+     */
+    public static final long CAPACIDAD_POR_DEFECTO = 1L << 30;
+
+    // Estimación de lo que ocupa cada patrón fuera de su lista de ubicaciones:
+    // el objeto, su cadena, su celda en la tabla hash y su nodo en el árbol.
+    private static final long BYTES_POR_PATRON = 160;
+    private static final long BYTES_POR_REGISTRO = 64;
+
+    private long capacidadBytes;
+    private long bytesOcupados;
+    private int numEntradas;
+    private Entrada masReciente;
+    private Entrada masAntigua;
+    private SecuenciaEmpaquetada secuenciaEnUso;
+
+    private long aciertos;
+    private long fallos;
+    private long desalojos;
+
+    /**
+     * Constructor de `CacheAnalisis`.
+     *
+     * @param capacidadBytes La cantidad máxima de bytes estimados a conservar; 0 desactiva la caché.
+     * @throws IllegalArgumentException Si la capacidad es negativa.
+     */
+    public CacheAnalisis(long capacidadBytes) {
+        if (capacidadBytes < 0) {
+            throw new IllegalArgumentException("La capacidad no puede ser negativa: " + capacidadBytes);
+        }
+        this.capacidadBytes = capacidadBytes;
+    }
+
+    /**
+     * Busca el análisis guardado con una clave y, si está, lo marca como el más reciente.
+     *
+     * @param clave La clave del archivo y la configuración del análisis.
+     * @return La entrada guardada, o {@code null} si no está.
+     */
+    Entrada buscar(String clave) {
+        for (Entrada entrada = masReciente; entrada != null; entrada = entrada.siguiente) {
+            if (entrada.clave.equals(clave)) {
+                aciertos++;
+                desenlazar(entrada);
+                enlazarAlFrente(entrada);
+                return entrada;
+            }
+        }
+        fallos++;
+        return null;
+    }
+
+    /**
+     * Guarda un análisis como el más reciente, reemplazando al que tenga la misma clave,
+     * y descarta los más antiguos hasta volver a la capacidad. Un análisis que por sí
+     * solo supera la capacidad no se guarda.
+     *
+     * @param entrada El análisis a guardar.
+     * @return {@code true} si quedó guardado.
+     */
+    boolean agregar(Entrada entrada) {
+        for (Entrada otra = masReciente; otra != null; otra = otra.siguiente) {
+            if (otra.clave.equals(entrada.clave)) {
+                descartar(otra);
+                break;
+            }
+        }
+        if (entrada.bytes > capacidadBytes) {
+            return false;
+        }
+        enlazarAlFrente(entrada);
+        numEntradas++;
+        bytesOcupados += entrada.bytes;
+        ajustarACapacidad();
+        return true;
+    }
+
+    /**
+     * Indica si una secuencia pertenece a alguna entrada de la caché.
+     *
+     * @param secuencia La secuencia a buscar.
+     * @return {@code true} si la caché la conserva (y se encargará de liberarla).
+     */
+    boolean contieneSecuencia(SecuenciaEmpaquetada secuencia) {
+        for (Entrada entrada = masReciente; entrada != null; entrada = entrada.siguiente) {
+            if (entrada.secuencia == secuencia) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Indica qué secuencia está usando el modelo, para no liberarla si su entrada se descarta.
+     *
+     * @param secuencia La secuencia principal actual.
+     */
+    void setSecuenciaEnUso(SecuenciaEmpaquetada secuencia) {
+        this.secuenciaEnUso = secuencia;
+    }
+
+    /**
+     * Cambia la capacidad, descartando los análisis más antiguos si ya no caben.
+     *
+     * @param capacidadBytes La nueva capacidad en bytes estimados; 0 desactiva la caché.
+     * @throws IllegalArgumentException Si la capacidad es negativa.
+     */
+    public void setCapacidadBytes(long capacidadBytes) {
+        if (capacidadBytes < 0) {
+            throw new IllegalArgumentException("La capacidad no puede ser negativa: " + capacidadBytes);
+        }
+        this.capacidadBytes = capacidadBytes;
+        ajustarACapacidad();
+    }
+
+    /**
+     * Descarta todos los análisis guardados. Las estadísticas se conservan.
+     */
+    public void limpiar() {
+        while (masAntigua != null) {
+            descartar(masAntigua);
+            desalojos++;
+        }
+    }
+
+    private void ajustarACapacidad() {
+        while (bytesOcupados > capacidadBytes && masAntigua != null) {
+            descartar(masAntigua);
+            desalojos++;
+        }
+    }
+
+    private void descartar(Entrada entrada) {
+        desenlazar(entrada);
+        numEntradas--;
+        bytesOcupados -= entrada.bytes;
+        if (entrada.secuencia != secuenciaEnUso) {
+            entrada.secuencia.liberar();
+        }
+    }
+
+    private void enlazarAlFrente(Entrada entrada) {
+        entrada.anterior = null;
+        entrada.siguiente = masReciente;
+        if (masReciente != null) {
+            masReciente.anterior = entrada;
+        }
+        masReciente = entrada;
+        if (masAntigua == null) {
+            masAntigua = entrada;
+        }
+    }
+
+    private void desenlazar(Entrada entrada) {
+        if (entrada.anterior != null) {
+            entrada.anterior.siguiente = entrada.siguiente;
+        } else {
+            masReciente = entrada.siguiente;
+        }
+        if (entrada.siguiente != null) {
+            entrada.siguiente.anterior = entrada.anterior;
+        } else {
+            masAntigua = entrada.anterior;
+        }
+        entrada.anterior = null;
+        entrada.siguiente = null;
+    }
+
+    /**
+     * Obtiene la capacidad de la caché.
+     * @return La capacidad en bytes estimados.
+     */
+    public long getCapacidadBytes() {
+        return capacidadBytes;
+    }
+
+    /**
+     * Obtiene lo que ocupan los análisis guardados.
+     * @return Los bytes estimados en uso.
+     */
+    public long getBytesOcupados() {
+        return bytesOcupados;
+    }
+
+    /**
+     * Obtiene la cantidad de análisis guardados.
+     * @return El número de entradas.
+     */
+    public int getNumEntradas() {
+        return numEntradas;
+    }
+
+    /**
+     * Obtiene la cantidad de búsquedas que encontraron el análisis guardado.
+     * @return El número de aciertos.
+     */
+    public long getAciertos() {
+        return aciertos;
+    }
+
+    /**
+     * Obtiene la cantidad de búsquedas que no encontraron el análisis.
+     * @return El número de fallos.
+     */
+    public long getFallos() {
+        return fallos;
+    }
+
+    /**
+     * Obtiene la cantidad de análisis descartados por falta de espacio o por {@link #limpiar()}.
+     * @return El número de desalojos.
+     */
+    public long getDesalojos() {
+        return desalojos;
+    }
+
+    /**
+     * Calcula la proporción de búsquedas que fueron aciertos.
+     * @return La tasa de aciertos entre 0 y 1, o 0 si no hubo búsquedas.
+     */
+    public double getTasaAciertos() {
+        long busquedas = aciertos + fallos;
+        return busquedas == 0 ? 0 : (double) aciertos / busquedas;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Caché de análisis: %d archivo(s), %.1f de %.1f MB; "
+                + "%d acierto(s), %d fallo(s), %d desalojo(s) (%.0f%% de aciertos)",
+                numEntradas, bytesOcupados / (1024.0 * 1024.0), capacidadBytes / (1024.0 * 1024.0),
+                aciertos, fallos, desalojos, getTasaAciertos() * 100);
+    }
+
+    /**
+     * Un análisis guardado: lo que el {@link Modelo} necesita para volver a publicarlo
+     * tal cual. El árbol de frecuencias se guarda solo si ya estaba construido; si es
+     * {@code null}, el modelo lo vuelve a armar cuando lo necesite.
+     */
+    static final class Entrada {
+        final String clave;
+        final SecuenciaEmpaquetada secuencia;
+        final IndiceRegistros indiceRegistros;
+        final TablaHash tablaPatrones;
+        final MiArbolBinarioBusqueda arbolFrecuenciaPatrones;
+        final PatronADN[] patrones;
+        final PatronADN[][] patronesPorMarco;
+        final long bytes;
+
+        private Entrada anterior;
+        private Entrada siguiente;
+
+        Entrada(String clave, SecuenciaEmpaquetada secuencia, IndiceRegistros indiceRegistros,
+                TablaHash tablaPatrones, MiArbolBinarioBusqueda arbolFrecuenciaPatrones, PatronADN[] patrones,
+                PatronADN[][] patronesPorMarco) {
+            this.clave = clave;
+            this.secuencia = secuencia;
+            this.indiceRegistros = indiceRegistros;
+            this.tablaPatrones = tablaPatrones;
+            this.arbolFrecuenciaPatrones = arbolFrecuenciaPatrones;
+            this.patrones = patrones;
+            this.patronesPorMarco = patronesPorMarco;
+            this.bytes = estimarBytes();
+        }
+
+        /**
+         * Estima la memoria del análisis: las palabras y regiones de la secuencia, las
+         * listas de ubicaciones y un costo fijo por patrón y por registro.
+         */
+        private long estimarBytes() {
+            long total = secuencia.getNumPalabrasUsadas() * Long.BYTES
+                    + (long) secuencia.getNumRegionesInvalidas() * (2 * Long.BYTES + 1);
+            total += estimarBytes(patrones);
+            if (patronesPorMarco != null) {
+                for (PatronADN[] marco : patronesPorMarco) {
+                    if (marco != patrones) {
+                        total += estimarBytes(marco);
+                    }
+                }
+            }
+            if (indiceRegistros != null) {
+                for (int i = 0; i < indiceRegistros.getNumRegistros(); i++) {
+                    total += BYTES_POR_REGISTRO + 2L * indiceRegistros.getRegistro(i).getNombre().length();
+                }
+            }
+            return total;
+        }
+
+        private static long estimarBytes(PatronADN[] grupo) {
+            long total = 0;
+            for (PatronADN patron : grupo) {
+                total += BYTES_POR_PATRON + patron.getListaUbicaciones().getBytesUsados();
+            }
+            return total;
+        }
+    }
+}
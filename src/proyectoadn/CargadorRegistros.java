@@ -0,0 +1,209 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package proyectoadn;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * La clase `CargadorRegistros` carga un archivo FASTA o FASTQ con un {@link LectorFastx}
+ * y analiza sus registros en paralelo mientras se siguen leyendo.
+ * <p>
+ * Los registros se agrupan en lotes de unas {@link #BASES_POR_LOTE} bases. Cada lote
+ * completo se entrega a un hilo del pool, que cuenta sus codones con un
+ * {@link ContadorCodones} propio, y el hilo lector sigue con el lote siguiente. Los lotes
+ * terminados se unen en el orden del archivo: sus bases se agregan a la secuencia destino
+ * y su contador se fusiona con el total, así las ubicaciones quedan en orden ascendente
+ * y el resultado no depende de cuántos hilos haya. Nunca hay más de
+ * {@code 2 * paralelismo} lotes en memoria, por grande que sea el archivo.
+ * </p>
+ * <p>
+ * Entre dos registros se agregan de 1 a 3 bases inválidas, de modo que cada registro
+ * empieza en una posición múltiplo de 3: el marco 0 de la secuencia completa coincide
+ * con el marco 0 de cada registro, y ningún codón ni k-mer mezcla bases de dos registros.
+ * </p>
+ */
+public class CargadorRegistros {
+
+    /**
+     * Cantidad aproximada de bases de cada lote que se analiza en un hilo.
+     */
+    private static final long BASES_POR_LOTE = 4L * 1024 * 1024;
+
+    private final SecuenciaEmpaquetada destino;
+    private final boolean contarCodones;
+    private final ForkJoinPool pool;
+    private final IndiceRegistros indice;
+    private ContadorCodones contador;
+    private long bytesLeidos;
+    private long nanosegundos;
+
+    // Cola circular de lotes enviados al pool y aún no unidos, en orden de lectura.
+    private final SecuenciaEmpaquetada[] lotesPendientes;
+    private final ForkJoinTask<?>[] tareasPendientes;
+    private int primerPendiente;
+    private int numPendientes;
+
+    /**
+     * Constructor de `CargadorRegistros`.
+     *
+     * @param destino La secuencia donde se agregan los registros, uno tras otro.
+     * @param contarCodones {@code true} para contar los codones del marco 0 de cada registro durante la carga.
+     * @param pool El pool de hilos donde se analizan los lotes.
+     */
+    public CargadorRegistros(SecuenciaEmpaquetada destino, boolean contarCodones, ForkJoinPool pool) {
+        this.destino = destino;
+        this.contarCodones = contarCodones;
+        this.pool = pool;
+        this.indice = new IndiceRegistros();
+        this.contador = contarCodones ? new ContadorCodones() : null;
+        int maximoPendientes = 2 * pool.getParallelism();
+        this.lotesPendientes = new SecuenciaEmpaquetada[maximoPendientes];
+        this.tareasPendientes = new ForkJoinTask<?>[maximoPendientes];
+        this.primerPendiente = 0;
+        this.numPendientes = 0;
+    }
+
+    /**
+     * Lee todos los registros de un flujo. Si la lectura falla, se libera el contador
+     * y se propaga la excepción; la secuencia destino queda incompleta.
+     *
+     * @param entrada El flujo con el contenido FASTA o FASTQ; se cierra al terminar.
+     * @throws IOException Si ocurre un error de lectura o el contenido está mal formado.
+     */
+    public void cargar(InputStream entrada) throws IOException {
+        long inicio = System.nanoTime();
+        boolean completa = false;
+        try (LectorFastx lector = new LectorFastx(entrada)) {
+            long inicioLote = destino.longitud();
+            SecuenciaEmpaquetada lote = new SecuenciaEmpaquetada(BASES_POR_LOTE);
+            while (lector.haySiguiente()) {
+                long longitudTotal = inicioLote + lote.longitud();
+                if (longitudTotal > 0) {
+                    lote.agregarInvalidas(3 - longitudTotal % 3);
+                }
+                RegistroSecuencia registro = lector.siguiente(lote);
+                indice.agregar(new RegistroSecuencia(registro.getNombre(),
+                        inicioLote + registro.getInicio(), registro.getLongitud()));
+                if (lote.longitud() >= BASES_POR_LOTE) {
+                    enviar(lote, inicioLote);
+                    inicioLote += lote.longitud();
+                    lote = new SecuenciaEmpaquetada(BASES_POR_LOTE);
+                }
+            }
+            enviar(lote, inicioLote);
+            while (numPendientes > 0) {
+                unirPrimero();
+            }
+            bytesLeidos = lector.getBytesLeidos();
+            completa = true;
+        } finally {
+            if (!completa) {
+                while (numPendientes > 0) {
+                    descartarPrimero();
+                }
+                if (contador != null) {
+                    contador.liberar();
+                }
+            }
+        }
+        nanosegundos = System.nanoTime() - inicio;
+    }
+
+    /**
+     * Envía un lote al pool para contar sus codones y une los lotes anteriores que ya
+     * terminaron. Si la cola está llena, espera al más antiguo.
+     */
+    private void enviar(SecuenciaEmpaquetada lote, long inicioLote) {
+        if (lote.longitud() == 0) {
+            return;
+        }
+        ForkJoinTask<ContadorCodones> tarea = null;
+        if (contarCodones) {
+            tarea = pool.submit(() -> {
+                // El lote empieza en una posición cualquiera, pero su primer registro
+                // empieza en un múltiplo de 3 de la secuencia completa.
+                ContadorCodones contadorLote = new ContadorCodones(inicioLote);
+                contadorLote.contar(lote, Math.floorMod(-inicioLote, 3), lote.longitud());
+                return contadorLote;
+            });
+        }
+        if (numPendientes == lotesPendientes.length) {
+            unirPrimero();
+        }
+        int ultimo = (primerPendiente + numPendientes) % lotesPendientes.length;
+        lotesPendientes[ultimo] = lote;
+        tareasPendientes[ultimo] = tarea;
+        numPendientes++;
+        while (numPendientes > 0 && (tareasPendientes[primerPendiente] == null
+                || tareasPendientes[primerPendiente].isDone())) {
+            unirPrimero();
+        }
+    }
+
+    /**
+     * Une el lote más antiguo: agrega sus bases al destino y fusiona su contador.
+     */
+    private void unirPrimero() {
+        SecuenciaEmpaquetada lote = lotesPendientes[primerPendiente];
+        ForkJoinTask<?> tarea = tareasPendientes[primerPendiente];
+        lotesPendientes[primerPendiente] = null;
+        tareasPendientes[primerPendiente] = null;
+        primerPendiente = (primerPendiente + 1) % lotesPendientes.length;
+        numPendientes--;
+        if (tarea != null) {
+            contador.fusionar((ContadorCodones) tarea.join());
+        }
+        destino.agregarSecuencia(lote);
+    }
+
+    /**
+     * Espera al lote más antiguo y libera su contador sin unirlo.
+     */
+    private void descartarPrimero() {
+        ForkJoinTask<?> tarea = tareasPendientes[primerPendiente];
+        lotesPendientes[primerPendiente] = null;
+        tareasPendientes[primerPendiente] = null;
+        primerPendiente = (primerPendiente + 1) % lotesPendientes.length;
+        numPendientes--;
+        if (tarea != null) {
+            try {
+                ((ContadorCodones) tarea.join()).liberar();
+            } catch (RuntimeException e) {
+                // El error original es el que se propaga.
+            }
+        }
+    }
+
+    /**
+     * Obtiene el índice con los registros cargados.
+     * @return El índice de registros, en el orden del archivo.
+     */
+    public IndiceRegistros getIndice() {
+        return indice;
+    }
+
+    /**
+     * Obtiene el contador con los codones de todos los registros, o {@code null}
+     * si se creó sin contar codones.
+     * @return El contador total.
+     */
+    public ContadorCodones getContador() {
+        return contador;
+    }
+
+    /**
+     * Calcula la velocidad de la última carga en megabytes por segundo.
+     * @return La velocidad de carga en MB/s, o 0 si aún no se ha cargado nada.
+     */
+    public double getVelocidadMBs() {
+        if (nanosegundos == 0) {
+            return 0;
+        }
+        return (bytesLeidos / (1024.0 * 1024.0)) / (nanosegundos / 1e9);
+    }
+}
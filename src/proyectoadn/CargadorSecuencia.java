@@ -0,0 +1,140 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package proyectoadn;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * La clase `CargadorSecuencia` lee un archivo de ADN proyectándolo en memoria
+ * ({@link FileChannel#map}) por regiones y recorre sus bytes una sola vez.
+ * Omite saltos de línea y espacios, empaqueta las bases en una
+ * {@link SecuenciaEmpaquetada} y avisa de cada bloque nuevo al {@link ReceptorBases} opcional,
+ * de modo que el análisis avanza junto con la lectura y el heap no crece con
+ * copias intermedias del archivo. También puede leer de un {@link InputStream},
+ * como el de un archivo comprimido.
+ */
+public class CargadorSecuencia {
+
+    /**
+     * Tamaño de cada región proyectada del archivo (64 MB).
+     */
+    private static final long TAMANO_REGION = 64L * 1024 * 1024;
+
+    /**
+     * Tamaño del buffer intermedio con el que se recorre cada región (64 KB).
+     */
+    private static final int TAMANO_BUFFER = 64 * 1024;
+
+    private final SecuenciaEmpaquetada destino;
+    private final ReceptorBases receptor;
+    private final byte[] buffer;
+    private long bytesLeidos;
+    private long nanosegundos;
+
+    /**
+     * Constructor de `CargadorSecuencia`.
+     *
+     * @param destino La secuencia empaquetada donde se agregan las bases leídas.
+     * @param receptor El receptor que recibe cada base mientras se lee, o {@code null} si no se requiere.
+     */
+    public CargadorSecuencia(SecuenciaEmpaquetada destino, ReceptorBases receptor) {
+        this.destino = destino;
+        this.receptor = receptor;
+        this.buffer = new byte[TAMANO_BUFFER];
+        this.bytesLeidos = 0;
+        this.nanosegundos = 0;
+    }
+
+    /**
+     * Carga el archivo completo, región por región.
+     *
+     * @param archivo El archivo de texto con la secuencia de ADN.
+     * @throws IOException Si ocurre un error al abrir o proyectar el archivo.
+     */
+    public void cargar(File archivo) throws IOException {
+        long inicio = System.nanoTime();
+        try (FileChannel canal = FileChannel.open(archivo.toPath(), StandardOpenOption.READ)) {
+            long tamano = canal.size();
+            for (long desplazamiento = 0; desplazamiento < tamano; desplazamiento += TAMANO_REGION) {
+                long longitudRegion = Math.min(TAMANO_REGION, tamano - desplazamiento);
+                MappedByteBuffer region = canal.map(FileChannel.MapMode.READ_ONLY, desplazamiento, longitudRegion);
+                procesarBloque(region);
+            }
+        }
+        nanosegundos += System.nanoTime() - inicio;
+    }
+
+    /**
+     * Carga el contenido completo de un flujo, por ejemplo el de un archivo comprimido
+     * que se descomprime a medida que se lee. Los bytes se leen directamente en el buffer
+     * intermedio y se procesan igual que los de un archivo proyectado.
+     *
+     * @param entrada El flujo con la secuencia de ADN; se cierra al terminar.
+     * @throws IOException Si ocurre un error al leer el flujo.
+     */
+    public void cargar(InputStream entrada) throws IOException {
+        long inicio = System.nanoTime();
+        try (entrada) {
+            int leidos;
+            while ((leidos = entrada.read(buffer, 0, buffer.length)) >= 0) {
+                agregar(leidos);
+            }
+        }
+        nanosegundos += System.nanoTime() - inicio;
+    }
+
+    /**
+     * Procesa un bloque de bytes del archivo: lo copia por partes a un buffer
+     * pequeño reutilizable, agrega las bases a la secuencia destino (descartando
+     * los espacios en blanco) y avisa al receptor de las bases nuevas.
+     *
+     * @param bloque Los bytes a procesar, entre su posición y su límite.
+     */
+    public void procesarBloque(ByteBuffer bloque) {
+        while (bloque.hasRemaining()) {
+            int cantidad = Math.min(buffer.length, bloque.remaining());
+            bloque.get(buffer, 0, cantidad);
+            agregar(cantidad);
+        }
+    }
+
+    /**
+     * Agrega a la secuencia destino los primeros bytes del buffer intermedio
+     * y avisa al receptor de las bases nuevas.
+     */
+    private void agregar(int cantidad) {
+        long desde = destino.longitud();
+        destino.agregarBases(buffer, 0, cantidad);
+        bytesLeidos += cantidad;
+        if (receptor != null && destino.longitud() > desde) {
+            receptor.basesAgregadas(destino, desde, destino.longitud());
+        }
+    }
+
+    /**
+     * Obtiene la cantidad de bytes leídos del archivo.
+     * @return Los bytes procesados.
+     */
+    public long getBytesLeidos() {
+        return bytesLeidos;
+    }
+
+    /**
+     * Calcula la velocidad de la última carga en megabytes por segundo.
+     * @return La velocidad de carga en MB/s, o 0 si aún no se ha cargado nada.
+     */
+    public double getVelocidadMBs() {
+        if (nanosegundos == 0) {
+            return 0;
+        }
+        return (bytesLeidos / (1024.0 * 1024.0)) / (nanosegundos / 1e9);
+    }
+}
@@ -0,0 +1,221 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package proyectoadn;
+
+/**
+ * Una tabla de traducción del código genético según la numeración del NCBI
+ * (1 estándar, 2 mitocondrial de vertebrados, 11 bacteriana, etc.).
+ * Cada tabla es un arreglo de 64 bytes con la letra del aminoácido de cada codón,
+ * indexado por el código de 6 bits del codón (ver {@link SecuenciaEmpaquetada#codonComoTexto(int)});
+ * las paradas se marcan con {@link #PARADA}. Además indica qué codones pueden iniciar
+ * la traducción, que no siempre son solo los de Metionina: la tabla 11, por ejemplo,
+ * traduce igual que la estándar pero también inicia en GTG, TTG y ATT.
+ * <p>
+ * Las tablas se definen con las cadenas "AAs" y "Starts" que publica el NCBI (codones en
+ * orden TCAG; en la segunda, 'M' marca los codones de inicio), se construyen la primera vez que se piden con {@link #obtener(int)} y
+ * quedan en caché, así cambiar de tabla no vuelve a construir nada.
+ * </p>
+ */
+public final class CodigoGenetico {
+
+    /**
+     * Número de la tabla estándar.
+     */
+    public static final int ESTANDAR = 1;
+
+    /**
+     * Letra que marca los codones de parada.
+     */
+    public static final byte PARADA = '*';
+
+    private static final int ID_MAXIMO = 33;
+    private static final String[] NOMBRES = new String[ID_MAXIMO + 1];
+    private static final String[] AMINOACIDOS_NCBI = new String[ID_MAXIMO + 1];
+    private static final String[] INICIOS_NCBI = new String[ID_MAXIMO + 1];
+    private static final CodigoGenetico[] CACHE = new CodigoGenetico[ID_MAXIMO + 1];
+
+    /**
+     * Posición de cada base (A, C, G, T según su código de 2 bits) en el orden TCAG del NCBI.
+     */
+    private static final int[] ORDEN_NCBI = {2, 1, 3, 0};
+
+    static {
+        definir(1, "Estándar",
+                "FFLLSSSSYY**CC*WLLLLPPPPHHQQRRRRIIIMTTTTNNKKSSRRVVVVAAAADDEEGGGG",
+                "---M------**--*----M---------------M----------------------------");
+        definir(2, "Mitocondrial de vertebrados",
+                "FFLLSSSSYY**CCWWLLLLPPPPHHQQRRRRIIMMTTTTNNKKSS**VVVVAAAADDEEGGGG",
+                "----------**--------------------MMMM----------**---M------------");
+        definir(3, "Mitocondrial de levaduras",
+                "FFLLSSSSYY**CCWWTTTTPPPPHHQQRRRRIIMMTTTTNNKKSSRRVVVVAAAADDEEGGGG",
+                "----------**----------------------MM---------------M------------");
+        definir(4, "Mitocondrial de mohos, protozoos y celentéreos; micoplasmas",
+                "FFLLSSSSYY**CCWWLLLLPPPPHHQQRRRRIIIMTTTTNNKKSSRRVVVVAAAADDEEGGGG",
+                "--MM------**-------M------------MMMM---------------M------------");
+        definir(5, "Mitocondrial de invertebrados",
+                "FFLLSSSSYY**CCWWLLLLPPPPHHQQRRRRIIMMTTTTNNKKSSSSVVVVAAAADDEEGGGG",
+                "---M------**--------------------MMMM---------------M------------");
+        definir(6, "Nuclear de ciliados, dasicladáceas y hexamitas",
+                "FFLLSSSSYYQQCC*WLLLLPPPPHHQQRRRRIIIMTTTTNNKKSSRRVVVVAAAADDEEGGGG",
+                "--------------*--------------------M----------------------------");
+        definir(9, "Mitocondrial de equinodermos y platelmintos",
+                "FFLLSSSSYY**CCWWLLLLPPPPHHQQRRRRIIIMTTTTNNNKSSSSVVVVAAAADDEEGGGG",
+                "----------**-----------------------M---------------M------------");
+        definir(10, "Nuclear de euplótidos",
+                "FFLLSSSSYY**CCCWLLLLPPPPHHQQRRRRIIIMTTTTNNKKSSRRVVVVAAAADDEEGGGG",
+                "----------**-----------------------M----------------------------");
+        definir(11, "Bacterias, arqueas y plástidos",
+                "FFLLSSSSYY**CC*WLLLLPPPPHHQQRRRRIIIMTTTTNNKKSSRRVVVVAAAADDEEGGGG",
+                "---M------**--*----M------------MMMM---------------M------------");
+        definir(12, "Nuclear alternativo de levaduras",
+                "FFLLSSSSYY**CC*WLLLSPPPPHHQQRRRRIIIMTTTTNNKKSSRRVVVVAAAADDEEGGGG",
+                "----------**--*----M---------------M----------------------------");
+        definir(13, "Mitocondrial de ascidias",
+                "FFLLSSSSYY**CCWWLLLLPPPPHHQQRRRRIIMMTTTTNNKKSSGGVVVVAAAADDEEGGGG",
+                "---M------**----------------------MM---------------M------------");
+        definir(14, "Mitocondrial alternativo de platelmintos",
+                "FFLLSSSSYYY*CCWWLLLLPPPPHHQQRRRRIIIMTTTTNNNKSSSSVVVVAAAADDEEGGGG",
+                "-----------*-----------------------M----------------------------");
+        definir(16, "Mitocondrial de clorofíceas",
+                "FFLLSSSSYY*LCC*WLLLLPPPPHHQQRRRRIIIMTTTTNNKKSSRRVVVVAAAADDEEGGGG",
+                "----------*---*--------------------M----------------------------");
+        definir(21, "Mitocondrial de trematodos",
+                "FFLLSSSSYY**CCWWLLLLPPPPHHQQRRRRIIMMTTTTNNNKSSSSVVVVAAAADDEEGGGG",
+                "----------**-----------------------M---------------M------------");
+        definir(22, "Mitocondrial de Scenedesmus obliquus",
+                "FFLLSS*SYY*LCC*WLLLLPPPPHHQQRRRRIIIMTTTTNNKKSSRRVVVVAAAADDEEGGGG",
+                "------*---*---*--------------------M----------------------------");
+        definir(23, "Mitocondrial de Thraustochytrium",
+                "FF*LSSSSYY**CC*WLLLLPPPPHHQQRRRRIIIMTTTTNNKKSSRRVVVVAAAADDEEGGGG",
+                "--*-------**--*-----------------M--M---------------M------------");
+        definir(24, "Mitocondrial de Rhabdopleuridae",
+                "FFLLSSSSYY**CCWWLLLLPPPPHHQQRRRRIIIMTTTTNNKKSSSKVVVVAAAADDEEGGGG",
+                "---M------**-------M---------------M---------------M------------");
+        definir(25, "Bacterias de la división SR1 y Gracilibacteria",
+                "FFLLSSSSYY**CCGWLLLLPPPPHHQQRRRRIIIMTTTTNNKKSSRRVVVVAAAADDEEGGGG",
+                "---M------**-----------------------M---------------M------------");
+        definir(26, "Nuclear de Pachysolen tannophilus",
+                "FFLLSSSSYY**CC*WLLLAPPPPHHQQRRRRIIIMTTTTNNKKSSRRVVVVAAAADDEEGGGG",
+                "----------**--*----M---------------M----------------------------");
+    }
+
+    private static void definir(int id, String nombre, String aminoacidosNcbi, String iniciosNcbi) {
+        NOMBRES[id] = nombre;
+        AMINOACIDOS_NCBI[id] = aminoacidosNcbi;
+        INICIOS_NCBI[id] = iniciosNcbi;
+    }
+
+    private final int id;
+    private final String nombre;
+    private final byte[] aminoacidos;
+    private final boolean[] inicios;
+
+    private CodigoGenetico(int id, String nombre, String aminoacidosNcbi, String iniciosNcbi) {
+        this.id = id;
+        this.nombre = nombre;
+        this.aminoacidos = new byte[64];
+        this.inicios = new boolean[64];
+        for (int codigo = 0; codigo < 64; codigo++) {
+            int indiceNcbi = ORDEN_NCBI[codigo >>> 4] * 16 + ORDEN_NCBI[(codigo >>> 2) & 3] * 4 + ORDEN_NCBI[codigo & 3];
+            aminoacidos[codigo] = (byte) aminoacidosNcbi.charAt(indiceNcbi);
+            inicios[codigo] = iniciosNcbi.charAt(indiceNcbi) == 'M';
+        }
+    }
+
+    /**
+     * Obtiene una tabla por su número del NCBI, construyéndola la primera vez.
+     *
+     * @param id El número de la tabla (por ejemplo 1, 2, 4 u 11).
+     * @return La tabla de traducción.
+     * @throws IllegalArgumentException Si no existe una tabla con ese número.
+     */
+    public static synchronized CodigoGenetico obtener(int id) {
+        if (id < 1 || id > ID_MAXIMO || AMINOACIDOS_NCBI[id] == null) {
+            throw new IllegalArgumentException("No existe la tabla genética " + id + ".");
+        }
+        if (CACHE[id] == null) {
+            CACHE[id] = new CodigoGenetico(id, NOMBRES[id], AMINOACIDOS_NCBI[id], INICIOS_NCBI[id]);
+        }
+        return CACHE[id];
+    }
+
+    /**
+     * Obtiene los números de todas las tablas disponibles, en orden ascendente.
+     * @return Un arreglo nuevo con los números de tabla.
+     */
+    public static int[] getTablasDisponibles() {
+        int cantidad = 0;
+        for (String definicion : AMINOACIDOS_NCBI) {
+            if (definicion != null) {
+                cantidad++;
+            }
+        }
+        int[] ids = new int[cantidad];
+        int indice = 0;
+        for (int id = 1; id <= ID_MAXIMO; id++) {
+            if (AMINOACIDOS_NCBI[id] != null) {
+                ids[indice++] = id;
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Obtiene el número de la tabla según el NCBI.
+     * @return El número de la tabla.
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Obtiene el nombre de la tabla.
+     * @return El nombre descriptivo de la tabla.
+     */
+    public String getNombre() {
+        return nombre;
+    }
+
+    /**
+     * Obtiene la letra del aminoácido de un codón.
+     *
+     * @param codigoCodon El código de 6 bits del codón (0 a 63).
+     * @return La letra del aminoácido, o {@link #PARADA} si es un codón de parada.
+     */
+    public byte getAminoacido(int codigoCodon) {
+        return aminoacidos[codigoCodon];
+    }
+
+    /**
+     * Indica si un codón es de parada en esta tabla.
+     *
+     * @param codigoCodon El código de 6 bits del codón (0 a 63).
+     * @return {@code true} si el codón es de parada.
+     */
+    public boolean esParada(int codigoCodon) {
+        return aminoacidos[codigoCodon] == PARADA;
+    }
+
+    /**
+     * Indica si un codón puede iniciar la traducción en esta tabla. Un codón de inicio
+     * alternativo (como GTG en la tabla 11) se traduce con su propio aminoácido dentro
+     * de una proteína, pero como Metionina cuando es el primero.
+     *
+     * @param codigoCodon El código de 6 bits del codón (0 a 63).
+     * @return {@code true} si el codón es de inicio.
+     */
+    public boolean esInicio(int codigoCodon) {
+        return inicios[codigoCodon];
+    }
+
+    /**
+     * Devuelve el número y el nombre de la tabla.
+     * @return Una cadena como "1. Estándar".
+     */
+    @Override
+    public String toString() {
+        return id + ". " + nombre;
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package proyectoadn;
+
+/**
+ * La clase `CodigoIUPAC` traduce los códigos de ambigüedad de nucleótidos de la IUPAC
+ * (R = A o G, Y = C o T, N = cualquier base, etc.) al conjunto de bases que representan,
+ * como una máscara de 4 bits con el bit {@code 1 << codigo} para cada base (con los
+ * códigos de {@link SecuenciaEmpaquetada}: A=0, C=1, G=2, T=3).
+ * <p>
+ * Una posición de la secuencia con un código ambiguo coincide con una posición de un
+ * patrón cuando todas las bases que puede ser están permitidas por el patrón: una N del
+ * patrón acepta una R de la secuencia, pero una A del patrón no.
+ * </p>
+ */
+public final class CodigoIUPAC {
+
+    /**
+     * Letra con que se guardan los caracteres que no son códigos IUPAC (y los separadores
+     * entre registros): no representa ninguna base y no coincide con nada.
+     */
+    public static final char SIN_BASE = '-';
+
+    private static final byte[] CONJUNTOS = new byte[128];
+    private static final char[] LETRAS = new char[16];
+
+    static {
+        java.util.Arrays.fill(CONJUNTOS, (byte) -1);
+        definir('A', 0b0001);
+        definir('C', 0b0010);
+        definir('G', 0b0100);
+        definir('T', 0b1000);
+        definir('R', 0b0101);
+        definir('Y', 0b1010);
+        definir('S', 0b0110);
+        definir('W', 0b1001);
+        definir('K', 0b1100);
+        definir('M', 0b0011);
+        definir('B', 0b1110);
+        definir('D', 0b1101);
+        definir('H', 0b1011);
+        definir('V', 0b0111);
+        definir('N', 0b1111);
+        CONJUNTOS['U'] = CONJUNTOS['u'] = 0b1000;
+        CONJUNTOS[SIN_BASE] = 0;
+        LETRAS[0] = SIN_BASE;
+    }
+
+    private static void definir(char letra, int conjunto) {
+        CONJUNTOS[letra] = (byte) conjunto;
+        CONJUNTOS[Character.toLowerCase(letra)] = (byte) conjunto;
+        LETRAS[conjunto] = letra;
+    }
+
+    private CodigoIUPAC() {
+    }
+
+    /**
+     * Obtiene el conjunto de bases que representa un código.
+     *
+     * @param caracter La letra del código (mayúscula o minúscula); U se trata como T.
+     * @return La máscara de 4 bits de las bases, 0 para {@link #SIN_BASE}, o -1 si el
+     * carácter no es un código IUPAC.
+     */
+    public static int conjunto(int caracter) {
+        return caracter >= 0 && caracter < CONJUNTOS.length ? CONJUNTOS[caracter] : -1;
+    }
+
+    /**
+     * Obtiene la letra que representa un conjunto de bases.
+     *
+     * @param conjunto La máscara de 4 bits de las bases.
+     * @return La letra IUPAC en mayúscula, o {@link #SIN_BASE} para el conjunto vacío.
+     */
+    public static char letra(int conjunto) {
+        return LETRAS[conjunto & 0xF];
+    }
+
+    /**
+     * Obtiene la letra con que se guarda un carácter que no es A, C, G ni T:
+     * su código de ambigüedad en mayúscula, o {@link #SIN_BASE} si no es uno.
+     *
+     * @param caracter El carácter leído.
+     * @return La letra a guardar en la región inválida.
+     */
+    static char letraAmbigua(int caracter) {
+        int bases = conjunto(caracter);
+        return bases > 0 && Integer.bitCount(bases) > 1 ? LETRAS[bases] : SIN_BASE;
+    }
+}
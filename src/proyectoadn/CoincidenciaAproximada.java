@@ -0,0 +1,63 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package proyectoadn;
+
+/**
+ * Una aparición aproximada de un patrón encontrada por {@link BuscadorAproximado}:
+ * el tramo {@code [inicio, fin)} de la secuencia y su distancia al patrón (cantidad de
+ * sustituciones, o de sustituciones, inserciones y eliminaciones).
+ */
+public class CoincidenciaAproximada {
+
+    private final long inicio;
+    private final long fin;
+    private final int distancia;
+
+    /**
+     * Constructor de `CoincidenciaAproximada`.
+     *
+     * @param inicio La primera posición del tramo (incluida).
+     * @param fin La posición siguiente a la última del tramo (excluida).
+     * @param distancia La distancia entre el tramo y el patrón.
+     */
+    public CoincidenciaAproximada(long inicio, long fin, int distancia) {
+        this.inicio = inicio;
+        this.fin = fin;
+        this.distancia = distancia;
+    }
+
+    /**
+     * Obtiene la primera posición del tramo.
+     * @return La posición inicial (incluida).
+     */
+    public long getInicio() {
+        return inicio;
+    }
+
+    /**
+     * Obtiene la posición siguiente a la última del tramo.
+     * @return La posición final (excluida).
+     */
+    public long getFin() {
+        return fin;
+    }
+
+    /**
+     * Obtiene la distancia entre el tramo y el patrón.
+     * @return La cantidad de diferencias; 0 es una aparición exacta.
+     */
+    public int getDistancia() {
+        return distancia;
+    }
+
+    /**
+     * Devuelve una representación de la coincidencia con sus coordenadas y distancia.
+     * @return Una cadena con la información de la coincidencia.
+     */
+    @Override
+    public String toString() {
+        return "[" + inicio + ", " + fin + ") distancia " + distancia;
+    }
+}
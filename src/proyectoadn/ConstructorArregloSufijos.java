@@ -0,0 +1,216 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package proyectoadn;
+
+import java.util.Arrays;
+
+/**
+ * La clase `ConstructorArregloSufijos` construye el arreglo de sufijos de un texto en
+ * tiempo lineal con el algoritmo SA-IS (ordenamiento inducido, de Nong, Zhang y Chan).
+ * <p>
+ * Los sufijos se clasifican en tipo S (menor que el siguiente) o L (mayor); los
+ * sufijos LMS (tipo S precedidos por uno L) se ordenan primero y a partir de ellos se
+ * inducen los demás en dos recorridos. Si hay subcadenas LMS repetidas, el problema se
+ * reduce a un texto de a lo sumo la mitad de largo que se resuelve recursivamente.
+ * </p>
+ * <p>
+ * El texto reducido y el arreglo de sufijos de cada nivel recursivo se guardan dentro
+ * del mismo arreglo de resultado, así la memoria adicional es solo un bit de tipo por
+ * símbolo y las cubetas del alfabeto.
+ * </p>
+ */
+final class ConstructorArregloSufijos {
+
+    private ConstructorArregloSufijos() {
+    }
+
+    /**
+     * Construye el arreglo de sufijos de un texto cuyo último símbolo es un centinela
+     * 0 que no aparece en ninguna otra posición.
+     *
+     * @param texto Los símbolos del texto, entre 0 y {@code maximoSimbolo}.
+     * @param maximoSimbolo El mayor valor de símbolo posible.
+     * @return Las posiciones de los sufijos en orden lexicográfico.
+     */
+    static int[] construir(byte[] texto, int maximoSimbolo) {
+        int[] sufijos = new int[texto.length];
+        sais(new TextoBytes(texto), sufijos, texto.length, maximoSimbolo);
+        return sufijos;
+    }
+
+    private static void sais(Texto s, int[] sa, int n, int k) {
+        if (n == 1) {
+            sa[0] = 0;
+            return;
+        }
+        long[] tipos = new long[(n + 63) >>> 6]; // Bit en 1: sufijo de tipo S.
+        marcarS(tipos, n - 1);
+        for (int i = n - 3; i >= 0; i--) {
+            int actual = s.en(i);
+            int siguiente = s.en(i + 1);
+            if (actual < siguiente || (actual == siguiente && esS(tipos, i + 1))) {
+                marcarS(tipos, i);
+            }
+        }
+
+        // Etapa 1: ordenar las subcadenas LMS.
+        int[] cubetas = new int[k + 1];
+        calcularCubetas(s, cubetas, n, true);
+        Arrays.fill(sa, 0, n, -1);
+        for (int i = 1; i < n; i++) {
+            if (esLMS(tipos, i)) {
+                sa[--cubetas[s.en(i)]] = i;
+            }
+        }
+        inducirL(s, tipos, sa, cubetas, n);
+        inducirS(s, tipos, sa, cubetas, n);
+
+        // Compactar las LMS ordenadas al principio y darles nombres.
+        int n1 = 0;
+        for (int i = 0; i < n; i++) {
+            if (esLMS(tipos, sa[i])) {
+                sa[n1++] = sa[i];
+            }
+        }
+        Arrays.fill(sa, n1, n, -1);
+        int nombres = 0;
+        int anterior = -1;
+        for (int i = 0; i < n1; i++) {
+            int posicion = sa[i];
+            boolean distinta = false;
+            for (int d = 0; d < n; d++) {
+                if (anterior == -1 || s.en(posicion + d) != s.en(anterior + d)
+                        || esS(tipos, posicion + d) != esS(tipos, anterior + d)) {
+                    distinta = true;
+                    break;
+                } else if (d > 0 && (esLMS(tipos, posicion + d) || esLMS(tipos, anterior + d))) {
+                    break;
+                }
+            }
+            if (distinta) {
+                nombres++;
+                anterior = posicion;
+            }
+            // Dos LMS nunca son contiguas, así que posicion / 2 no se repite.
+            sa[n1 + (posicion >>> 1)] = nombres - 1;
+        }
+        for (int i = n - 1, j = n - 1; i >= n1; i--) {
+            if (sa[i] >= 0) {
+                sa[j--] = sa[i];
+            }
+        }
+
+        // Etapa 2: ordenar el texto reducido, guardado al final del arreglo.
+        int inicioReducido = n - n1;
+        if (nombres < n1) {
+            sais(new TextoEnteros(sa, inicioReducido), sa, n1, nombres - 1);
+        } else {
+            for (int i = 0; i < n1; i++) {
+                sa[sa[inicioReducido + i]] = i;
+            }
+        }
+
+        // Etapa 3: inducir el orden de todos los sufijos desde las LMS ordenadas.
+        calcularCubetas(s, cubetas, n, true);
+        for (int i = 1, j = 0; i < n; i++) {
+            if (esLMS(tipos, i)) {
+                sa[inicioReducido + j++] = i;
+            }
+        }
+        for (int i = 0; i < n1; i++) {
+            sa[i] = sa[inicioReducido + sa[i]];
+        }
+        Arrays.fill(sa, n1, n, -1);
+        for (int i = n1 - 1; i >= 0; i--) {
+            int j = sa[i];
+            sa[i] = -1;
+            sa[--cubetas[s.en(j)]] = j;
+        }
+        inducirL(s, tipos, sa, cubetas, n);
+        inducirS(s, tipos, sa, cubetas, n);
+    }
+
+    private static void inducirL(Texto s, long[] tipos, int[] sa, int[] cubetas, int n) {
+        calcularCubetas(s, cubetas, n, false);
+        for (int i = 0; i < n; i++) {
+            int j = sa[i] - 1;
+            if (j >= 0 && !esS(tipos, j)) {
+                sa[cubetas[s.en(j)]++] = j;
+            }
+        }
+    }
+
+    private static void inducirS(Texto s, long[] tipos, int[] sa, int[] cubetas, int n) {
+        calcularCubetas(s, cubetas, n, true);
+        for (int i = n - 1; i >= 0; i--) {
+            int j = sa[i] - 1;
+            if (j >= 0 && esS(tipos, j)) {
+                sa[--cubetas[s.en(j)]] = j;
+            }
+        }
+    }
+
+    /**
+     * Calcula el inicio (o el final, exclusivo) de la cubeta de cada símbolo.
+     */
+    private static void calcularCubetas(Texto s, int[] cubetas, int n, boolean finales) {
+        Arrays.fill(cubetas, 0);
+        for (int i = 0; i < n; i++) {
+            cubetas[s.en(i)]++;
+        }
+        int suma = 0;
+        for (int c = 0; c < cubetas.length; c++) {
+            suma += cubetas[c];
+            cubetas[c] = finales ? suma : suma - cubetas[c];
+        }
+    }
+
+    private static void marcarS(long[] tipos, int i) {
+        tipos[i >>> 6] |= 1L << i;
+    }
+
+    private static boolean esS(long[] tipos, int i) {
+        return (tipos[i >>> 6] & (1L << i)) != 0;
+    }
+
+    private static boolean esLMS(long[] tipos, int i) {
+        return i > 0 && esS(tipos, i) && !esS(tipos, i - 1);
+    }
+
+    /**
+     * Acceso a los símbolos de un nivel: bytes en el texto original, enteros en los reducidos.
+     */
+    private abstract static class Texto {
+        abstract int en(int i);
+    }
+
+    private static final class TextoBytes extends Texto {
+        private final byte[] simbolos;
+
+        TextoBytes(byte[] simbolos) {
+            this.simbolos = simbolos;
+        }
+
+        @Override
+        int en(int i) {
+            return simbolos[i];
+        }
+    }
+
+    private static final class TextoEnteros extends Texto {
+        private final int[] simbolos;
+        private final int desplazamiento;
+
+        TextoEnteros(int[] simbolos, int desplazamiento) {
+            this.simbolos = simbolos;
+            this.desplazamiento = desplazamiento;
+        }
+
+        @Override
+        int en(int i) {
+            return simbolos[desplazamiento + i];
+        }
+    }
+}
@@ -0,0 +1,204 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package proyectoadn;
+
+import java.lang.foreign.Arena;
+
+/**
+ * La clase `ContadorCodones` cuenta los codones de una secuencia sin crear objetos
+ * por cada codón. Cada codón se codifica como un entero de 6 bits (ver
+ * {@link SecuenciaEmpaquetada#codonComoTexto(int)}), su frecuencia se acumula en un
+ * arreglo de 64 posiciones y sus ubicaciones en buffers primitivos.
+ * Los objetos {@link PatronADN} solo se crean al final, con {@link #construirPatrones()}.
+ * <p>
+ * Puede alimentarse por bloques durante la carga (como {@link ReceptorBases})
+ * o recorriendo en bloque una secuencia ya empaquetada.
+ * </p>
+ * <p>
+ * Las ubicaciones se guardan fuera del heap, en una {@link Arena} propia del contador
+ * (más las que adopta al fusionar otros). {@link #construirPatrones()} las cierra al
+ * terminar; si el conteo se abandona antes, hay que llamar a {@link #liberar()}.
+ * </p>
+ */
+public class ContadorCodones implements ReceptorBases {
+
+    private static final int NUM_CODONES = 64;
+
+    private final long[] frecuencias;
+    private final BufferPosiciones[] ubicaciones;
+
+    // Arenas que guardan los bloques de ubicaciones: la propia y las de los contadores fusionados.
+    private Arena[] arenas;
+    private int numArenas;
+
+    // Posición del siguiente codón por contar cuando se recibe la secuencia por bloques.
+    private long siguienteCodon;
+
+    // Se suma a cada ubicación registrada.
+    private final long desplazamiento;
+
+    /**
+     * Constructor para crear un contador vacío.
+     */
+    public ContadorCodones() {
+        this(0);
+    }
+
+    /**
+     * Constructor para crear un contador vacío que registra las ubicaciones desplazadas.
+     * Sirve para contar una secuencia que es un tramo de otra mayor (por ejemplo un lote
+     * de registros de un archivo FASTA) y obtener las ubicaciones en las coordenadas de la mayor.
+     *
+     * @param desplazamiento La posición que ocupa la base 0 de la secuencia contada en la secuencia mayor.
+     */
+    public ContadorCodones(long desplazamiento) {
+        this.desplazamiento = desplazamiento;
+        this.frecuencias = new long[NUM_CODONES];
+        this.ubicaciones = new BufferPosiciones[NUM_CODONES];
+        this.arenas = new Arena[] {Arena.ofShared()};
+        this.numArenas = 1;
+        for (int i = 0; i < NUM_CODONES; i++) {
+            ubicaciones[i] = new BufferPosiciones(arenas[0]);
+        }
+        this.siguienteCodon = 0;
+    }
+
+    /**
+     * Cuenta los codones del marco 0 que quedaron completos con el bloque recibido.
+     * Un codón que queda partido entre dos bloques se cuenta con el bloque siguiente.
+     */
+    @Override
+    public void basesAgregadas(SecuenciaEmpaquetada secuencia, long desde, long hasta) {
+        siguienteCodon = contar(secuencia, siguienteCodon, hasta);
+    }
+
+    /**
+     * Cuenta los codones consecutivos (paso 3) de una secuencia empaquetada que
+     * comienzan en {@code desde} y terminan antes de {@code hasta}.
+     *
+     * @param secuencia La secuencia a recorrer.
+     * @param desde La posición del primer codón.
+     * @param hasta La posición límite (exclusiva) para el final de los codones.
+     * @return La posición del primer codón que no se contó por no caber antes de {@code hasta}.
+     */
+    public long contar(SecuenciaEmpaquetada secuencia, long desde, long hasta) {
+        int[] codones = new int[1024];
+        long posicion = desde;
+        while (posicion + 3 <= hasta) {
+            int pendientes = (int) Math.min(codones.length, (hasta - posicion) / 3);
+            int extraidos = secuencia.extraerCodones(posicion, codones, pendientes);
+            for (int i = 0; i < extraidos; i++) {
+                if (codones[i] >= 0) {
+                    registrar(codones[i], posicion);
+                }
+                posicion += 3;
+            }
+        }
+        return posicion;
+    }
+
+    /**
+     * Registra una aparición de un codón. Lo usan también los contadores que
+     * recorren la secuencia por su cuenta, como {@link ContadorSeisMarcos}.
+     *
+     * @param codigoCodon El código de 6 bits del codón.
+     * @param posicion La posición donde comienza el codón.
+     */
+    void registrar(int codigoCodon, long posicion) {
+        frecuencias[codigoCodon]++;
+        ubicaciones[codigoCodon].agregar(desplazamiento + posicion);
+    }
+
+    /**
+     * Agrega a este contador los resultados de otro que contó un tramo posterior
+     * de la secuencia. Las ubicaciones del otro se concatenan al final, por lo que
+     * se mantienen en orden ascendente. El otro contador no debe usarse después:
+     * este adopta sus arenas y se encarga de liberarlas.
+     *
+     * @param otro El contador del tramo siguiente.
+     */
+    public void fusionar(ContadorCodones otro) {
+        for (int codigo = 0; codigo < NUM_CODONES; codigo++) {
+            if (otro.frecuencias[codigo] > 0) {
+                frecuencias[codigo] += otro.frecuencias[codigo];
+                ubicaciones[codigo].concatenar(otro.ubicaciones[codigo]);
+            }
+        }
+        if (numArenas + otro.numArenas > arenas.length) {
+            Arena[] nuevasArenas = new Arena[Math.max(arenas.length * 2, numArenas + otro.numArenas)];
+            System.arraycopy(arenas, 0, nuevasArenas, 0, numArenas);
+            arenas = nuevasArenas;
+        }
+        System.arraycopy(otro.arenas, 0, arenas, numArenas, otro.numArenas);
+        numArenas += otro.numArenas;
+        otro.numArenas = 0;
+    }
+
+    /**
+     * Cierra las arenas de las ubicaciones. Las frecuencias siguen disponibles,
+     * pero las ubicaciones ya no pueden leerse. Llamarlo más de una vez no tiene efecto.
+     */
+    public void liberar() {
+        for (int i = 0; i < numArenas; i++) {
+            arenas[i].close();
+            arenas[i] = null;
+        }
+        numArenas = 0;
+    }
+
+    /**
+     * Obtiene la frecuencia acumulada de un codón.
+     *
+     * @param codigoCodon El código de 6 bits del codón.
+     * @return La cantidad de apariciones contadas.
+     */
+    public long getFrecuencia(int codigoCodon) {
+        return frecuencias[codigoCodon];
+    }
+
+    /**
+     * Crea un {@link PatronADN} por cada codón encontrado al menos una vez.
+     * Los patrones se retornan en el orden de su primera aparición en la secuencia,
+     * que es el mismo orden en que los habría descubierto un recorrido secuencial.
+     * Al terminar se libera la memoria nativa de las ubicaciones.
+     *
+     * @return Un arreglo con los patrones encontrados.
+     */
+    public PatronADN[] construirPatrones() {
+        try {
+            return crearPatrones();
+        } finally {
+            liberar();
+        }
+    }
+
+    private PatronADN[] crearPatrones() {
+        int[] codigos = new int[NUM_CODONES];
+        long[] primeras = new long[NUM_CODONES];
+        int encontrados = 0;
+        for (int codigo = 0; codigo < NUM_CODONES; codigo++) {
+            if (frecuencias[codigo] > 0) {
+                // Inserción ordenada por primera ubicación (a lo sumo 64 elementos).
+                long primera = ubicaciones[codigo].primera();
+                int j = encontrados++;
+                while (j > 0 && primeras[j - 1] > primera) {
+                    codigos[j] = codigos[j - 1];
+                    primeras[j] = primeras[j - 1];
+                    j--;
+                }
+                codigos[j] = codigo;
+                primeras[j] = primera;
+            }
+        }
+
+        PatronADN[] patrones = new PatronADN[encontrados];
+        for (int i = 0; i < encontrados; i++) {
+            int codigo = codigos[i];
+            patrones[i] = new PatronADN(SecuenciaEmpaquetada.codonComoTexto(codigo),
+                    frecuencias[codigo], ubicaciones[codigo].aLista());
+        }
+        return patrones;
+    }
+}
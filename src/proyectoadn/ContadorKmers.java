@@ -0,0 +1,173 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package proyectoadn;
+
+/**
+ * La clase `ContadorKmers` obtiene el perfil de k-mers de una secuencia para
+ * cualquier longitud k entre 1 y {@link #LONGITUD_MAXIMA}. Cada k-mer se empaqueta
+ * en un {@code long} (2 bits por base) y se actualiza de forma rodante: al avanzar
+ * una base se desplaza el valor y se agrega la base nueva, con costo O(1) por base
+ * en lugar de O(k). Los conteos se acumulan en una {@link TablaKmers}.
+ * <p>
+ * El paso indica cada cuántas bases comienza un k-mer: paso 1 produce k-mers
+ * solapados y paso igual a k produce k-mers consecutivos (como los codones con k = 3).
+ * Los k-mers que contienen bases inválidas se descartan.
+ * </p>
+ */
+public class ContadorKmers {
+
+    /**
+     * Longitud máxima de k-mer que cabe en un {@code long} a 2 bits por base
+     * sin usar el bit de signo (reservado para marcar ranuras vacías).
+     */
+    public static final int LONGITUD_MAXIMA = 31;
+
+    private final int k;
+    private final int paso;
+    private final long mascara;
+    private TablaKmers tabla;
+
+    /**
+     * Constructor de `ContadorKmers`.
+     *
+     * @param k La longitud de los k-mers (1 a {@link #LONGITUD_MAXIMA}).
+     * @param paso La distancia entre los inicios de k-mers consecutivos (al menos 1).
+     * @throws IllegalArgumentException Si la longitud o el paso están fuera de rango.
+     */
+    public ContadorKmers(int k, int paso) {
+        validar(k, paso);
+        this.k = k;
+        this.paso = paso;
+        this.mascara = (1L << (2 * k)) - 1;
+    }
+
+    /**
+     * Comprueba que la longitud y el paso sean válidos para un contador, sin crearlo.
+     *
+     * @param k La longitud de los k-mers (1 a {@link #LONGITUD_MAXIMA}).
+     * @param paso La distancia entre los inicios de k-mers consecutivos (al menos 1).
+     * @throws IllegalArgumentException Si la longitud o el paso están fuera de rango.
+     */
+    public static void validar(int k, int paso) {
+        if (k < 1 || k > LONGITUD_MAXIMA) {
+            throw new IllegalArgumentException("La longitud del k-mer debe estar entre 1 y " + LONGITUD_MAXIMA + ".");
+        }
+        if (paso < 1) {
+            throw new IllegalArgumentException("El paso debe ser al menos 1.");
+        }
+    }
+
+    /**
+     * Cuenta los k-mers de la secuencia y registra sus ubicaciones.
+     * Se hacen dos recorridos: el primero solo cuenta, y con los conteos finales
+     * el segundo escribe cada ubicación en un espacio reservado de tamaño exacto.
+     *
+     * @param secuencia La secuencia a analizar.
+     */
+    public void contar(SecuenciaEmpaquetada secuencia) {
+        liberar();
+        tabla = new TablaKmers(1024);
+        recorrer(secuencia, false);
+        tabla.prepararUbicaciones(secuencia.longitud());
+        recorrer(secuencia, true);
+    }
+
+    /**
+     * Recorre la secuencia palabra por palabra manteniendo el k-mer rodante.
+     *
+     * @param registrarUbicaciones {@code false} para contar, {@code true} para guardar ubicaciones.
+     */
+    private void recorrer(SecuenciaEmpaquetada secuencia, boolean registrarUbicaciones) {
+        long longitud = secuencia.longitud();
+        long kmer = 0;
+        int basesValidas = 0;
+        // Fase del inicio del k-mer que termina en la posición actual, módulo el paso.
+        int fase = Math.floorMod(1 - k, paso);
+        long siguienteInvalida = secuencia.siguientePosicionInvalida(0);
+        long palabra = 0;
+
+        for (long i = 0; i < longitud; i++) {
+            if ((i & 31) == 0) {
+                palabra = secuencia.palabra(i >>> 5);
+            }
+            int codigo = (int) palabra & 3;
+            palabra >>>= 2;
+
+            if (i == siguienteInvalida) {
+                kmer = 0;
+                basesValidas = 0;
+                siguienteInvalida = secuencia.siguientePosicionInvalida(i + 1);
+            } else {
+                kmer = ((kmer << 2) | codigo) & mascara;
+                if (basesValidas < k) {
+                    basesValidas++;
+                }
+                if (basesValidas == k && fase == 0) {
+                    if (registrarUbicaciones) {
+                        tabla.registrarUbicacion(tabla.buscarRanura(kmer), i - k + 1);
+                    } else {
+                        tabla.incrementar(kmer);
+                    }
+                }
+            }
+            if (++fase == paso) {
+                fase = 0;
+            }
+        }
+    }
+
+    /**
+     * Convierte un k-mer empaquetado en su texto.
+     *
+     * @param kmer El k-mer empaquetado (la primera base en los bits más significativos).
+     * @param k La longitud del k-mer.
+     * @return La secuencia del k-mer.
+     */
+    public static String decodificar(long kmer, int k) {
+        char[] bases = new char[k];
+        for (int j = k - 1; j >= 0; j--) {
+            bases[j] = SecuenciaEmpaquetada.decodificarBase((int) kmer & 3);
+            kmer >>>= 2;
+        }
+        return new String(bases);
+    }
+
+    /**
+     * Crea un {@link PatronADN} por cada k-mer distinto encontrado y libera
+     * la memoria nativa de la tabla intermedia del conteo.
+     *
+     * @return Un arreglo con los patrones encontrados.
+     */
+    public PatronADN[] construirPatrones() {
+        PatronADN[] patrones = new PatronADN[tabla.getOcupados()];
+        int indice = 0;
+        for (int ranura = 0; ranura < tabla.getCapacidad(); ranura++) {
+            if (tabla.estaOcupada(ranura)) {
+                patrones[indice++] = new PatronADN(decodificar(tabla.getClave(ranura), k),
+                        tabla.getConteo(ranura), tabla.getUbicaciones(ranura));
+            }
+        }
+        tabla.liberar();
+        return patrones;
+    }
+
+    /**
+     * Libera la memoria nativa del conteo sin construir los patrones, por ejemplo
+     * si el análisis se interrumpe. {@link #construirPatrones()} ya la libera.
+     */
+    public void liberar() {
+        if (tabla != null) {
+            tabla.liberar();
+        }
+    }
+
+    /**
+     * Obtiene la cantidad de k-mers distintos encontrados.
+     * @return El número de k-mers distintos.
+     */
+    public int getNumKmersDistintos() {
+        return tabla == null ? 0 : tabla.getOcupados();
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package proyectoadn;
+
+/**
+ * La clase `ContadorSeisMarcos` cuenta los codones de los seis marcos de lectura
+ * (tres en la hebra directa y tres en la complementaria inversa) en un solo recorrido
+ * de la secuencia empaquetada. Cada posición completa un codón de 3 bases: ese codón
+ * pertenece a un marco directo y, leído al revés y complementado, a un marco inverso.
+ * Cada marco acumula sus frecuencias y ubicaciones en su propio {@link ContadorCodones}.
+ * <p>
+ * Los marcos se numeran de 0 a 5: {@code +1, +2, +3} comienzan en las posiciones 0, 1
+ * y 2 de la hebra directa, y {@code -1, -2, -3} en las posiciones 0, 1 y 2 de la hebra
+ * complementaria inversa (es decir, terminando en la última, penúltima y antepenúltima
+ * base de la hebra directa). Las ubicaciones de todos los marcos se expresan en
+ * coordenadas de la hebra directa, como la posición de la base más a la izquierda del
+ * codón, de modo que quedan en orden ascendente en los seis marcos.
+ * </p>
+ */
+public class ContadorSeisMarcos {
+
+    /**
+     * Cantidad de marcos de lectura.
+     */
+    public static final int NUM_MARCOS = 6;
+
+    private static final String[] NOMBRES_MARCOS = {"+1", "+2", "+3", "-1", "-2", "-3"};
+
+    private final ContadorCodones[] contadores;
+
+    /**
+     * Constructor para crear un contador vacío para los seis marcos.
+     */
+    public ContadorSeisMarcos() {
+        this.contadores = new ContadorCodones[NUM_MARCOS];
+        for (int marco = 0; marco < NUM_MARCOS; marco++) {
+            contadores[marco] = new ContadorCodones();
+        }
+    }
+
+    /**
+     * Obtiene el nombre convencional de un marco ({@code +1} a {@code -3}).
+     *
+     * @param marco El índice del marco (0 a 5).
+     * @return El nombre del marco.
+     * @throws IllegalArgumentException Si el índice está fuera de rango.
+     */
+    public static String getNombreMarco(int marco) {
+        validarMarco(marco);
+        return NOMBRES_MARCOS[marco];
+    }
+
+    static void validarMarco(int marco) {
+        if (marco < 0 || marco >= NUM_MARCOS) {
+            throw new IllegalArgumentException("El marco debe estar entre 0 y " + (NUM_MARCOS - 1) + ": " + marco);
+        }
+    }
+
+    /**
+     * Recorre la secuencia una sola vez, base por base, manteniendo el codón de las
+     * tres últimas bases. Los codones que tocan una base inválida se descartan.
+     *
+     * @param secuencia La secuencia a analizar.
+     */
+    public void contar(SecuenciaEmpaquetada secuencia) {
+        long longitud = secuencia.longitud();
+        int codon = 0;
+        int basesValidas = 0;
+        long siguienteInvalida = secuencia.siguientePosicionInvalida(0);
+        long palabra = 0;
+        // Marcos del codón que termina en la posición i (y empieza en i - 2):
+        // directo (i - 2) mod 3 e inverso (longitud - 1 - i) mod 3.
+        int marcoDirecto = Math.floorMod(-2, 3);
+        int marcoInverso = (int) Math.floorMod(longitud - 1, 3L);
+
+        for (long i = 0; i < longitud; i++) {
+            if ((i & 31) == 0) {
+                palabra = secuencia.palabra(i >>> 5);
+            }
+            int codigo = (int) palabra & 3;
+            palabra >>>= 2;
+
+            if (i == siguienteInvalida) {
+                basesValidas = 0;
+                siguienteInvalida = secuencia.siguientePosicionInvalida(i + 1);
+            } else {
+                codon = ((codon << 2) | codigo) & 63;
+                if (basesValidas < 3) {
+                    basesValidas++;
+                }
+                if (basesValidas == 3) {
+                    contadores[marcoDirecto].registrar(codon, i - 2);
+                    contadores[3 + marcoInverso].registrar(SecuenciaEmpaquetada.codonComplementarioInverso(codon), i - 2);
+                }
+            }
+            if (++marcoDirecto == 3) {
+                marcoDirecto = 0;
+            }
+            if (--marcoInverso < 0) {
+                marcoInverso = 2;
+            }
+        }
+    }
+
+    /**
+     * Crea los patrones de cada marco (ver {@link ContadorCodones#construirPatrones()})
+     * y libera la memoria nativa de las ubicaciones.
+     *
+     * @return Un arreglo con los patrones de cada uno de los seis marcos.
+     */
+    public PatronADN[][] construirPatrones() {
+        PatronADN[][] patrones = new PatronADN[NUM_MARCOS][];
+        try {
+            for (int marco = 0; marco < NUM_MARCOS; marco++) {
+                patrones[marco] = contadores[marco].construirPatrones();
+            }
+        } finally {
+            liberar();
+        }
+        return patrones;
+    }
+
+    /**
+     * Libera la memoria nativa de las ubicaciones de los seis marcos.
+     * Llamarlo más de una vez no tiene efecto.
+     */
+    public void liberar() {
+        for (ContadorCodones contador : contadores) {
+            contador.liberar();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package proyectoadn;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Tarea de fork/join que cuenta los codones del marco 0 de una secuencia empaquetada
+ * repartiéndola en tramos alineados a codones. Cada tramo se cuenta con su propio
+ * {@link ContadorCodones} y los resultados se fusionan de izquierda a derecha,
+ * de modo que las ubicaciones quedan en orden ascendente y el resultado es idéntico
+ * al de un recorrido secuencial.
+ */
+public class ConteoParaleloCodones extends RecursiveTask<ContadorCodones> {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Cantidad mínima de codones por tramo; por debajo no compensa dividir.
+     */
+    private static final long CODONES_MINIMOS_POR_TRAMO = 64 * 1024;
+
+    private final transient SecuenciaEmpaquetada secuencia;
+    private final long primerCodon;
+    private final long numCodones;
+    private final long codonesPorTramo;
+
+    private ConteoParaleloCodones(SecuenciaEmpaquetada secuencia, long primerCodon, long numCodones, long codonesPorTramo) {
+        this.secuencia = secuencia;
+        this.primerCodon = primerCodon;
+        this.numCodones = numCodones;
+        this.codonesPorTramo = codonesPorTramo;
+    }
+
+    /**
+     * Cuenta todos los codones del marco 0 de una secuencia usando un {@link ForkJoinPool}.
+     *
+     * @param secuencia La secuencia a analizar.
+     * @param pool El pool de hilos en el que se ejecutan los tramos.
+     * @return Un contador con las frecuencias y ubicaciones de toda la secuencia.
+     */
+    public static ContadorCodones contar(SecuenciaEmpaquetada secuencia, ForkJoinPool pool) {
+        long totalCodones = secuencia.longitud() / 3;
+        // Unos cuatro tramos por hilo para equilibrar la carga entre núcleos.
+        long codonesPorTramo = Math.max(CODONES_MINIMOS_POR_TRAMO, totalCodones / (4L * pool.getParallelism()));
+        return pool.invoke(new ConteoParaleloCodones(secuencia, 0, totalCodones, codonesPorTramo));
+    }
+
+    @Override
+    protected ContadorCodones compute() {
+        if (numCodones <= codonesPorTramo) {
+            ContadorCodones contador = new ContadorCodones();
+            contador.contar(secuencia, primerCodon * 3, (primerCodon + numCodones) * 3);
+            return contador;
+        }
+        long mitad = numCodones / 2;
+        ConteoParaleloCodones izquierda = new ConteoParaleloCodones(secuencia, primerCodon, mitad, codonesPorTramo);
+        ConteoParaleloCodones derecha = new ConteoParaleloCodones(secuencia, primerCodon + mitad, numCodones - mitad, codonesPorTramo);
+        izquierda.fork();
+        ContadorCodones resultadoDerecha = derecha.compute();
+        ContadorCodones resultadoIzquierda = izquierda.join();
+        resultadoIzquierda.fusionar(resultadoDerecha);
+        return resultadoIzquierda;
+    }
+}
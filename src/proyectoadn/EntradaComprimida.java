@@ -0,0 +1,93 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package proyectoadn;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Reconoce y abre archivos de secuencias comprimidos. El formato se detecta por el
+ * contenido y no por la extensión: gzip por sus dos primeros bytes (0x1f 0x8b), y
+ * BGZF, un caso particular de gzip, por el subcampo "BC" de su primer encabezado.
+ * Los archivos BGZF se descomprimen en paralelo con un {@link FlujoBgzf}; el resto
+ * de los gzip (que no tienen bloques independientes) con un {@link GZIPInputStream}.
+ */
+public final class EntradaComprimida {
+
+    /**
+     * El archivo no está comprimido.
+     */
+    public static final int SIN_COMPRESION = 0;
+
+    /**
+     * El archivo es gzip (uno o varios miembros concatenados).
+     */
+    public static final int GZIP = 1;
+
+    /**
+     * El archivo es BGZF.
+     */
+    public static final int BGZF = 2;
+
+    private static final int TAMANO_BUFFER_GZIP = 64 * 1024;
+
+    private EntradaComprimida() {
+    }
+
+    /**
+     * Detecta la compresión de un archivo a partir de sus primeros bytes.
+     *
+     * @param archivo El archivo a revisar.
+     * @return {@link #SIN_COMPRESION}, {@link #GZIP} o {@link #BGZF}.
+     * @throws IOException Si ocurre un error al leer el archivo.
+     */
+    public static int detectarCompresion(File archivo) throws IOException {
+        byte[] inicio = new byte[18];
+        int leidos = 0;
+        try (InputStream entrada = new FileInputStream(archivo)) {
+            int n;
+            while (leidos < inicio.length && (n = entrada.read(inicio, leidos, inicio.length - leidos)) > 0) {
+                leidos += n;
+            }
+        }
+        if (FlujoBgzf.esEncabezadoBgzf(inicio, leidos)) {
+            return BGZF;
+        }
+        if (leidos >= 2 && (inicio[0] & 0xFF) == 0x1f && (inicio[1] & 0xFF) == 0x8b) {
+            return GZIP;
+        }
+        return SIN_COMPRESION;
+    }
+
+    /**
+     * Abre un archivo comprimido como un flujo con su contenido descomprimido.
+     *
+     * @param archivo El archivo a abrir.
+     * @param compresion La compresión del archivo, según {@link #detectarCompresion(File)}.
+     * @param pool El pool donde se descomprimen los bloques BGZF.
+     * @return Un flujo con el contenido descomprimido.
+     * @throws IOException Si no se puede abrir el archivo.
+     */
+    public static InputStream abrir(File archivo, int compresion, ForkJoinPool pool) throws IOException {
+        switch (compresion) {
+            case BGZF:
+                return new FlujoBgzf(archivo, pool);
+            case GZIP:
+                InputStream entrada = new FileInputStream(archivo);
+                try {
+                    return new GZIPInputStream(entrada, TAMANO_BUFFER_GZIP);
+                } catch (IOException e) {
+                    entrada.close();
+                    throw e;
+                }
+            default:
+                return new FileInputStream(archivo);
+        }
+    }
+}
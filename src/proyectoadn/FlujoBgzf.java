@@ -0,0 +1,276 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package proyectoadn;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * La clase `FlujoBgzf` lee un archivo BGZF (el gzip por bloques de samtools/htslib)
+ * descomprimiendo sus bloques en paralelo. Cada bloque BGZF es un miembro gzip
+ * independiente de a lo sumo 64 KB descomprimidos, con su tamaño comprimido en el
+ * encabezado, así que pueden ubicarse sin descomprimir y repartirse entre los hilos.
+ * <p>
+ * El hilo que lee el flujo solo recorre los encabezados y lee los bytes comprimidos
+ * en tramos de unos {@link #BYTES_POR_TRAMO} bytes; cada tramo se descomprime en una
+ * tarea del pool. Los tramos se entregan en orden, y se mantienen hasta
+ * {@code 2 * paralelismo} en vuelo para que los hilos no esperen al lector.
+ * </p>
+ */
+public class FlujoBgzf extends InputStream {
+
+    /**
+     * Cantidad aproximada de bytes comprimidos que se descomprimen en cada tarea.
+     */
+    private static final int BYTES_POR_TRAMO = 1024 * 1024;
+
+    /**
+     * Tamaño del encabezado de un bloque BGZF con el único subcampo "BC".
+     */
+    private static final int TAMANO_ENCABEZADO = 18;
+
+    /**
+     * Tamaño máximo de un bloque BGZF descomprimido.
+     */
+    private static final int MAXIMO_DESCOMPRIMIDO = 64 * 1024;
+
+    private final FileChannel canal;
+    private final long tamanoArchivo;
+    private final ForkJoinPool pool;
+    private final ByteBuffer encabezado;
+    private long posicionArchivo;
+
+    // Cola circular de tramos enviados al pool, en el orden del archivo.
+    private final ForkJoinTask<?>[] tramosPendientes;
+    private int primerPendiente;
+    private int numPendientes;
+
+    // Tramo descomprimido que se está entregando.
+    private byte[] actual;
+    private int posicionActual;
+    private boolean cerrado;
+
+    /**
+     * Constructor de `FlujoBgzf`.
+     *
+     * @param archivo El archivo BGZF a leer.
+     * @param pool El pool de hilos donde se descomprimen los tramos.
+     * @throws IOException Si no se puede abrir el archivo.
+     */
+    public FlujoBgzf(File archivo, ForkJoinPool pool) throws IOException {
+        this.canal = FileChannel.open(archivo.toPath(), StandardOpenOption.READ);
+        this.tamanoArchivo = canal.size();
+        this.pool = pool;
+        this.encabezado = ByteBuffer.allocate(TAMANO_ENCABEZADO);
+        this.posicionArchivo = 0;
+        this.tramosPendientes = new ForkJoinTask<?>[2 * pool.getParallelism()];
+        this.primerPendiente = 0;
+        this.numPendientes = 0;
+        this.actual = new byte[0];
+        this.posicionActual = 0;
+        this.cerrado = false;
+    }
+
+    /**
+     * Indica si los primeros bytes de un archivo son el encabezado de un bloque BGZF:
+     * un miembro gzip con campo extra cuyo subcampo "BC" guarda el tamaño del bloque.
+     *
+     * @param inicio Los primeros bytes del archivo (se usan hasta 18).
+     * @param cantidad La cantidad de bytes válidos en {@code inicio}.
+     * @return {@code true} si es un bloque BGZF.
+     */
+    public static boolean esEncabezadoBgzf(byte[] inicio, int cantidad) {
+        return cantidad >= TAMANO_ENCABEZADO
+                && (inicio[0] & 0xFF) == 0x1f && (inicio[1] & 0xFF) == 0x8b
+                && inicio[2] == 8 && (inicio[3] & 4) != 0
+                && inicio[12] == 'B' && inicio[13] == 'C' && inicio[14] == 2 && inicio[15] == 0;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (posicionActual == actual.length && !avanzar()) {
+            return -1;
+        }
+        return actual[posicionActual++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] destino, int desde, int cantidad) throws IOException {
+        if (cantidad == 0) {
+            return 0;
+        }
+        if (posicionActual == actual.length && !avanzar()) {
+            return -1;
+        }
+        int copiados = Math.min(cantidad, actual.length - posicionActual);
+        System.arraycopy(actual, posicionActual, destino, desde, copiados);
+        posicionActual += copiados;
+        return copiados;
+    }
+
+    @Override
+    public int available() {
+        return actual.length - posicionActual;
+    }
+
+    /**
+     * Pasa al siguiente tramo no vacío, enviando antes al pool tantos tramos como quepan.
+     *
+     * @return {@code false} si ya no quedan datos.
+     */
+    private boolean avanzar() throws IOException {
+        if (cerrado) {
+            throw new IOException("El flujo está cerrado.");
+        }
+        do {
+            while (numPendientes < tramosPendientes.length && posicionArchivo < tamanoArchivo) {
+                enviarTramo();
+            }
+            if (numPendientes == 0) {
+                return false;
+            }
+            ForkJoinTask<?> tarea = tramosPendientes[primerPendiente];
+            tramosPendientes[primerPendiente] = null;
+            primerPendiente = (primerPendiente + 1) % tramosPendientes.length;
+            numPendientes--;
+            try {
+                actual = (byte[]) tarea.join();
+            } catch (RuntimeException e) {
+                Throwable causa = e;
+                while (causa.getCause() != null) {
+                    causa = causa.getCause();
+                }
+                throw new IOException("Error al descomprimir el archivo BGZF: " + causa.getMessage(), causa);
+            }
+            posicionActual = 0;
+        } while (actual.length == 0);
+        return true;
+    }
+
+    /**
+     * Recorre los encabezados de los bloques siguientes hasta juntar unos
+     * {@link #BYTES_POR_TRAMO} bytes, los lee de una vez y envía su descompresión al pool.
+     */
+    private void enviarTramo() throws IOException {
+        long inicio = posicionArchivo;
+        int[] tamanosBloque = new int[64];
+        int numBloques = 0;
+        while (posicionArchivo < tamanoArchivo && posicionArchivo - inicio < BYTES_POR_TRAMO) {
+            encabezado.clear();
+            while (encabezado.hasRemaining()) {
+                if (canal.read(encabezado, posicionArchivo + encabezado.position()) < 0) {
+                    throw new IOException("Bloque BGZF truncado en la posición " + posicionArchivo + ".");
+                }
+            }
+            if (!esEncabezadoBgzf(encabezado.array(), TAMANO_ENCABEZADO)) {
+                throw new IOException("No hay un bloque BGZF válido en la posición " + posicionArchivo + ".");
+            }
+            int tamanoBloque = ((encabezado.get(16) & 0xFF) | (encabezado.get(17) & 0xFF) << 8) + 1;
+            if (numBloques == tamanosBloque.length) {
+                int[] nuevos = new int[numBloques * 2];
+                System.arraycopy(tamanosBloque, 0, nuevos, 0, numBloques);
+                tamanosBloque = nuevos;
+            }
+            tamanosBloque[numBloques++] = tamanoBloque;
+            posicionArchivo += tamanoBloque;
+        }
+        if (posicionArchivo > tamanoArchivo) {
+            throw new IOException("El último bloque BGZF está truncado.");
+        }
+        byte[] comprimido = new byte[(int) (posicionArchivo - inicio)];
+        ByteBuffer destino = ByteBuffer.wrap(comprimido);
+        while (destino.hasRemaining()) {
+            if (canal.read(destino, inicio + destino.position()) < 0) {
+                throw new IOException("El archivo BGZF terminó antes de lo esperado.");
+            }
+        }
+        int[] tamanos = tamanosBloque;
+        int bloques = numBloques;
+        int ultimo = (primerPendiente + numPendientes) % tramosPendientes.length;
+        tramosPendientes[ultimo] = pool.submit(() -> descomprimir(comprimido, tamanos, bloques));
+        numPendientes++;
+    }
+
+    /**
+     * Descomprime los bloques consecutivos de un tramo en un solo arreglo y verifica
+     * el CRC y el tamaño de cada uno.
+     */
+    private static byte[] descomprimir(byte[] comprimido, int[] tamanosBloque, int numBloques)
+            throws DataFormatException {
+        int total = 0;
+        int desplazamiento = 0;
+        for (int b = 0; b < numBloques; b++) {
+            desplazamiento += tamanosBloque[b];
+            int descomprimido = leerEnteroLE(comprimido, desplazamiento - 4);
+            if (descomprimido < 0 || descomprimido > MAXIMO_DESCOMPRIMIDO) {
+                throw new DataFormatException("Tamaño de bloque BGZF inválido: " + descomprimido);
+            }
+            total += descomprimido;
+        }
+        byte[] resultado = new byte[total];
+        Inflater inflater = new Inflater(true);
+        CRC32 crc = new CRC32();
+        try {
+            int inicioBloque = 0;
+            int escritos = 0;
+            for (int b = 0; b < numBloques; b++) {
+                int finBloque = inicioBloque + tamanosBloque[b];
+                int longitudExtra = (comprimido[inicioBloque + 10] & 0xFF) | (comprimido[inicioBloque + 11] & 0xFF) << 8;
+                int inicioDatos = inicioBloque + 12 + longitudExtra;
+                int esperado = leerEnteroLE(comprimido, finBloque - 4);
+                inflater.reset();
+                inflater.setInput(comprimido, inicioDatos, finBloque - 8 - inicioDatos);
+                int obtenidos = 0;
+                while (obtenidos < esperado && !inflater.finished()) {
+                    int n = inflater.inflate(resultado, escritos + obtenidos, esperado - obtenidos);
+                    if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                        break;
+                    }
+                    obtenidos += n;
+                }
+                crc.reset();
+                crc.update(resultado, escritos, obtenidos);
+                if (obtenidos != esperado || (int) crc.getValue() != leerEnteroLE(comprimido, finBloque - 8)) {
+                    throw new DataFormatException("Bloque BGZF dañado.");
+                }
+                escritos += obtenidos;
+                inicioBloque = finBloque;
+            }
+        } finally {
+            inflater.end();
+        }
+        return resultado;
+    }
+
+    private static int leerEnteroLE(byte[] datos, int posicion) {
+        return (datos[posicion] & 0xFF) | (datos[posicion + 1] & 0xFF) << 8
+                | (datos[posicion + 2] & 0xFF) << 16 | (datos[posicion + 3] & 0xFF) << 24;
+    }
+
+    /**
+     * Cierra el archivo. Los tramos que aún se estén descomprimiendo se descartan.
+     * @throws IOException Si ocurre un error al cerrar el archivo.
+     */
+    @Override
+    public void close() throws IOException {
+        if (!cerrado) {
+            cerrado = true;
+            for (int i = 0; i < numPendientes; i++) {
+                tramosPendientes[(primerPendiente + i) % tramosPendientes.length].cancel(false);
+            }
+            numPendientes = 0;
+            canal.close();
+        }
+    }
+}
@@ -0,0 +1,461 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package proyectoadn;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * La clase `IndiceFM` permite buscar subcadenas de cualquier longitud en cualquier
+ * posición de una {@link SecuenciaEmpaquetada}, sin recorrerla: contar las apariciones
+ * de un patrón de {@code m} bases cuesta O(m) y ubicar cada una, a lo sumo
+ * {@link #PASO_MUESTRAS} pasos más.
+ * <p>
+ * El índice se arma sobre la transformada de Burrows-Wheeler (BWT) del texto formado por
+ * las bases válidas, donde cada región de bases inválidas se reemplaza por un único
+ * separador (así ninguna aparición cruza una región inválida) y al final va un centinela.
+ * El arreglo de sufijos se construye con {@link ConstructorArregloSufijos}; la conversión
+ * de la secuencia a texto y el armado de las estructuras a partir del arreglo se reparten
+ * en tramos que se procesan en paralelo.
+ * </p>
+ * <p>
+ * Del arreglo de sufijos solo se conserva una muestra, para que el índice ocupe menos de
+ * un byte por base:
+ * </p>
+ * <ul>
+ * <li>la BWT, empaquetada a 2 bits por fila, con un mapa de bits que marca las filas
+ * cuyo símbolo es el separador o el centinela (guardadas como A);</li>
+ * <li>la cantidad de cada base antes de cada bloque de 128 filas, para contar las
+ * apariciones hasta cualquier fila con unas pocas operaciones {@code bitCount};</li>
+ * <li>la posición de los sufijos que empiezan en un múltiplo de {@link #PASO_MUESTRAS}
+ * o justo después de un separador, con un mapa de bits de esas filas y su rango.</li>
+ * </ul>
+ * <p>
+ * El índice no se modifica después de construido, así que puede consultarse desde
+ * varios hilos a la vez.
+ * </p>
+ */
+public class IndiceFM {
+
+    /**
+     * Distancia máxima, en el texto, entre posiciones muestreadas del arreglo de sufijos.
+     */
+    public static final int PASO_MUESTRAS = 32;
+
+    private static final int FILAS_POR_BLOQUE = 128;
+    private static final int FILAS_POR_TAREA = 1 << 16; // Múltiplo de 128: las tareas no comparten palabras.
+    private static final int UBICACIONES_POR_TAREA = 1 << 14;
+    private static final byte CENTINELA = 0;
+    private static final byte SEPARADOR = 5;
+    private static final long BITS_BAJOS = 0x5555555555555555L;
+    private static final long[] CODIGO_REPETIDO = {0L, BITS_BAJOS, BITS_BAJOS << 1, -1L};
+
+    private final int numFilas;
+    private final long[] bwt;
+    private final long[] especiales;
+    private final int[] ocurrencias;
+    private final int[] conteoMenores;
+    private final long[] muestreadas;
+    private final int[] rangoMuestras;
+    private final int[] muestras;
+    private final int[] separadores;
+    private final long[] desplazamientos;
+
+    private IndiceFM(int numFilas, int[] separadores, long[] desplazamientos) {
+        this.numFilas = numFilas;
+        this.bwt = new long[(numFilas + 31) >>> 5];
+        this.especiales = new long[(numFilas + 63) >>> 6];
+        this.ocurrencias = new int[((numFilas >>> 7) + 1) * 4];
+        this.conteoMenores = new int[4];
+        this.muestreadas = new long[(numFilas + 63) >>> 6];
+        this.rangoMuestras = new int[muestreadas.length];
+        // Se muestrean los múltiplos del paso y las filas que siguen a un separador o al centinela.
+        this.muestras = new int[(numFilas + PASO_MUESTRAS - 1) / PASO_MUESTRAS + separadores.length + 1];
+        this.separadores = separadores;
+        this.desplazamientos = desplazamientos;
+    }
+
+    /**
+     * Construye el índice de una secuencia.
+     *
+     * @param secuencia La secuencia a indexar; el índice no la referencia después.
+     * @param pool El pool de hilos en el que se procesan los tramos.
+     * @return El índice de la secuencia.
+     * @throws IllegalArgumentException Si la secuencia, sin sus regiones inválidas, no cabe
+     * en un arreglo (unos 2.100 millones de bases).
+     */
+    public static IndiceFM construir(SecuenciaEmpaquetada secuencia, ForkJoinPool pool) {
+        int numRegiones = secuencia.getNumRegionesInvalidas();
+        long longitudTexto = secuencia.longitud() + 1;
+        for (int r = 0; r < numRegiones; r++) {
+            longitudTexto -= secuencia.getLongitudRegionInvalida(r) - 1;
+        }
+        if (longitudTexto > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("La secuencia es demasiado larga para el índice: "
+                    + secuencia.longitud() + " bases.");
+        }
+        int n = (int) longitudTexto;
+
+        // El separador r está en la posición separadores[r] del texto; una posición t del
+        // texto con k separadores antes es la posición t + desplazamientos[k] de la secuencia.
+        int[] separadores = new int[numRegiones];
+        long[] desplazamientos = new long[numRegiones + 1];
+        for (int r = 0; r < numRegiones; r++) {
+            separadores[r] = (int) (secuencia.getInicioRegionInvalida(r) - desplazamientos[r]);
+            desplazamientos[r + 1] = desplazamientos[r] + secuencia.getLongitudRegionInvalida(r) - 1;
+        }
+
+        byte[] texto = new byte[n];
+        int numTareas = (n - 1 + FILAS_POR_TAREA - 1) / FILAS_POR_TAREA;
+        TramoTexto[] tramosTexto = new TramoTexto[numTareas];
+        for (int t = 0; t < numTareas; t++) {
+            int desde = t * FILAS_POR_TAREA;
+            tramosTexto[t] = new TramoTexto(secuencia, texto, separadores, desplazamientos,
+                    desde, Math.min(desde + FILAS_POR_TAREA, n - 1));
+        }
+        invocarTodas(pool, tramosTexto);
+        texto[n - 1] = CENTINELA;
+
+        int[] sufijos = ConstructorArregloSufijos.construir(texto, SEPARADOR);
+        return armar(texto, sufijos, separadores, desplazamientos, pool);
+    }
+
+    /**
+     * Arma la BWT, los conteos y la muestra a partir del arreglo de sufijos, en dos
+     * pasadas paralelas por tramos de filas: la primera escribe los bits y cuenta cada
+     * tramo por separado, y la segunda, ya conocidos los totales de los tramos anteriores,
+     * ajusta los conteos y copia la muestra.
+     */
+    private static IndiceFM armar(byte[] texto, int[] sufijos, int[] separadores, long[] desplazamientos,
+            ForkJoinPool pool) {
+        int n = sufijos.length;
+        IndiceFM indice = new IndiceFM(n, separadores, desplazamientos);
+        int numTareas = (n + FILAS_POR_TAREA - 1) / FILAS_POR_TAREA;
+        TramoFilas[] tramos = new TramoFilas[numTareas];
+        for (int t = 0; t < numTareas; t++) {
+            int desde = t * FILAS_POR_TAREA;
+            tramos[t] = new TramoFilas(indice, null, texto, sufijos, desde, Math.min(desde + FILAS_POR_TAREA, n));
+        }
+        invocarTodas(pool, tramos);
+
+        int[] totales = new int[4];
+        int totalMuestras = 0;
+        for (TramoFilas tramo : tramos) {
+            System.arraycopy(totales, 0, tramo.conteosPrevios, 0, 4);
+            tramo.muestrasPrevias = totalMuestras;
+            for (int c = 0; c < 4; c++) {
+                totales[c] += tramo.conteos[c];
+            }
+            totalMuestras += tramo.numMuestras;
+        }
+        if ((n & (FILAS_POR_BLOQUE - 1)) == 0) {
+            // El bloque que empieza justo en n no pertenece a ningún tramo.
+            System.arraycopy(totales, 0, indice.ocurrencias, (n >>> 7) << 2, 4);
+        }
+        indice.conteoMenores[0] = 1; // El centinela va antes que todas las bases.
+        for (int c = 1; c < 4; c++) {
+            indice.conteoMenores[c] = indice.conteoMenores[c - 1] + totales[c - 1];
+        }
+
+        TramoFilas[] ajustes = new TramoFilas[numTareas];
+        for (int t = 0; t < numTareas; t++) {
+            ajustes[t] = new TramoFilas(indice, tramos[t], texto, sufijos, tramos[t].desde, tramos[t].hasta);
+        }
+        invocarTodas(pool, ajustes);
+        return indice;
+    }
+
+    private static void invocarTodas(ForkJoinPool pool, ForkJoinTask<?>[] tareas) {
+        pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(tareas)));
+    }
+
+    /**
+     * Cuenta las apariciones de un patrón en cualquier posición de la secuencia.
+     *
+     * @param patron Las bases a buscar (A, C, G o T, en mayúsculas o minúsculas).
+     * @return La cantidad de apariciones, incluidas las que se solapan.
+     * @throws IllegalArgumentException Si el patrón está vacío o contiene otros caracteres.
+     */
+    public int contar(String patron) {
+        long rango = buscarRango(patron);
+        return (int) rango - (int) (rango >>> 32);
+    }
+
+    /**
+     * Ubica todas las apariciones de un patrón. Con muchas apariciones se reparten
+     * entre los hilos del pool.
+     *
+     * @param patron Las bases a buscar (A, C, G o T, en mayúsculas o minúsculas).
+     * @param pool El pool de hilos en el que se ubican las apariciones.
+     * @return Las posiciones de la secuencia donde empieza cada aparición, en orden ascendente.
+     * @throws IllegalArgumentException Si el patrón está vacío o contiene otros caracteres.
+     */
+    public long[] localizar(String patron, ForkJoinPool pool) {
+        long rango = buscarRango(patron);
+        int desde = (int) (rango >>> 32);
+        int hasta = (int) rango;
+        long[] ubicaciones = new long[hasta - desde];
+        if (ubicaciones.length <= UBICACIONES_POR_TAREA) {
+            localizarFilas(desde, hasta, ubicaciones, 0);
+            Arrays.sort(ubicaciones);
+            return ubicaciones;
+        }
+        int numTareas = (ubicaciones.length + UBICACIONES_POR_TAREA - 1) / UBICACIONES_POR_TAREA;
+        ForkJoinTask<?>[] tareas = new ForkJoinTask<?>[numTareas];
+        for (int t = 0; t < numTareas; t++) {
+            int primera = desde + t * UBICACIONES_POR_TAREA;
+            int ultima = Math.min(primera + UBICACIONES_POR_TAREA, hasta);
+            tareas[t] = ForkJoinTask.adapt(() -> localizarFilas(primera, ultima, ubicaciones, primera - desde));
+        }
+        invocarTodas(pool, tareas);
+        pool.invoke(ForkJoinTask.adapt(() -> Arrays.parallelSort(ubicaciones)));
+        return ubicaciones;
+    }
+
+    private void localizarFilas(int desde, int hasta, long[] destino, int posicionDestino) {
+        for (int fila = desde; fila < hasta; fila++) {
+            destino[posicionDestino++] = textoASecuencia(posicionEnTexto(fila));
+        }
+    }
+
+    /**
+     * Busca hacia atrás el intervalo de filas cuyos sufijos empiezan con el patrón.
+     *
+     * @return El intervalo {@code [desde, hasta)} como {@code desde << 32 | hasta}.
+     */
+    private long buscarRango(String patron) {
+        if (patron.isEmpty()) {
+            throw new IllegalArgumentException("El patrón a buscar no puede estar vacío.");
+        }
+        int desde = 0;
+        int hasta = numFilas;
+        for (int i = patron.length() - 1; i >= 0; i--) {
+            int codigo = SecuenciaEmpaquetada.codificarBase(patron.charAt(i));
+            if (codigo < 0) {
+                throw new IllegalArgumentException("El patrón solo puede contener A, C, G y T: " + patron);
+            }
+            if (desde < hasta) {
+                desde = conteoMenores[codigo] + ocurrenciasAntes(codigo, desde);
+                hasta = conteoMenores[codigo] + ocurrenciasAntes(codigo, hasta);
+            }
+        }
+        if (desde >= hasta) {
+            desde = hasta = 0;
+        }
+        return (long) desde << 32 | hasta;
+    }
+
+    /**
+     * Obtiene la posición en el texto del sufijo de una fila, retrocediendo por la BWT
+     * hasta una fila muestreada.
+     */
+    private int posicionEnTexto(int fila) {
+        int pasos = 0;
+        while ((muestreadas[fila >>> 6] & (1L << fila)) == 0) {
+            int codigo = codigoEn(fila);
+            fila = conteoMenores[codigo] + ocurrenciasAntes(codigo, fila);
+            pasos++;
+        }
+        int rango = rangoMuestras[fila >>> 6] + Long.bitCount(muestreadas[fila >>> 6] & ((1L << fila) - 1));
+        return muestras[rango] + pasos;
+    }
+
+    private long textoASecuencia(int posicion) {
+        int bajo = 0;
+        int alto = separadores.length;
+        while (bajo < alto) {
+            int medio = (bajo + alto) >>> 1;
+            if (separadores[medio] < posicion) {
+                bajo = medio + 1;
+            } else {
+                alto = medio;
+            }
+        }
+        return posicion + desplazamientos[bajo];
+    }
+
+    private int codigoEn(int fila) {
+        return (int) (bwt[fila >>> 5] >>> ((fila & 31) << 1)) & 3;
+    }
+
+    /**
+     * Cuenta las apariciones de una base en la BWT en las filas {@code [0, fila)}.
+     */
+    private int ocurrenciasAntes(int codigo, int fila) {
+        int bloque = fila >>> 7;
+        int cuenta = ocurrencias[(bloque << 2) + codigo];
+        int palabra = bloque << 2;
+        for (int ultima = fila >>> 5; palabra < ultima; palabra++) {
+            cuenta += contarEnPalabra(bwt[palabra], codigo, 32);
+        }
+        if ((fila & 31) != 0) {
+            cuenta += contarEnPalabra(bwt[palabra], codigo, fila & 31);
+        }
+        if (codigo == 0) {
+            // El separador y el centinela se guardan como A: se descuentan.
+            int palabraEspecial = bloque << 1;
+            for (int ultima = fila >>> 6; palabraEspecial < ultima; palabraEspecial++) {
+                cuenta -= Long.bitCount(especiales[palabraEspecial]);
+            }
+            if ((fila & 63) != 0) {
+                cuenta -= Long.bitCount(especiales[palabraEspecial] & ((1L << fila) - 1));
+            }
+        }
+        return cuenta;
+    }
+
+    private static int contarEnPalabra(long palabra, int codigo, int cantidad) {
+        long diferencia = palabra ^ CODIGO_REPETIDO[codigo];
+        long iguales = ~(diferencia | (diferencia >>> 1)) & BITS_BAJOS;
+        if (cantidad < 32) {
+            iguales &= (1L << (cantidad << 1)) - 1;
+        }
+        return Long.bitCount(iguales);
+    }
+
+    /**
+     * Obtiene la longitud del texto indexado: las bases válidas, un separador por región
+     * inválida y el centinela.
+     * @return La cantidad de filas de la BWT.
+     */
+    public int getNumFilas() {
+        return numFilas;
+    }
+
+    /**
+     * Estima la memoria ocupada por el índice.
+     * @return Los bytes de los arreglos del índice.
+     */
+    public long getBytesUsados() {
+        return (long) (bwt.length + especiales.length + muestreadas.length + desplazamientos.length) * Long.BYTES
+                + (long) (ocurrencias.length + rangoMuestras.length + muestras.length + separadores.length) * Integer.BYTES;
+    }
+
+    /**
+     * Convierte un tramo de la secuencia al texto del índice: 1 a 4 para las bases y
+     * {@link #SEPARADOR} para cada región inválida.
+     */
+    private static final class TramoTexto extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final transient SecuenciaEmpaquetada secuencia;
+        private final transient byte[] texto;
+        private final transient int[] separadores;
+        private final transient long[] desplazamientos;
+        private final int desde;
+        private final int hasta;
+
+        TramoTexto(SecuenciaEmpaquetada secuencia, byte[] texto, int[] separadores, long[] desplazamientos,
+                int desde, int hasta) {
+            this.secuencia = secuencia;
+            this.texto = texto;
+            this.separadores = separadores;
+            this.desplazamientos = desplazamientos;
+            this.desde = desde;
+            this.hasta = hasta;
+        }
+
+        @Override
+        protected void compute() {
+            int siguiente = Arrays.binarySearch(separadores, desde);
+            if (siguiente < 0) {
+                siguiente = -siguiente - 1;
+            }
+            for (int t = desde; t < hasta; t++) {
+                if (siguiente < separadores.length && separadores[siguiente] == t) {
+                    texto[t] = SEPARADOR;
+                    siguiente++;
+                } else {
+                    texto[t] = (byte) (secuencia.codigoEn(t + desplazamientos[siguiente]) + 1);
+                }
+            }
+        }
+    }
+
+    /**
+     * Procesa un tramo de filas del arreglo de sufijos. En la primera pasada
+     * ({@code primera == null}) escribe los bits de la BWT, los especiales y los
+     * muestreados, y los conteos de sus bloques relativos al inicio del tramo; en la
+     * segunda suma a esos conteos los de los tramos anteriores, calcula el rango de las
+     * muestras y copia sus posiciones.
+     */
+    private static final class TramoFilas extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final transient IndiceFM indice;
+        private final transient TramoFilas primera;
+        private final transient byte[] texto;
+        private final transient int[] sufijos;
+        final int desde;
+        final int hasta;
+
+        // Resultados de la primera pasada, completados antes de la segunda.
+        final transient int[] conteos = new int[4];
+        final transient int[] conteosPrevios = new int[4];
+        int numMuestras;
+        int muestrasPrevias;
+
+        TramoFilas(IndiceFM indice, TramoFilas primera, byte[] texto, int[] sufijos, int desde, int hasta) {
+            this.indice = indice;
+            this.primera = primera;
+            this.texto = texto;
+            this.sufijos = sufijos;
+            this.desde = desde;
+            this.hasta = hasta;
+        }
+
+        @Override
+        protected void compute() {
+            if (primera == null) {
+                escribirBits();
+            } else {
+                ajustar();
+            }
+        }
+
+        private void escribirBits() {
+            for (int fila = desde; fila < hasta; fila++) {
+                if ((fila & (FILAS_POR_BLOQUE - 1)) == 0) {
+                    System.arraycopy(conteos, 0, indice.ocurrencias, (fila >>> 7) << 2, 4);
+                }
+                int posicion = sufijos[fila];
+                byte anterior = posicion == 0 ? CENTINELA : texto[posicion - 1];
+                boolean especial = anterior == CENTINELA || anterior == SEPARADOR;
+                if (especial) {
+                    indice.especiales[fila >>> 6] |= 1L << fila;
+                } else {
+                    int codigo = anterior - 1;
+                    indice.bwt[fila >>> 5] |= (long) codigo << ((fila & 31) << 1);
+                    conteos[codigo]++;
+                }
+                if (especial || posicion % PASO_MUESTRAS == 0) {
+                    indice.muestreadas[fila >>> 6] |= 1L << fila;
+                    numMuestras++;
+                }
+            }
+        }
+
+        private void ajustar() {
+            for (int fila = desde; fila < hasta; fila += FILAS_POR_BLOQUE) {
+                int base = (fila >>> 7) << 2;
+                for (int c = 0; c < 4; c++) {
+                    indice.ocurrencias[base + c] += primera.conteosPrevios[c];
+                }
+            }
+            int rango = primera.muestrasPrevias;
+            for (int palabra = desde >>> 6; palabra < (hasta + 63) >>> 6; palabra++) {
+                indice.rangoMuestras[palabra] = rango;
+                long bits = indice.muestreadas[palabra];
+                while (bits != 0) {
+                    int fila = (palabra << 6) + Long.numberOfTrailingZeros(bits);
+                    indice.muestras[rango++] = sufijos[fila];
+                    bits &= bits - 1;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package proyectoadn;
+
+/**
+ * Índice de los registros de un archivo FASTA o FASTQ cargados uno tras otro en una
+ * misma {@link SecuenciaEmpaquetada}. Guarda los nombres y los tramos en arreglos
+ * paralelos, sin un objeto por registro, porque un archivo de lecturas puede tener
+ * millones; los {@link RegistroSecuencia} se crean solo al consultarlos.
+ */
+public class IndiceRegistros {
+
+    private String[] nombres;
+    private long[] inicios;
+    private long[] longitudes;
+    private int numRegistros;
+
+    /**
+     * Constructor para crear un índice vacío.
+     */
+    public IndiceRegistros() {
+        this.nombres = new String[16];
+        this.inicios = new long[16];
+        this.longitudes = new long[16];
+        this.numRegistros = 0;
+    }
+
+    /**
+     * Agrega un registro al final del índice. Los registros deben agregarse en el
+     * orden en que aparecen en la secuencia.
+     *
+     * @param registro El registro a agregar.
+     */
+    public void agregar(RegistroSecuencia registro) {
+        if (numRegistros == nombres.length) {
+            int nuevaCapacidad = numRegistros * 2;
+            String[] nuevosNombres = new String[nuevaCapacidad];
+            long[] nuevosInicios = new long[nuevaCapacidad];
+            long[] nuevasLongitudes = new long[nuevaCapacidad];
+            System.arraycopy(nombres, 0, nuevosNombres, 0, numRegistros);
+            System.arraycopy(inicios, 0, nuevosInicios, 0, numRegistros);
+            System.arraycopy(longitudes, 0, nuevasLongitudes, 0, numRegistros);
+            nombres = nuevosNombres;
+            inicios = nuevosInicios;
+            longitudes = nuevasLongitudes;
+        }
+        nombres[numRegistros] = registro.getNombre();
+        inicios[numRegistros] = registro.getInicio();
+        longitudes[numRegistros] = registro.getLongitud();
+        numRegistros++;
+    }
+
+    /**
+     * Obtiene la cantidad de registros del índice.
+     * @return El número de registros.
+     */
+    public int getNumRegistros() {
+        return numRegistros;
+    }
+
+    /**
+     * Obtiene un registro por su número de orden.
+     *
+     * @param indice El número del registro, desde 0.
+     * @return El registro con su nombre y su tramo en la secuencia.
+     * @throws IndexOutOfBoundsException Si el índice está fuera de rango.
+     */
+    public RegistroSecuencia getRegistro(int indice) {
+        if (indice < 0 || indice >= numRegistros) {
+            throw new IndexOutOfBoundsException("Registro " + indice + " fuera de rango (hay " + numRegistros + ").");
+        }
+        return new RegistroSecuencia(nombres[indice], inicios[indice], longitudes[indice]);
+    }
+
+    /**
+     * Busca, con búsqueda binaria, el registro que contiene una posición de la secuencia.
+     *
+     * @param posicion La posición a buscar.
+     * @return El número del registro, o -1 si la posición no pertenece a ninguno
+     * (por ejemplo, si cae en la separación entre dos registros).
+     */
+    public int buscarRegistro(long posicion) {
+        int bajo = 0;
+        int alto = numRegistros - 1;
+        while (bajo <= alto) {
+            int medio = (bajo + alto) >>> 1;
+            if (inicios[medio] > posicion) {
+                alto = medio - 1;
+            } else if (inicios[medio] + longitudes[medio] <= posicion) {
+                bajo = medio + 1;
+            } else {
+                return medio;
+            }
+        }
+        return -1;
+    }
+}
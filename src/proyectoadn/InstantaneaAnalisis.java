@@ -0,0 +1,438 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package proyectoadn;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+/**
+ * La clase `InstantaneaAnalisis` guarda el resultado de analizar un archivo en un índice
+ * binario junto a él (mismo nombre con la extensión {@link #EXTENSION}), para que volver
+ * a abrir el archivo no requiera leerlo ni procesarlo otra vez.
+ * <p>
+ * El índice contiene la secuencia empaquetada, los registros FASTA/FASTQ, los patrones
+ * con sus ubicaciones (en su forma comprimida, sin decodificar) y el orden por frecuencia.
+ * Su encabezado guarda la versión del formato, la configuración de patrones y el tamaño,
+ * la fecha de modificación y una suma de verificación del archivo de entrada; si algo no
+ * coincide, {@link #abrir} retorna {@code null} y el archivo se procesa normalmente.
+ * </p>
+ * <p>
+ * El índice se abre proyectándolo en memoria. Las palabras de la secuencia se escriben
+ * alineadas a 8 bytes y en el orden de bytes nativo, así la secuencia se usa directamente
+ * sobre el archivo proyectado, sin copiarla; el resto se lee secuencialmente del mismo
+ * segmento. La suma de verificación es un CRC32C de {@link #MUESTRAS} tramos repartidos
+ * por el archivo de entrada, para no tener que leerlo completo.
+ * </p>
+ */
+public class InstantaneaAnalisis {
+
+    /**
+     * Extensión que se agrega al nombre del archivo de entrada.
+     */
+    public static final String EXTENSION = ".adnidx";
+
+    /**
+     * Versión del formato; un índice con otra versión se descarta.
+     */
+    public static final int VERSION = 3;
+
+    private static final long MAGIA = 0x41444E4944580D0AL; // "ADNIDX\r\n"
+    private static final int MUESTRAS = 16;
+    private static final int TAMANO_MUESTRA = 64 * 1024;
+
+    private final SecuenciaEmpaquetada secuencia;
+    private final IndiceRegistros indiceRegistros;
+    private final int longitudPatron;
+    private final int pasoPatron;
+    private final PatronADN[] patrones;
+    private final PatronADN[] patronesOrdenados;
+    private final PatronADN[][] patronesPorMarco;
+
+    /**
+     * Constructor de `InstantaneaAnalisis`.
+     *
+     * @param secuencia La secuencia analizada.
+     * @param indiceRegistros Los registros FASTA/FASTQ de la secuencia, o {@code null}.
+     * @param longitudPatron La longitud de los patrones.
+     * @param pasoPatron El paso de los patrones.
+     * @param patrones Los patrones, en el orden en que se publicaron.
+     * @param patronesOrdenados Los mismos patrones ordenados de mayor a menor frecuencia.
+     * @param patronesPorMarco Los patrones de los seis marcos de lectura, o {@code null}.
+     */
+    public InstantaneaAnalisis(SecuenciaEmpaquetada secuencia, IndiceRegistros indiceRegistros,
+            int longitudPatron, int pasoPatron, PatronADN[] patrones, PatronADN[] patronesOrdenados,
+            PatronADN[][] patronesPorMarco) {
+        this.secuencia = secuencia;
+        this.indiceRegistros = indiceRegistros;
+        this.longitudPatron = longitudPatron;
+        this.pasoPatron = pasoPatron;
+        this.patrones = patrones;
+        this.patronesOrdenados = patronesOrdenados;
+        this.patronesPorMarco = patronesPorMarco;
+    }
+
+    /**
+     * Obtiene el archivo de índice que corresponde a un archivo de entrada.
+     *
+     * @param entrada El archivo de entrada.
+     * @return El archivo de índice junto a la entrada.
+     */
+    public static File archivoIndice(File entrada) {
+        return new File(entrada.getPath() + EXTENSION);
+    }
+
+    /**
+     * Guarda la instantánea en el índice del archivo de entrada. Se escribe primero en
+     * un archivo temporal que luego reemplaza al índice, así nunca queda uno a medias.
+     *
+     * @param entrada El archivo de entrada que se analizó.
+     * @throws IOException Si no se puede escribir el índice.
+     */
+    public void guardar(File entrada) throws IOException {
+        File destino = archivoIndice(entrada);
+        File temporal = new File(destino.getPath() + ".tmp");
+        boolean escrito = false;
+        try (DataOutputStream salida = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(temporal), 64 * 1024))) {
+            salida.writeLong(MAGIA);
+            salida.writeInt(VERSION);
+            salida.writeBoolean(ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN);
+            salida.writeLong(entrada.length());
+            salida.writeLong(entrada.lastModified());
+            salida.writeLong(calcularMuestra(entrada));
+            salida.writeInt(longitudPatron);
+            salida.writeInt(pasoPatron);
+            escribirSecuencia(salida);
+            escribirRegistros(salida);
+            escribirGrupo(salida, patrones);
+            salida.writeBoolean(patronesPorMarco != null);
+            if (patronesPorMarco != null) {
+                salida.writeInt(patronesPorMarco.length);
+                for (PatronADN[] marco : patronesPorMarco) {
+                    escribirGrupo(salida, marco);
+                }
+            }
+            escribirOrden(salida);
+            salida.writeLong(MAGIA);
+            escrito = true;
+        } finally {
+            if (!escrito) {
+                temporal.delete();
+            }
+        }
+        Files.move(temporal.toPath(), destino.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Escribe la longitud y las regiones inválidas (con su letra) de la secuencia, y luego sus palabras
+     * a partir de una posición múltiplo de 8. La secuencia va antes que los datos de
+     * tamaño variable para que {@link DataOutputStream#size()} no pueda desbordarse.
+     */
+    private void escribirSecuencia(DataOutputStream salida) throws IOException {
+        salida.writeLong(secuencia.longitud());
+        int numRegiones = secuencia.getNumRegionesInvalidas();
+        salida.writeInt(numRegiones);
+        for (int r = 0; r < numRegiones; r++) {
+            salida.writeLong(secuencia.getInicioRegionInvalida(r));
+            salida.writeLong(secuencia.getLongitudRegionInvalida(r));
+            salida.writeByte(secuencia.getLetraRegionInvalida(r));
+        }
+        salida.writeLong(secuencia.getNumPalabrasUsadas());
+        int relleno = (8 - ((salida.size() + 4) & 7)) & 7;
+        salida.writeInt(relleno);
+        for (int i = 0; i < relleno; i++) {
+            salida.writeByte(0);
+        }
+        secuencia.escribirPalabras(salida);
+    }
+
+    private void escribirRegistros(DataOutputStream salida) throws IOException {
+        if (indiceRegistros == null) {
+            salida.writeInt(-1);
+            return;
+        }
+        salida.writeInt(indiceRegistros.getNumRegistros());
+        for (int i = 0; i < indiceRegistros.getNumRegistros(); i++) {
+            RegistroSecuencia registro = indiceRegistros.getRegistro(i);
+            escribirTexto(salida, registro.getNombre());
+            salida.writeLong(registro.getInicio());
+            salida.writeLong(registro.getLongitud());
+        }
+    }
+
+    private static void escribirGrupo(DataOutputStream salida, PatronADN[] grupo) throws IOException {
+        salida.writeInt(grupo.length);
+        for (PatronADN patron : grupo) {
+            escribirTexto(salida, patron.getSecuencia());
+            salida.writeLong(patron.getFrecuencia());
+            patron.getListaUbicaciones().escribir(salida);
+        }
+    }
+
+    /**
+     * Escribe el orden por frecuencia como los índices de los patrones en el grupo principal.
+     */
+    private void escribirOrden(DataOutputStream salida) throws IOException {
+        MiHashTableAbierta posiciones = new MiHashTableAbierta(patrones.length);
+        for (int i = 0; i < patrones.length; i++) {
+            posiciones.insertar(patrones[i].getSecuencia(), i);
+        }
+        salida.writeInt(patronesOrdenados.length);
+        for (PatronADN patron : patronesOrdenados) {
+            salida.writeInt((Integer) posiciones.buscar(patron.getSecuencia()));
+        }
+    }
+
+    private static void escribirTexto(DataOutputStream salida, String texto) throws IOException {
+        byte[] bytes = texto.getBytes(StandardCharsets.UTF_8);
+        salida.writeInt(bytes.length);
+        salida.write(bytes);
+    }
+
+    /**
+     * Abre el índice de un archivo de entrada si existe y corresponde a esa entrada y a
+     * la configuración pedida.
+     *
+     * @param entrada El archivo de entrada.
+     * @param longitudPatron La longitud de patrones configurada.
+     * @param pasoPatron El paso de patrones configurado.
+     * @param seisMarcos {@code true} si se necesitan los resultados de los seis marcos.
+     * @return La instantánea, con su secuencia proyectada en memoria (que debe liberarse
+     * con {@link SecuenciaEmpaquetada#liberar()}), o {@code null} si no hay un índice vigente.
+     * @throws IOException Si ocurre un error al leer la entrada o el índice.
+     */
+    public static InstantaneaAnalisis abrir(File entrada, int longitudPatron, int pasoPatron, boolean seisMarcos)
+            throws IOException {
+        File indice = archivoIndice(entrada);
+        if (!indice.isFile() || !entrada.isFile()) {
+            return null;
+        }
+        Arena arena = Arena.ofShared();
+        boolean abierta = false;
+        try (FileChannel canal = FileChannel.open(indice.toPath(), StandardOpenOption.READ)) {
+            MemorySegment segmento = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size(), arena);
+            FlujoSegmento flujo = new FlujoSegmento(segmento);
+            DataInputStream datos = new DataInputStream(flujo);
+            if (datos.readLong() != MAGIA || datos.readInt() != VERSION
+                    || datos.readBoolean() != (ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN)
+                    || datos.readLong() != entrada.length() || datos.readLong() != entrada.lastModified()
+                    || datos.readLong() != calcularMuestra(entrada)
+                    || datos.readInt() != longitudPatron || datos.readInt() != pasoPatron) {
+                return null;
+            }
+            SecuenciaEmpaquetada secuencia = leerSecuencia(datos, flujo, segmento, arena);
+            IndiceRegistros registros = leerRegistros(datos);
+            PatronADN[] patrones = leerGrupo(datos);
+            PatronADN[][] marcos = null;
+            if (datos.readBoolean()) {
+                marcos = new PatronADN[datos.readInt()][];
+                for (int m = 0; m < marcos.length; m++) {
+                    marcos[m] = leerGrupo(datos);
+                }
+            }
+            if (seisMarcos && marcos == null) {
+                return null;
+            }
+            PatronADN[] ordenados = new PatronADN[datos.readInt()];
+            for (int i = 0; i < ordenados.length; i++) {
+                ordenados[i] = patrones[datos.readInt()];
+            }
+            if (datos.readLong() != MAGIA) {
+                return null;
+            }
+            abierta = true;
+            return new InstantaneaAnalisis(secuencia, registros, longitudPatron, pasoPatron,
+                    patrones, ordenados, seisMarcos ? marcos : null);
+        } catch (IOException | RuntimeException e) {
+            // Un índice truncado o dañado se trata igual que uno que no existe.
+            return null;
+        } finally {
+            if (!abierta) {
+                arena.close();
+            }
+        }
+    }
+
+    private static SecuenciaEmpaquetada leerSecuencia(DataInputStream datos, FlujoSegmento flujo,
+            MemorySegment segmento, Arena arena) throws IOException {
+        long longitud = datos.readLong();
+        int numRegiones = datos.readInt();
+        long[] inicios = new long[numRegiones];
+        long[] longitudes = new long[numRegiones];
+        byte[] letras = new byte[numRegiones];
+        for (int r = 0; r < numRegiones; r++) {
+            inicios[r] = datos.readLong();
+            longitudes[r] = datos.readLong();
+            letras[r] = datos.readByte();
+        }
+        long numPalabras = datos.readLong();
+        int relleno = datos.readInt();
+        flujo.saltar(relleno);
+        long bytesPalabras = numPalabras * Long.BYTES;
+        MemorySegment palabras = segmento.asSlice(flujo.getPosicion(), bytesPalabras, Long.BYTES);
+        flujo.saltar(bytesPalabras);
+        if (numPalabras == 0) {
+            // Una secuencia vacía necesita al menos una palabra para su capacidad.
+            palabras = MemorySegment.ofArray(new long[1]);
+        }
+        return new SecuenciaEmpaquetada(palabras, longitud, inicios, longitudes, letras, arena);
+    }
+
+    private static IndiceRegistros leerRegistros(DataInputStream datos) throws IOException {
+        int numRegistros = datos.readInt();
+        if (numRegistros < 0) {
+            return null;
+        }
+        IndiceRegistros registros = new IndiceRegistros();
+        for (int i = 0; i < numRegistros; i++) {
+            String nombre = leerTexto(datos);
+            registros.agregar(new RegistroSecuencia(nombre, datos.readLong(), datos.readLong()));
+        }
+        return registros;
+    }
+
+    private static PatronADN[] leerGrupo(DataInputStream datos) throws IOException {
+        PatronADN[] grupo = new PatronADN[datos.readInt()];
+        for (int i = 0; i < grupo.length; i++) {
+            String texto = leerTexto(datos);
+            long frecuencia = datos.readLong();
+            grupo[i] = new PatronADN(texto, frecuencia, ListaUbicacionesComprimida.leer(datos));
+        }
+        return grupo;
+    }
+
+    private static String leerTexto(DataInputStream datos) throws IOException {
+        byte[] bytes = new byte[datos.readInt()];
+        datos.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Calcula un CRC32C de hasta {@link #MUESTRAS} tramos de {@link #TAMANO_MUESTRA} bytes
+     * repartidos uniformemente por el archivo (incluidos el principio y el final).
+     * Junto con el tamaño y la fecha detecta un archivo reemplazado sin leerlo completo.
+     */
+    private static long calcularMuestra(File archivo) throws IOException {
+        CRC32C crc = new CRC32C();
+        ByteBuffer buffer = ByteBuffer.allocate(TAMANO_MUESTRA);
+        try (FileChannel canal = FileChannel.open(archivo.toPath(), StandardOpenOption.READ)) {
+            long tamano = canal.size();
+            long ultimoInicio = Math.max(0, tamano - TAMANO_MUESTRA);
+            for (int m = 0; m < MUESTRAS; m++) {
+                long inicio = MUESTRAS == 1 ? 0 : ultimoInicio * m / (MUESTRAS - 1);
+                buffer.clear();
+                while (buffer.hasRemaining() && canal.read(buffer, inicio + buffer.position()) > 0) {
+                    // Lee la muestra completa o hasta el final del archivo.
+                }
+                buffer.flip();
+                crc.update(buffer);
+            }
+        }
+        return crc.getValue();
+    }
+
+    /**
+     * Obtiene la secuencia de la instantánea.
+     * @return La secuencia analizada.
+     */
+    public SecuenciaEmpaquetada getSecuencia() {
+        return secuencia;
+    }
+
+    /**
+     * Obtiene los registros FASTA/FASTQ de la secuencia.
+     * @return El índice de registros, o {@code null} si la entrada era texto plano.
+     */
+    public IndiceRegistros getIndiceRegistros() {
+        return indiceRegistros;
+    }
+
+    /**
+     * Obtiene los patrones en el orden en que se publicaron.
+     * @return Los patrones de la instantánea.
+     */
+    public PatronADN[] getPatrones() {
+        return patrones;
+    }
+
+    /**
+     * Obtiene los patrones ordenados de mayor a menor frecuencia.
+     * @return Los patrones en el orden del árbol de frecuencias.
+     */
+    public PatronADN[] getPatronesOrdenados() {
+        return patronesOrdenados;
+    }
+
+    /**
+     * Obtiene los patrones de los seis marcos de lectura.
+     * @return Los patrones por marco, o {@code null} si no se pidieron.
+     */
+    public PatronADN[][] getPatronesPorMarco() {
+        return patronesPorMarco;
+    }
+
+    /**
+     * Flujo de entrada que lee un {@link MemorySegment} de forma secuencial.
+     */
+    private static final class FlujoSegmento extends InputStream {
+        private final MemorySegment segmento;
+        private long posicion;
+
+        FlujoSegmento(MemorySegment segmento) {
+            this.segmento = segmento;
+            this.posicion = 0;
+        }
+
+        @Override
+        public int read() {
+            if (posicion >= segmento.byteSize()) {
+                return -1;
+            }
+            return segmento.get(ValueLayout.JAVA_BYTE, posicion++) & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] destino, int desde, int cantidad) {
+            long restantes = segmento.byteSize() - posicion;
+            if (cantidad == 0) {
+                return 0;
+            }
+            if (restantes <= 0) {
+                return -1;
+            }
+            int copiados = (int) Math.min(cantidad, restantes);
+            MemorySegment.copy(segmento, ValueLayout.JAVA_BYTE, posicion, destino, desde, copiados);
+            posicion += copiados;
+            return copiados;
+        }
+
+        void saltar(long cantidad) throws IOException {
+            if (cantidad < 0 || posicion + cantidad > segmento.byteSize()) {
+                throw new IOException("Índice truncado.");
+            }
+            posicion += cantidad;
+        }
+
+        long getPosicion() {
+            return posicion;
+        }
+    }
+}
@@ -6,6 +6,7 @@ package proyectoadn;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.PrimitiveIterator;
 import javax.swing.JFileChooser; 
 import javax.swing.JOptionPane;
 
@@ -15,6 +16,17 @@ import javax.swing.JOptionPane;
  */
 public class InterfazPrincipal extends javax.swing.JFrame {
     private Modelo modelo;
+
+    /**
+     * Cantidad de patrones más frecuentes que se ofrecen en la lista de búsqueda.
+     * Alcanza para todos los codones; con k-mers la lista sigue siendo editable.
+     */
+    private static final int PATRONES_EN_LISTA = 64;
+
+    /**
+     * Cantidad máxima de ubicaciones que se muestran al buscar una subcadena cualquiera.
+     */
+    private static final int UBICACIONES_EN_REPORTE = 100;
     
     public InterfazPrincipal() {
         initComponents();
@@ -172,11 +184,18 @@ public class InterfazPrincipal extends javax.swing.JFrame {
         try {
             modelo.cargarSecuenciaADN(archivoSeleccionado);
             JOptionPane.showMessageDialog(this, "Secuencia de ADN cargada y procesada exitosamente.", "Éxito", JOptionPane.INFORMATION_MESSAGE);
-            txtAreaReporte.setText("Secuencia procesada. Use los botones para generar reportes.");
+            if (modelo.getErrorInstantanea() != null) {
+                JOptionPane.showMessageDialog(this, "No se pudo guardar el índice del análisis junto al archivo: "
+                        + modelo.getErrorInstantanea().getMessage()
+                        + "\nLa próxima carga de este archivo volverá a analizarlo.", "Índice no Guardado", JOptionPane.WARNING_MESSAGE);
+            }
+            txtAreaReporte.setText("Secuencia procesada. Use los botones para generar reportes.\n"
+                    + String.format("Velocidad de carga: %.1f MB/s", modelo.getVelocidadCargaMBs())
+                    + "\n" + modelo.getCacheAnalisis());
 
             
             cmbBuscarPatron.removeAllItems(); 
-            PatronADN[] patronesUnicos = modelo.getPatronesOrdenadosPorFrecuencia();
+            PatronADN[] patronesUnicos = modelo.getTopK(PATRONES_EN_LISTA);
             if (patronesUnicos != null) {
                 for (PatronADN p : patronesUnicos) {
                     cmbBuscarPatron.addItem(p.getSecuencia()); 
@@ -228,14 +247,33 @@ public class InterfazPrincipal extends javax.swing.JFrame {
     }
     secuenciaABuscar = secuenciaABuscar.trim(); 
 
-    if (secuenciaABuscar.length() != 3) {
-         JOptionPane.showMessageDialog(this, "El patrón de búsqueda debe ser de 3 nucleótidos.", "Formato Inválido", JOptionPane.WARNING_MESSAGE);
+    // Los patrones de la longitud configurada se buscan en la tabla; cualquier otra
+    // subcadena, en todas las posiciones de la secuencia con el índice FM (o con un
+    // recorrido por máscaras de bits si tiene códigos IUPAC como R, Y o N).
+    PatronADN encontrado = secuenciaABuscar.length() == modelo.getLongitudPatron()
+            ? modelo.buscarPatron(secuenciaABuscar) : null;
+    if (encontrado != null) {
+        txtAreaReporte.setText("Patrón encontrado:\n" + encontrado.toString());
+        return;
+    }
+    try {
+        encontrado = modelo.buscarApariciones(secuenciaABuscar);
+    } catch (IllegalArgumentException ex) {
+        JOptionPane.showMessageDialog(this, ex.getMessage(), "Formato Inválido", JOptionPane.WARNING_MESSAGE);
         return;
     }
-
-    PatronADN encontrado = modelo.buscarPatron(secuenciaABuscar);
     if (encontrado != null) {
-        txtAreaReporte.setText("Patrón encontrado:\n" + encontrado.toString());
+        StringBuilder reporte = new StringBuilder("Patrón '").append(encontrado.getSecuencia())
+                .append("' encontrado ").append(encontrado.getFrecuencia()).append(" veces en cualquier posición.\n")
+                .append("Ubicaciones:");
+        PrimitiveIterator.OfLong ubicaciones = encontrado.iterarUbicaciones();
+        for (int i = 0; i < UBICACIONES_EN_REPORTE && ubicaciones.hasNext(); i++) {
+            reporte.append(i == 0 ? " " : ", ").append(ubicaciones.nextLong());
+        }
+        if (ubicaciones.hasNext()) {
+            reporte.append(", ... (").append(encontrado.getFrecuencia() - UBICACIONES_EN_REPORTE).append(" más)");
+        }
+        txtAreaReporte.setText(reporte.toString());
     } else {
         txtAreaReporte.setText("Patrón '" + secuenciaABuscar.toUpperCase() + "' no encontrado.");
     }
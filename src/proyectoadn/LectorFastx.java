@@ -0,0 +1,267 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package proyectoadn;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * La clase `LectorFastx` lee archivos FASTA y FASTQ registro por registro desde un
+ * {@link InputStream}, con un buffer fijo: nunca guarda más que el registro actual,
+ * y sus bases se empaquetan directamente en la {@link SecuenciaEmpaquetada} que indica
+ * el llamador, sin pasar por cadenas.
+ * <p>
+ * El formato se reconoce por el primer carácter: '>' para FASTA y '@' para FASTQ.
+ * En FASTA la secuencia puede ocupar varias líneas, hasta el siguiente '>' al comienzo
+ * de una línea (las líneas que empiezan con ';' son comentarios). En FASTQ la secuencia
+ * termina en la línea que empieza con '+', y la calidad se lee hasta completar tantos
+ * caracteres como bases tiene el registro; la calidad se valida pero no se guarda.
+ * </p>
+ */
+public class LectorFastx implements AutoCloseable {
+
+    private static final int TAMANO_BUFFER = 64 * 1024;
+    private static final int FORMATO_DESCONOCIDO = 0;
+    private static final int FORMATO_FASTA = 1;
+    private static final int FORMATO_FASTQ = 2;
+
+    private final InputStream entrada;
+    private final byte[] buffer;
+    private int posicion;
+    private int limite;
+    private int formato;
+    private long bytesLeidos;
+    private long numRegistros;
+
+    // Línea de encabezado del registro en curso.
+    private byte[] encabezado;
+    private int longitudEncabezado;
+
+    /**
+     * Constructor de `LectorFastx`.
+     *
+     * @param entrada El flujo con el contenido del archivo; se cierra con {@link #close()}.
+     */
+    public LectorFastx(InputStream entrada) {
+        this.entrada = entrada;
+        this.buffer = new byte[TAMANO_BUFFER];
+        this.posicion = 0;
+        this.limite = 0;
+        this.formato = FORMATO_DESCONOCIDO;
+        this.bytesLeidos = 0;
+        this.numRegistros = 0;
+        this.encabezado = new byte[256];
+        this.longitudEncabezado = 0;
+    }
+
+    /**
+     * Indica si un archivo tiene formato FASTA o FASTQ, mirando su primer carácter
+     * que no es un espacio.
+     *
+     * @param archivo El archivo a revisar.
+     * @return {@code true} si empieza con '>' o '@'.
+     * @throws IOException Si ocurre un error al leer el archivo.
+     */
+    public static boolean esFormatoFastx(File archivo) throws IOException {
+        try (InputStream entrada = new FileInputStream(archivo)) {
+            int c;
+            do {
+                c = entrada.read();
+            } while (c == ' ' || c == '\t' || c == '\r' || c == '\n');
+            return c == '>' || c == '@';
+        }
+    }
+
+    /**
+     * Indica si queda al menos un registro por leer. Omite las líneas en blanco.
+     *
+     * @return {@code true} si hay otro registro.
+     * @throws IOException Si ocurre un error de lectura o el contenido no es FASTA ni FASTQ.
+     */
+    public boolean haySiguiente() throws IOException {
+        while (true) {
+            if (posicion == limite && !rellenar()) {
+                return false;
+            }
+            byte c = buffer[posicion];
+            if (c == ' ' || c == '\t' || c == '\r' || c == '\n') {
+                posicion++;
+                continue;
+            }
+            if (formato == FORMATO_DESCONOCIDO) {
+                if (c == '>') {
+                    formato = FORMATO_FASTA;
+                } else if (c == '@') {
+                    formato = FORMATO_FASTQ;
+                }
+            }
+            if ((formato == FORMATO_FASTA && c == '>') || (formato == FORMATO_FASTQ && c == '@')) {
+                return true;
+            }
+            throw new IOException("Se esperaba el encabezado del registro " + (numRegistros + 1)
+                    + " y se encontró '" + (char) (c & 0xFF) + "'.");
+        }
+    }
+
+    /**
+     * Lee el siguiente registro y agrega sus bases al final de una secuencia.
+     *
+     * @param destino La secuencia donde se empaquetan las bases del registro.
+     * @return El registro leído, con su tramo dentro de {@code destino},
+     * o {@code null} si no quedan registros.
+     * @throws IOException Si ocurre un error de lectura o el registro está mal formado.
+     */
+    public RegistroSecuencia siguiente(SecuenciaEmpaquetada destino) throws IOException {
+        if (!haySiguiente()) {
+            return null;
+        }
+        posicion++; // '>' o '@'
+        leerEncabezado();
+        String nombre = new String(encabezado, 0, longitudEncabezado, StandardCharsets.UTF_8).trim();
+        long inicio = destino.longitud();
+        leerBases(destino, formato == FORMATO_FASTA ? '>' : '+');
+        long longitud = destino.longitud() - inicio;
+        if (formato == FORMATO_FASTQ) {
+            leerCalidad(longitud);
+        }
+        numRegistros++;
+        return new RegistroSecuencia(nombre, inicio, longitud);
+    }
+
+    /**
+     * Copia el resto de la línea actual al buffer del encabezado y consume el salto de línea.
+     */
+    private void leerEncabezado() throws IOException {
+        longitudEncabezado = 0;
+        while (posicion < limite || rellenar()) {
+            byte c = buffer[posicion++];
+            if (c == '\n') {
+                break;
+            }
+            if (c == '\r') {
+                continue;
+            }
+            if (longitudEncabezado == encabezado.length) {
+                byte[] nuevo = new byte[encabezado.length * 2];
+                System.arraycopy(encabezado, 0, nuevo, 0, longitudEncabezado);
+                encabezado = nuevo;
+            }
+            encabezado[longitudEncabezado++] = c;
+        }
+    }
+
+    /**
+     * Agrega las líneas de bases hasta una línea que empieza con {@code marcaFin}
+     * (que no se consume) o hasta el final del flujo. En FASTA se saltan los comentarios.
+     */
+    private void leerBases(SecuenciaEmpaquetada destino, char marcaFin) throws IOException {
+        boolean inicioLinea = true;
+        boolean comentario = false;
+        while (posicion < limite || rellenar()) {
+            if (inicioLinea) {
+                if (buffer[posicion] == marcaFin) {
+                    return;
+                }
+                comentario = formato == FORMATO_FASTA && buffer[posicion] == ';';
+            }
+            int fin = posicion;
+            while (fin < limite && buffer[fin] != '\n') {
+                fin++;
+            }
+            if (!comentario) {
+                destino.agregarBases(buffer, posicion, fin);
+            }
+            inicioLinea = fin < limite;
+            posicion = inicioLinea ? fin + 1 : fin;
+        }
+        if (marcaFin == '+') {
+            throw new IOException("El registro FASTQ " + (numRegistros + 1) + " no tiene línea '+'.");
+        }
+    }
+
+    /**
+     * Consume la línea '+' y las líneas de calidad de un registro FASTQ, que deben sumar
+     * exactamente tantos caracteres como bases tiene el registro.
+     */
+    private void leerCalidad(long longitud) throws IOException {
+        leerEncabezado();
+        long leidos = 0;
+        while (leidos < longitud && (posicion < limite || rellenar())) {
+            byte c = buffer[posicion++];
+            if (c != '\n' && c != '\r') {
+                leidos++;
+            }
+        }
+        // El resto de la última línea de calidad debe estar vacío.
+        while (posicion < limite || rellenar()) {
+            byte c = buffer[posicion];
+            if (c == '\n') {
+                posicion++;
+                break;
+            }
+            if (c != '\r') {
+                leidos++;
+                break;
+            }
+            posicion++;
+        }
+        if (leidos != longitud) {
+            throw new IOException("La calidad del registro FASTQ " + (numRegistros + 1)
+                    + " no tiene la misma longitud que su secuencia (" + longitud + " bases).");
+        }
+    }
+
+    private boolean rellenar() throws IOException {
+        int leidos = entrada.read(buffer, 0, buffer.length);
+        while (leidos == 0) {
+            leidos = entrada.read(buffer, 0, buffer.length);
+        }
+        if (leidos < 0) {
+            posicion = 0;
+            limite = 0;
+            return false;
+        }
+        posicion = 0;
+        limite = leidos;
+        bytesLeidos += leidos;
+        return true;
+    }
+
+    /**
+     * Indica si el contenido es FASTQ. Antes de leer el primer registro retorna {@code false}.
+     * @return {@code true} si los registros son FASTQ.
+     */
+    public boolean isFastq() {
+        return formato == FORMATO_FASTQ;
+    }
+
+    /**
+     * Obtiene la cantidad de registros leídos.
+     * @return El número de registros leídos hasta ahora.
+     */
+    public long getNumRegistros() {
+        return numRegistros;
+    }
+
+    /**
+     * Obtiene la cantidad de bytes leídos del flujo.
+     * @return Los bytes leídos hasta ahora.
+     */
+    public long getBytesLeidos() {
+        return bytesLeidos;
+    }
+
+    /**
+     * Cierra el flujo de entrada.
+     * @throws IOException Si ocurre un error al cerrarlo.
+     */
+    @Override
+    public void close() throws IOException {
+        entrada.close();
+    }
+}
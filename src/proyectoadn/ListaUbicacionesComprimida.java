@@ -0,0 +1,377 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package proyectoadn;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * Lista de ubicaciones comprimida por bloques. Las ubicaciones se agrupan en bloques
+ * de {@link #TAMANO_BLOQUE}: el primer valor de cada bloque se guarda completo en un
+ * índice y los demás como diferencias con el anterior, codificadas en varint
+ * (7 bits por byte). Como las ubicaciones de un patrón suelen estar ordenadas y
+ * cercanas entre sí, la mayoría ocupa uno o dos bytes en lugar de cuatro u ocho.
+ * <p>
+ * Los valores se leen decodificando solo lo necesario: {@link #iterador()} recorre
+ * la lista sin crear un arreglo, y {@link #contarEnRango(long, long)} usa el índice
+ * de bloques para saltar directamente a los bloques que tocan el intervalo.
+ * Las diferencias se codifican en zigzag, así la lista admite valores en cualquier
+ * orden, aunque la búsqueda por bloques solo se aprovecha si están ordenados.
+ * </p>
+ * <p>
+ * La cantidad de ubicaciones es {@code long}. Los bytes se guardan en segmentos de
+ * {@link #TAMANO_SEGMENTO} bytes (el primero crece desde unos pocos bytes, los demás se
+ * reservan completos) y ningún bloque queda partido entre dos segmentos, así la lista
+ * no está limitada por el tamaño máximo de un arreglo. Solo {@link #aArreglo()} exige
+ * que las ubicaciones quepan en un arreglo.
+ * </p>
+ */
+public class ListaUbicacionesComprimida {
+
+    /**
+     * Cantidad de ubicaciones por bloque.
+     */
+    public static final int TAMANO_BLOQUE = 128;
+
+    /**
+     * Tamaño máximo, en bytes, de cada segmento de datos.
+     */
+    public static final int TAMANO_SEGMENTO = 1 << 26;
+
+    private static final int BITS_SEGMENTO = 26;
+
+    /**
+     * Espacio máximo que ocupa un bloque: sus diferencias, de hasta 10 bytes cada una.
+     */
+    private static final int BYTES_MAXIMOS_BLOQUE = (TAMANO_BLOQUE - 1) * 10;
+
+    private byte[][] segmentos;
+    private int numSegmentos;
+    // Posición del siguiente byte: segmento * TAMANO_SEGMENTO + desplazamiento.
+    private long bytesUsados;
+    private long[] primeros;
+    private long[] inicios;
+    private int numBloques;
+    private long cantidad;
+    private long ultimo;
+    private boolean ordenada;
+
+    /**
+     * Constructor para crear una lista vacía.
+     */
+    public ListaUbicacionesComprimida() {
+        this.segmentos = new byte[][] {new byte[16]};
+        this.numSegmentos = 1;
+        this.primeros = new long[1];
+        this.inicios = new long[1];
+        this.ordenada = true;
+    }
+
+    /**
+     * Agrega una ubicación al final de la lista.
+     *
+     * @param ubicacion La ubicación a agregar.
+     */
+    public void agregar(long ubicacion) {
+        if (cantidad % TAMANO_BLOQUE == 0) {
+            if (numBloques == primeros.length) {
+                long[] nuevosPrimeros = new long[numBloques * 2];
+                long[] nuevosInicios = new long[numBloques * 2];
+                System.arraycopy(primeros, 0, nuevosPrimeros, 0, numBloques);
+                System.arraycopy(inicios, 0, nuevosInicios, 0, numBloques);
+                primeros = nuevosPrimeros;
+                inicios = nuevosInicios;
+            }
+            if ((bytesUsados & (TAMANO_SEGMENTO - 1)) + BYTES_MAXIMOS_BLOQUE > TAMANO_SEGMENTO) {
+                // El bloque no entraría completo: empieza en el segmento siguiente.
+                bytesUsados = ((bytesUsados >>> BITS_SEGMENTO) + 1) << BITS_SEGMENTO;
+                asegurarSegmento((int) (bytesUsados >>> BITS_SEGMENTO));
+            }
+            primeros[numBloques] = ubicacion;
+            inicios[numBloques] = bytesUsados;
+            numBloques++;
+        } else {
+            long diferencia = ubicacion - ultimo;
+            escribirVarint((diferencia << 1) ^ (diferencia >> 63));
+        }
+        if (cantidad > 0 && ubicacion < ultimo) {
+            ordenada = false;
+        }
+        ultimo = ubicacion;
+        cantidad++;
+    }
+
+    private void escribirVarint(long valor) {
+        int segmento = (int) (bytesUsados >>> BITS_SEGMENTO);
+        int posicion = (int) (bytesUsados & (TAMANO_SEGMENTO - 1));
+        asegurarSegmento(segmento);
+        byte[] datos = segmentos[segmento];
+        if (posicion + 10 > datos.length) {
+            byte[] nuevosDatos = new byte[Math.min(TAMANO_SEGMENTO, Math.max(datos.length * 2, posicion + 10))];
+            System.arraycopy(datos, 0, nuevosDatos, 0, posicion);
+            datos = nuevosDatos;
+            segmentos[segmento] = datos;
+        }
+        int inicio = posicion;
+        while ((valor & ~0x7FL) != 0) {
+            datos[posicion++] = (byte) ((valor & 0x7F) | 0x80);
+            valor >>>= 7;
+        }
+        datos[posicion++] = (byte) valor;
+        bytesUsados += posicion - inicio;
+    }
+
+    /**
+     * Reserva un segmento completo si todavía no existe.
+     */
+    private void asegurarSegmento(int segmento) {
+        if (segmento < numSegmentos) {
+            return;
+        }
+        if (numSegmentos == segmentos.length) {
+            byte[][] nuevosSegmentos = new byte[numSegmentos * 2][];
+            System.arraycopy(segmentos, 0, nuevosSegmentos, 0, numSegmentos);
+            segmentos = nuevosSegmentos;
+        }
+        segmentos[numSegmentos++] = new byte[TAMANO_SEGMENTO];
+    }
+
+    /**
+     * Ajusta los arreglos internos a su tamaño exacto. Conviene llamarlo cuando
+     * la lista ya no va a crecer.
+     */
+    public void compactar() {
+        int ultimo = numSegmentos - 1;
+        int usadosUltimo = (int) Math.min(bytesUsados - ((long) ultimo << BITS_SEGMENTO), TAMANO_SEGMENTO);
+        if (segmentos[ultimo].length != usadosUltimo) {
+            byte[] exactos = new byte[usadosUltimo];
+            System.arraycopy(segmentos[ultimo], 0, exactos, 0, usadosUltimo);
+            segmentos[ultimo] = exactos;
+        }
+        if (primeros.length != numBloques && numBloques > 0) {
+            long[] exactosPrimeros = new long[numBloques];
+            long[] exactosInicios = new long[numBloques];
+            System.arraycopy(primeros, 0, exactosPrimeros, 0, numBloques);
+            System.arraycopy(inicios, 0, exactosInicios, 0, numBloques);
+            primeros = exactosPrimeros;
+            inicios = exactosInicios;
+        }
+    }
+
+    /**
+     * Obtiene la cantidad de ubicaciones almacenadas.
+     * @return El número de ubicaciones.
+     */
+    public long tamano() {
+        return cantidad;
+    }
+
+    /**
+     * Obtiene un iterador que decodifica las ubicaciones a medida que se piden.
+     * @return Un iterador sobre las ubicaciones, en orden de inserción.
+     */
+    public PrimitiveIterator.OfLong iterador() {
+        return new Iterador(0);
+    }
+
+    /**
+     * Cuenta las ubicaciones dentro del intervalo {@code [desde, hasta)}.
+     * Si la lista está ordenada solo se decodifican los dos bloques de los extremos;
+     * los bloques intermedios se cuentan completos gracias al índice.
+     *
+     * @param desde El inicio del intervalo (incluido).
+     * @param hasta El fin del intervalo (excluido).
+     * @return La cantidad de ubicaciones en el intervalo.
+     */
+    public long contarEnRango(long desde, long hasta) {
+        if (desde >= hasta) {
+            return 0;
+        }
+        if (!ordenada) {
+            long contador = 0;
+            PrimitiveIterator.OfLong it = iterador();
+            while (it.hasNext()) {
+                long valor = it.nextLong();
+                if (valor >= desde && valor < hasta) {
+                    contador++;
+                }
+            }
+            return contador;
+        }
+        return contarMenoresQue(hasta) - contarMenoresQue(desde);
+    }
+
+    /**
+     * Cuenta las ubicaciones menores que un valor, en una lista ordenada.
+     */
+    private long contarMenoresQue(long valor) {
+        // Último bloque cuyo primer valor es menor que el buscado.
+        int bajo = 0;
+        int alto = numBloques - 1;
+        int bloque = -1;
+        while (bajo <= alto) {
+            int medio = (bajo + alto) >>> 1;
+            if (primeros[medio] < valor) {
+                bloque = medio;
+                bajo = medio + 1;
+            } else {
+                alto = medio - 1;
+            }
+        }
+        if (bloque < 0) {
+            return 0;
+        }
+        long contador = (long) bloque * TAMANO_BLOQUE;
+        long finBloque = Math.min(contador + TAMANO_BLOQUE, cantidad);
+        Iterador it = new Iterador(contador);
+        while (contador < finBloque && it.nextLong() < valor) {
+            contador++;
+        }
+        return contador;
+    }
+
+    /**
+     * Decodifica todas las ubicaciones a un arreglo nuevo de tamaño exacto.
+     * @return Un arreglo con las ubicaciones, en orden de inserción.
+     * @throws ArithmeticException Si hay más ubicaciones de las que caben en un arreglo;
+     * en ese caso hay que recorrerlas con {@link #iterador()}.
+     */
+    public long[] aArreglo() {
+        long[] resultado = new long[Math.toIntExact(cantidad)];
+        PrimitiveIterator.OfLong it = iterador();
+        for (int i = 0; i < resultado.length; i++) {
+            resultado[i] = it.nextLong();
+        }
+        return resultado;
+    }
+
+    /**
+     * Obtiene la memoria aproximada usada por la lista, en bytes.
+     * @return Los bytes reservados para los datos y el índice de bloques.
+     */
+    public long getBytesUsados() {
+        long total = (long) primeros.length * Long.BYTES + (long) inicios.length * Long.BYTES;
+        for (int i = 0; i < numSegmentos; i++) {
+            total += segmentos[i].length;
+        }
+        return total;
+    }
+
+    /**
+     * Escribe la lista en su forma comprimida, sin decodificarla: los bytes de las
+     * diferencias y el índice de bloques se copian tal cual.
+     *
+     * @param salida El flujo donde se escribe.
+     * @throws IOException Si ocurre un error al escribir.
+     */
+    void escribir(DataOutputStream salida) throws IOException {
+        salida.writeLong(cantidad);
+        salida.writeInt(numBloques);
+        salida.writeLong(bytesUsados);
+        salida.writeLong(ultimo);
+        salida.writeBoolean(ordenada);
+        for (int i = 0; i < numBloques; i++) {
+            salida.writeLong(primeros[i]);
+            salida.writeLong(inicios[i]);
+        }
+        salida.writeInt(numSegmentos);
+        for (int i = 0; i < numSegmentos; i++) {
+            int usados = (int) Math.min(bytesUsados - ((long) i << BITS_SEGMENTO), TAMANO_SEGMENTO);
+            salida.writeInt(usados);
+            salida.write(segmentos[i], 0, usados);
+        }
+    }
+
+    /**
+     * Lee una lista escrita con {@link #escribir(DataOutputStream)}. Queda compactada.
+     *
+     * @param entrada El flujo desde donde se lee.
+     * @return La lista leída.
+     * @throws IOException Si ocurre un error al leer o los datos están incompletos.
+     */
+    static ListaUbicacionesComprimida leer(DataInputStream entrada) throws IOException {
+        ListaUbicacionesComprimida lista = new ListaUbicacionesComprimida();
+        lista.cantidad = entrada.readLong();
+        lista.numBloques = entrada.readInt();
+        lista.bytesUsados = entrada.readLong();
+        lista.ultimo = entrada.readLong();
+        lista.ordenada = entrada.readBoolean();
+        if (lista.cantidad < 0 || lista.numBloques < 0 || lista.bytesUsados < 0
+                || lista.numBloques != (lista.cantidad + TAMANO_BLOQUE - 1) / TAMANO_BLOQUE) {
+            throw new IOException("Lista de ubicaciones inválida.");
+        }
+        lista.primeros = new long[Math.max(1, lista.numBloques)];
+        lista.inicios = new long[Math.max(1, lista.numBloques)];
+        for (int i = 0; i < lista.numBloques; i++) {
+            lista.primeros[i] = entrada.readLong();
+            lista.inicios[i] = entrada.readLong();
+        }
+        lista.numSegmentos = entrada.readInt();
+        if (lista.numSegmentos < 1 || lista.numSegmentos - 1 > lista.bytesUsados >>> BITS_SEGMENTO) {
+            throw new IOException("Lista de ubicaciones inválida.");
+        }
+        lista.segmentos = new byte[lista.numSegmentos][];
+        for (int i = 0; i < lista.numSegmentos; i++) {
+            int usados = entrada.readInt();
+            if (usados < 0 || usados > TAMANO_SEGMENTO) {
+                throw new IOException("Lista de ubicaciones inválida.");
+            }
+            lista.segmentos[i] = new byte[usados];
+            entrada.readFully(lista.segmentos[i]);
+        }
+        return lista;
+    }
+
+    /**
+     * Iterador que avanza bloque a bloque decodificando una diferencia por llamada.
+     */
+    private final class Iterador implements PrimitiveIterator.OfLong {
+        private long indice;
+        private byte[] datos;
+        private int posicion;
+        private long actual;
+
+        /**
+         * @param inicio Índice de la primera ubicación a leer; debe ser el inicio de un bloque.
+         */
+        Iterador(long inicio) {
+            this.indice = inicio;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return indice < cantidad;
+        }
+
+        @Override
+        public long nextLong() {
+            if (indice >= cantidad) {
+                throw new NoSuchElementException();
+            }
+            if (indice % TAMANO_BLOQUE == 0) {
+                int bloque = (int) (indice / TAMANO_BLOQUE);
+                actual = primeros[bloque];
+                // Un bloque nunca está partido entre segmentos.
+                datos = segmentos[(int) (inicios[bloque] >>> BITS_SEGMENTO)];
+                posicion = (int) (inicios[bloque] & (TAMANO_SEGMENTO - 1));
+            } else {
+                long codificado = 0;
+                int desplazamiento = 0;
+                byte b;
+                do {
+                    b = datos[posicion++];
+                    codificado |= (long) (b & 0x7F) << desplazamiento;
+                    desplazamiento += 7;
+                } while (b < 0);
+                actual += (codificado >>> 1) ^ -(codificado & 1);
+            }
+            indice++;
+            return actual;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package proyectoadn;
+
+/**
+ * Un marco abierto de lectura (ORF): el tramo que va desde un codón de inicio hasta
+ * el primer codón de parada en el mismo marco, junto con la proteína que codifica.
+ * <p>
+ * Las coordenadas siempre están en la hebra directa y abarcan el codón de parada:
+ * {@code [inicio, fin)}. En los marcos inversos el ORF se lee de derecha a izquierda,
+ * así que el codón de inicio ocupa las tres últimas posiciones y el de parada las
+ * tres primeras.
+ * </p>
+ */
+public class MarcoAbiertoLectura {
+
+    private final int marco;
+    private final long inicio;
+    private final long fin;
+    private final String proteina;
+
+    /**
+     * Constructor de `MarcoAbiertoLectura`.
+     *
+     * @param marco El índice del marco (ver {@link ContadorSeisMarcos#getNombreMarco(int)}).
+     * @param inicio La primera posición del ORF en la hebra directa (incluida).
+     * @param fin La posición siguiente a la última del ORF (excluida), contando el codón de parada.
+     * @param proteina La proteína traducida, en letras de un carácter y sin la parada.
+     */
+    public MarcoAbiertoLectura(int marco, long inicio, long fin, String proteina) {
+        this.marco = marco;
+        this.inicio = inicio;
+        this.fin = fin;
+        this.proteina = proteina;
+    }
+
+    /**
+     * Obtiene el índice del marco de lectura: 0 a 2 para {@code +1} a {@code +3},
+     * 3 a 5 para {@code -1} a {@code -3}.
+     * @return El índice del marco.
+     */
+    public int getMarco() {
+        return marco;
+    }
+
+    /**
+     * Indica si el ORF está en la hebra complementaria inversa.
+     * @return {@code true} para los marcos {@code -1} a {@code -3}.
+     */
+    public boolean esInverso() {
+        return marco >= 3;
+    }
+
+    /**
+     * Obtiene la primera posición del ORF en la hebra directa.
+     * @return La posición inicial (incluida).
+     */
+    public long getInicio() {
+        return inicio;
+    }
+
+    /**
+     * Obtiene la posición siguiente a la última del ORF en la hebra directa.
+     * @return La posición final (excluida).
+     */
+    public long getFin() {
+        return fin;
+    }
+
+    /**
+     * Obtiene la proteína codificada por el ORF.
+     * @return La secuencia de aminoácidos en letras de un carácter.
+     */
+    public String getProteina() {
+        return proteina;
+    }
+
+    /**
+     * Obtiene la cantidad de aminoácidos de la proteína (sin contar la parada).
+     * @return La longitud de la proteína.
+     */
+    public int getLongitudAminoacidos() {
+        return proteina.length();
+    }
+
+    /**
+     * Devuelve una representación del ORF con su marco, coordenadas y longitud.
+     * @return Una cadena con la información del ORF.
+     */
+    @Override
+    public String toString() {
+        return "ORF marco " + ContadorSeisMarcos.getNombreMarco(marco) + " [" + inicio + ", " + fin + ") "
+                + getLongitudAminoacidos() + " aa: " + proteina;
+    }
+}
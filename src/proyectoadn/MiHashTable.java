@@ -36,7 +36,7 @@ class HashEntry {
  * También lleva un registro de las colisiones ocurridas para fines de reporte.
  *
  */
-public class MiHashTable {
+public class MiHashTable implements TablaHash {
     private HashEntry[] tabla;
     private int tamano;
     private int cantidadElementos;
@@ -85,6 +85,7 @@ public class MiHashTable {
      * @param clave La clave ({@code String}) a insertar o actualizar.
      * @param valor El valor ({@code Object}) asociado a la clave.
      */
+    @Override
     public void insertar(String clave, Object valor) {
         int indice = hash(clave);
         HashEntry nuevoEntry = new HashEntry(clave, valor);
@@ -118,6 +119,7 @@ public class MiHashTable {
      *
      * @return El {@code Object} asociado a la clave si se encuentra, o {@code null} si la clave no existe en la tabla.
      */
+    @Override
     public Object buscar(String clave) {
         int indice = hash(clave);
         HashEntry actual = tabla[indice];
@@ -140,6 +142,7 @@ public class MiHashTable {
      * @return Un arreglo de {@code Object} con todos los valores presentes en la tabla.
      * Retorna un arreglo vacío si la tabla no contiene elementos.
      */
+    @Override
     public Object[] getTodosLosValores() {
         int count = 0;
         for (int i = 0; i < tabla.length; i++) {
@@ -164,6 +167,15 @@ public class MiHashTable {
         return valores;
     }
 
+    /**
+     * Obtiene la cantidad de elementos almacenados en la tabla.
+     * @return El número de pares clave-valor.
+     */
+    @Override
+    public int getCantidadElementos() {
+        return cantidadElementos;
+    }
+
     /**
      * Genera un reporte detallado sobre el estado de las colisiones en la tabla hash.
      * El reporte incluye:
@@ -177,6 +189,7 @@ public class MiHashTable {
      *
      * @return Una cadena de texto formateada con el reporte de colisiones.
      */
+    @Override
     public String getReporteColisiones() {
         StringBuilder reporte = new StringBuilder("Reporte de Colisiones de MiHashTable:\n");
         reporte.append("--------\n");
@@ -0,0 +1,286 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package proyectoadn;
+
+import java.util.function.Consumer;
+
+/**
+ * La clase `MiHashTableAbierta` es una variante de {@link MiHashTable} que resuelve
+ * las colisiones con direccionamiento abierto (sondeo lineal con la estrategia
+ * Robin Hood) en lugar de listas enlazadas. Las claves, los valores y los códigos
+ * hash ya calculados se guardan en arreglos paralelos, por lo que una búsqueda
+ * recorre posiciones contiguas de memoria sin seguir punteros entre nodos.
+ * <p>
+ * La tabla se duplica automáticamente cuando su factor de carga supera
+ * {@link #FACTOR_CARGA_MAXIMO}, de modo que puede crecer a millones de claves
+ * sin que los sondeos se alarguen. Robin Hood mantiene baja la varianza de la
+ * distancia de sondeo: al insertar, un elemento "pobre" (lejos de su celda ideal)
+ * desplaza a uno "rico" (cerca de la suya).
+ * </p>
+ */
+public class MiHashTableAbierta implements TablaHash {
+
+    /**
+     * Factor de carga a partir del cual la tabla duplica su capacidad.
+     */
+    public static final double FACTOR_CARGA_MAXIMO = 0.75;
+
+    private String[] claves;
+    private Object[] valores;
+    private int[] hashes;
+    private int mascara;
+    private int cantidadElementos;
+    private int umbral;
+    private int redimensionamientos;
+
+    /**
+     * Constructor para crear una nueva instancia de `MiHashTableAbierta`.
+     * La capacidad real es la potencia de dos necesaria para guardar la cantidad
+     * esperada de elementos sin superar el factor de carga máximo.
+     *
+     * @param elementosEsperados La cantidad de elementos que se espera almacenar.
+     */
+    public MiHashTableAbierta(int elementosEsperados) {
+        int capacidad = 16;
+        while (capacidad * FACTOR_CARGA_MAXIMO < elementosEsperados && capacidad < (1 << 30)) {
+            capacidad <<= 1;
+        }
+        inicializar(capacidad);
+        this.cantidadElementos = 0;
+        this.redimensionamientos = 0;
+    }
+
+    private void inicializar(int capacidad) {
+        this.claves = new String[capacidad];
+        this.valores = new Object[capacidad];
+        this.hashes = new int[capacidad];
+        this.mascara = capacidad - 1;
+        this.umbral = (int) (capacidad * FACTOR_CARGA_MAXIMO);
+    }
+
+    /**
+     * Calcula el código hash de una clave y mezcla sus bits altos con los bajos,
+     * ya que el índice se obtiene con una máscara sobre los bits menos significativos.
+     *
+     * @param clave La clave ({@code String}) para la cual se calculará el hash.
+     * @return El código hash mezclado.
+     */
+    private static int hash(String clave) {
+        int h = clave.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Calcula la distancia de sondeo de un elemento: cuántas celdas está
+     * desplazado respecto de su celda ideal.
+     */
+    private int distancia(int indice, int hash) {
+        return (indice - (hash & mascara)) & mascara;
+    }
+
+    /**
+     * Busca la celda que ocupa una clave. La búsqueda termina en cuanto encuentra
+     * una celda vacía o un elemento más cercano a su celda ideal que la clave buscada,
+     * ya que Robin Hood garantiza que la clave no puede estar más adelante.
+     *
+     * @return El índice de la celda, o -1 si la clave no existe.
+     */
+    private int buscarIndice(String clave, int hash) {
+        int indice = hash & mascara;
+        int recorrido = 0;
+        while (claves[indice] != null) {
+            if (distancia(indice, hashes[indice]) < recorrido) {
+                return -1;
+            }
+            if (hashes[indice] == hash && claves[indice].equals(clave)) {
+                return indice;
+            }
+            indice = (indice + 1) & mascara;
+            recorrido++;
+        }
+        return -1;
+    }
+
+    /**
+     * Inserta un par clave-valor en la tabla hash.
+     * Si la clave ya existe, su valor asociado se actualiza con el nuevo valor.
+     * Si la clave es nueva y la tabla superaría el factor de carga, primero se duplica su capacidad.
+     *
+     * @param clave La clave ({@code String}) a insertar o actualizar.
+     * @param valor El valor ({@code Object}) asociado a la clave.
+     */
+    @Override
+    public void insertar(String clave, Object valor) {
+        int hash = hash(clave);
+        int indice = buscarIndice(clave, hash);
+        if (indice >= 0) {
+            valores[indice] = valor;
+            return;
+        }
+        if (cantidadElementos + 1 > umbral) {
+            redimensionar();
+        }
+        colocar(clave, valor, hash);
+        cantidadElementos++;
+    }
+
+    /**
+     * Coloca una clave nueva aplicando Robin Hood: si encuentra un elemento con menor
+     * distancia de sondeo que la del elemento en mano, los intercambia y continúa
+     * con el desplazado.
+     */
+    private void colocar(String clave, Object valor, int hash) {
+        int indice = hash & mascara;
+        int recorrido = 0;
+        while (true) {
+            if (claves[indice] == null) {
+                claves[indice] = clave;
+                valores[indice] = valor;
+                hashes[indice] = hash;
+                return;
+            }
+            int distanciaOcupante = distancia(indice, hashes[indice]);
+            if (distanciaOcupante < recorrido) {
+                String claveDesplazada = claves[indice];
+                Object valorDesplazado = valores[indice];
+                int hashDesplazado = hashes[indice];
+                claves[indice] = clave;
+                valores[indice] = valor;
+                hashes[indice] = hash;
+                clave = claveDesplazada;
+                valor = valorDesplazado;
+                hash = hashDesplazado;
+                recorrido = distanciaOcupante;
+            }
+            indice = (indice + 1) & mascara;
+            recorrido++;
+        }
+    }
+
+    /**
+     * Duplica la capacidad de la tabla y recoloca todos los elementos,
+     * reutilizando los códigos hash guardados sin recalcularlos.
+     */
+    private void redimensionar() {
+        String[] clavesAnteriores = claves;
+        Object[] valoresAnteriores = valores;
+        int[] hashesAnteriores = hashes;
+        inicializar(claves.length * 2);
+        for (int i = 0; i < clavesAnteriores.length; i++) {
+            if (clavesAnteriores[i] != null) {
+                colocar(clavesAnteriores[i], valoresAnteriores[i], hashesAnteriores[i]);
+            }
+        }
+        redimensionamientos++;
+    }
+
+    /**
+     * Busca un valor en la tabla hash dado su clave.
+     *
+     * @param clave La clave a buscar.
+     * @return El {@code Object} asociado a la clave si se encuentra, o {@code null} si la clave no existe en la tabla.
+     */
+    @Override
+    public Object buscar(String clave) {
+        int indice = buscarIndice(clave, hash(clave));
+        return indice >= 0 ? valores[indice] : null;
+    }
+
+    /**
+     * Obtiene un arreglo que contiene todos los valores almacenados en la tabla,
+     * recorriendo las celdas en orden.
+     *
+     * @return Un arreglo de {@code Object} con todos los valores presentes en la tabla.
+     */
+    @Override
+    public Object[] getTodosLosValores() {
+        Object[] resultado = new Object[cantidadElementos];
+        int indice = 0;
+        for (int i = 0; i < claves.length; i++) {
+            if (claves[i] != null) {
+                resultado[indice++] = valores[i];
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Aplica una acción a cada valor recorriendo las celdas en orden, sin copiarlos.
+     *
+     * @param accion La acción a aplicar sobre cada valor.
+     */
+    @Override
+    public void recorrerValores(Consumer<Object> accion) {
+        for (int i = 0; i < claves.length; i++) {
+            if (claves[i] != null) {
+                accion.accept(valores[i]);
+            }
+        }
+    }
+
+    /**
+     * Obtiene la cantidad de elementos almacenados en la tabla.
+     * @return El número de pares clave-valor.
+     */
+    @Override
+    public int getCantidadElementos() {
+        return cantidadElementos;
+    }
+
+    /**
+     * Genera un reporte sobre las colisiones de la tabla. En direccionamiento abierto
+     * una colisión es un elemento que no quedó en su celda ideal; el reporte incluye:
+     * <ul>
+     * <li>La cantidad de elementos por cada distancia de sondeo mayor que cero.</li>
+     * <li>El tamaño total del arreglo, las celdas ocupadas y el factor de carga.</li>
+     * <li>El número total de colisiones y las distancias de sondeo máxima y promedio.</li>
+     * <li>El número de veces que la tabla se redimensionó.</li>
+     * </ul>
+     *
+     * @return Una cadena de texto formateada con el reporte de colisiones.
+     */
+    @Override
+    public String getReporteColisiones() {
+        int distanciaMaxima = 0;
+        long sumaDistancias = 0;
+        int colisionesTotal = 0;
+        for (int i = 0; i < claves.length; i++) {
+            if (claves[i] != null) {
+                int d = distancia(i, hashes[i]);
+                distanciaMaxima = Math.max(distanciaMaxima, d);
+                sumaDistancias += d;
+                if (d > 0) {
+                    colisionesTotal++;
+                }
+            }
+        }
+        int[] elementosPorDistancia = new int[distanciaMaxima + 1];
+        for (int i = 0; i < claves.length; i++) {
+            if (claves[i] != null) {
+                elementosPorDistancia[distancia(i, hashes[i])]++;
+            }
+        }
+
+        StringBuilder reporte = new StringBuilder("Reporte de Colisiones de MiHashTableAbierta:\n");
+        reporte.append("--------\n");
+        for (int d = 1; d <= distanciaMaxima; d++) {
+            if (elementosPorDistancia[d] > 0) {
+                reporte.append("Distancia de sondeo ").append(d).append(": ")
+                        .append(elementosPorDistancia[d]).append(" elemento(s)\n");
+            }
+        }
+        reporte.append("-----\n");
+        reporte.append("Tamaño total de la tabla: ").append(claves.length).append("\n");
+        reporte.append("Celdas ocupadas: ").append(cantidadElementos).append("\n");
+        reporte.append(String.format("Factor de carga: %.2f%n", (double) cantidadElementos / claves.length));
+        reporte.append("Total de colisiones registradas (elementos fuera de su celda ideal): ").append(colisionesTotal).append("\n");
+        reporte.append("Distancia de sondeo máxima: ").append(distanciaMaxima).append("\n");
+        reporte.append(String.format("Distancia de sondeo promedio: %.3f%n",
+                cantidadElementos == 0 ? 0.0 : (double) sumaDistancias / cantidadElementos));
+        reporte.append("Redimensionamientos: ").append(redimensionamientos).append("\n");
+        reporte.append("Número total de elementos almacenados: ").append(cantidadElementos).append("\n");
+        return reporte.toString();
+    }
+}
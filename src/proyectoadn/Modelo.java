@@ -10,25 +10,33 @@ package proyectoadn;
  */
 
 
-import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileReader;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
 import logic.MiArbolBinarioBusqueda;
+import logic.MonticuloAcotado;
 
 public class Modelo {
 
     /**
      * Tabla hash utilizada para almacenar y buscar patrones de ADN por su secuencia
      * (clave), permitiendo un acceso rápido a la información de cada patrón.
+     * Usa direccionamiento abierto redimensionable ({@link MiHashTableAbierta}),
+     * ya que los perfiles de k-mers pueden tener millones de patrones distintos.
      */
-    private MiHashTable tablaPatronesADN;
+    private TablaHash tablaPatronesADN;
 
     /**
      * Árbol binario de búsqueda utilizado para almacenar los patrones de ADN
      * y mantenerlos ordenados por su frecuencia de aparición.
      * Facilita la obtención de patrones en orden de frecuencia y la identificación
      * de los más y menos frecuentes.
+     * Se construye solo cuando se necesita (ver {@link #obtenerArbol()}); es {@code null}
+     * mientras no se haya pedido desde el último procesamiento.
      */
     private MiArbolBinarioBusqueda arbolFrecuenciaPatrones;
 
@@ -39,136 +47,895 @@ public class Modelo {
      */
     private MapeadorCodones mapeadorCodones;
 
+    /**
+     * Traductor a proteínas con el mismo código genético que el mapeador; se
+     * reemplaza solo cuando se elige otra tabla, no en cada traducción.
+     */
+    private TraductorProteinas traductorProteinas;
+
     /**
      * Almacena la secuencia completa de ADN cargada desde un archivo,
      * la cual será procesada para extraer patrones.
+     * Se guarda empaquetada a 2 bits por base (ver {@link SecuenciaEmpaquetada}).
+     */
+    private SecuenciaEmpaquetada secuenciaPrincipalADN;
+
+    /**
+     * Registros del último archivo FASTA o FASTQ cargado, con su tramo en la secuencia
+     * principal, o {@code null} si el archivo era de texto plano.
+     */
+    private IndiceRegistros indiceRegistros;
+
+    /**
+     * Índice FM de la secuencia principal, para buscar subcadenas de cualquier longitud.
+     * Se construye la primera vez que se busca (ver {@link #obtenerIndiceFM()}) y se
+     * descarta al cambiar la secuencia.
+     */
+    private IndiceFM indiceFM;
+
+    /**
+     * Velocidad de la última carga de archivo, en megabytes por segundo.
+     */
+    private double velocidadCargaMBs;
+
+    /**
+     * Indica si los codones se cuentan en paralelo, repartiendo la secuencia
+     * entre los núcleos disponibles, en lugar de contarse durante la lectura.
+     */
+    private boolean procesamientoParalelo;
+
+    /**
+     * Indica si, al procesar codones, se analizan los seis marcos de lectura
+     * (ver {@link ContadorSeisMarcos}) en lugar de solo el marco 0 de la hebra directa.
+     */
+    private boolean analisisSeisMarcos;
+
+    /**
+     * Patrones de cada uno de los seis marcos de lectura del último procesamiento,
+     * o {@code null} si no se hizo el análisis de seis marcos.
+     */
+    private PatronADN[][] patronesPorMarco;
+
+    /**
+     * Los patrones de la tabla hash en el orden en que se insertaron, para guardarlos
+     * en una {@link InstantaneaAnalisis} y restaurarlos en el mismo orden.
      */
-    private String secuenciaPrincipalADN;
+    private PatronADN[] patronesPublicados;
+
+    /**
+     * Indica si al cargar un archivo se reutiliza (y se guarda) su
+     * {@link InstantaneaAnalisis} en lugar de analizarlo siempre desde cero.
+     */
+    private boolean usarInstantaneas;
+
+    /**
+     * El error que impidió guardar la instantánea en la última carga de archivo,
+     * o {@code null} si se guardó o no hacía falta guardarla.
+     */
+    private IOException errorInstantanea;
+
+    /**
+     * Análisis de los últimos archivos cargados, para volver a ellos sin recalcular.
+     */
+    private final CacheAnalisis cacheAnalisis;
+
+    /**
+     * Longitud de los patrones (k-mers) que se extraen de la secuencia.
+     */
+    private int longitudPatron;
+
+    /**
+     * Distancia entre los inicios de patrones consecutivos.
+     */
+    private int pasoPatron;
 
     /**
      * Constructor de la clase Modelo.
      * Inicializa las estructuras de datos principales:
      * una nueva tabla hash para patrones de ADN,
-     * un nuevo árbol binario de búsqueda para la frecuencia de patrones,
+     * el árbol de frecuencias (que se construye cuando se necesita),
      * y un mapeador de codones para la traducción genética.
      */
     public Modelo() {
-        this.tablaPatronesADN = new MiHashTable(101); // Se elige 101 como tamaño inicial para la tabla hash (número primo).
-        this.arbolFrecuenciaPatrones = new MiArbolBinarioBusqueda();
+        this.tablaPatronesADN = new MiHashTableAbierta(64); // Capacidad para los 64 codones posibles; crece si hace falta.
+        this.arbolFrecuenciaPatrones = null;
         this.mapeadorCodones = new MapeadorCodones();
-        this.secuenciaPrincipalADN = "";
+        this.traductorProteinas = new TraductorProteinas(mapeadorCodones.getCodigoGenetico());
+        this.secuenciaPrincipalADN = new SecuenciaEmpaquetada();
+        this.indiceRegistros = null;
+        this.procesamientoParalelo = Runtime.getRuntime().availableProcessors() > 1;
+        this.longitudPatron = 3;
+        this.pasoPatron = 3;
+        this.analisisSeisMarcos = false;
+        this.patronesPorMarco = null;
+        this.patronesPublicados = new PatronADN[0];
+        this.usarInstantaneas = true;
+        this.cacheAnalisis = new CacheAnalisis(CacheAnalisis.CAPACIDAD_POR_DEFECTO);
     }
 
     /**
      * Carga una secuencia principal de ADN desde un archivo de texto plano.
-     * Lee todo el contenido del archivo, lo concatena, elimina espacios en blanco,
-     * convierte a mayúsculas y lo almacena.
-     * Después de cargar, invoca el método {@code procesarSecuenciaADN()}
-     * para analizar los patrones dentro de la secuencia cargada.
+     * El archivo se proyecta en memoria y se recorre una sola vez con un
+     * {@link CargadorSecuencia}: se omiten saltos de línea y espacios, las bases se
+     * convierten a mayúsculas y se almacenan empaquetadas a 2 bits por base.
+     * Los codones se contabilizan con un {@link ContadorCodones} a medida que se leen,
+     * sin esperar al final del archivo; en modo paralelo, o con otra longitud de patrón,
+     * se cuentan al terminar la lectura con {@link #procesarSecuenciaADN()}.
+     * El árbol de frecuencias se construye después, solo si se consulta.
+     * <p>
+     * Si el archivo empieza con '>' o '@' se trata como FASTA o FASTQ y se carga registro
+     * por registro (ver {@link #cargarRegistros(InputStream, long)}), sin mezclar los
+     * encabezados con las bases. Los archivos gzip y BGZF se reconocen por su contenido
+     * y se descomprimen a medida que se leen (ver {@link EntradaComprimida}); los BGZF,
+     * con sus bloques repartidos entre los núcleos.
+     * </p>
+     * <p>
+     * La secuencia se guarda fuera del heap, así su tamaño no alarga las pausas del
+     * recolector de basura. La memoria de la secuencia anterior se libera explícitamente
+     * en cuanto la nueva termina de cargarse; si la carga falla, se conserva la anterior.
+     * </p>
+     * <p>
+     * Si {@link #isUsarInstantaneas()} está activo, al terminar el análisis se guarda una
+     * {@link InstantaneaAnalisis} junto al archivo, y las cargas siguientes del mismo archivo,
+     * sin cambios y con la misma configuración de patrones, la abren proyectada en memoria
+     * en lugar de leer y contar todo otra vez. Si la instantánea no se puede escribir la
+     * carga igual termina, y el error queda en {@link #getErrorInstantanea()}.
+     * </p>
+     * <p>
+     * Antes que nada se busca el archivo en la {@link CacheAnalisis}: si se cargó hace poco,
+     * sin cambios desde entonces y con la misma configuración, su análisis se vuelve a
+     * publicar tal cual. Cada análisis nuevo se agrega a la caché.
+     * </p>
      *
-     * @param archivo El objeto {@link File} que representa el archivo .txt a cargar.
+     * @param archivo El objeto {@link File} que representa el archivo a cargar.
      * @throws IOException Si ocurre un error durante la lectura del archivo.
      */
     public void cargarSecuenciaADN(File archivo) throws IOException {
-        StringBuilder sb = new StringBuilder();
-        BufferedReader br = null;
+        long inicio = System.nanoTime();
+        this.errorInstantanea = null;
+        String clave = claveCache(archivo);
+        CacheAnalisis.Entrada guardada = cacheAnalisis.buscar(clave);
+        if (guardada != null) {
+            restaurarAnalisis(guardada);
+            this.velocidadCargaMBs = calcularVelocidad(archivo, inicio);
+            return;
+        }
+        if (!usarInstantaneas || !abrirInstantanea(archivo)) {
+            analizarArchivo(archivo);
+        }
+        cacheAnalisis.agregar(new CacheAnalisis.Entrada(clave, secuenciaPrincipalADN, indiceRegistros,
+                tablaPatronesADN, arbolFrecuenciaPatrones, patronesPublicados, patronesPorMarco));
+    }
+
+    /**
+     * Carga y analiza un archivo según su formato y, si corresponde, guarda su instantánea.
+     */
+    private void analizarArchivo(File archivo) throws IOException {
+        int compresion = EntradaComprimida.detectarCompresion(archivo);
+        if (compresion != EntradaComprimida.SIN_COMPRESION) {
+            cargarComprimido(archivo, compresion);
+        } else if (LectorFastx.esFormatoFastx(archivo)) {
+            cargarRegistros(new FileInputStream(archivo), archivo.length());
+        } else {
+            cargarTextoPlano(archivo, null, archivo.length());
+        }
+        if (usarInstantaneas) {
+            guardarInstantanea(archivo);
+        }
+    }
+
+    /**
+     * Restaura el análisis desde la instantánea del archivo, si hay una vigente.
+     *
+     * @return {@code true} si se restauró; {@code false} si hay que analizar el archivo.
+     */
+    private boolean abrirInstantanea(File archivo) throws IOException {
+        long inicio = System.nanoTime();
+        InstantaneaAnalisis instantanea = InstantaneaAnalisis.abrir(archivo, longitudPatron, pasoPatron,
+                analisisSeisMarcos && esConteoDeCodones());
+        if (instantanea == null) {
+            return false;
+        }
+        reemplazarSecuencia(instantanea.getSecuencia(), instantanea.getIndiceRegistros());
+        publicarPatrones(instantanea.getPatrones());
+        this.patronesPorMarco = instantanea.getPatronesPorMarco();
+        this.arbolFrecuenciaPatrones = MiArbolBinarioBusqueda.desdeOrdenados(instantanea.getPatronesOrdenados());
+        this.velocidadCargaMBs = calcularVelocidad(archivo, inicio);
+        return true;
+    }
+
+    /**
+     * Calcula la velocidad de una carga que no leyó el archivo completo, como si lo hubiera
+     * leído, para que sea comparable con la de una carga normal.
+     */
+    private static double calcularVelocidad(File archivo, long inicioNanos) {
+        double segundos = Math.max(System.nanoTime() - inicioNanos, 1) / 1e9;
+        return archivo.length() / (1024.0 * 1024.0) / segundos;
+    }
+
+    /**
+     * Arma la clave de un archivo en la caché: su ruta, tamaño y fecha de modificación
+     * (así un archivo modificado no reutiliza el análisis anterior) y la configuración
+     * de patrones con que se analiza.
+     */
+    private String claveCache(File archivo) throws IOException {
+        return archivo.getCanonicalPath() + '|' + archivo.length() + '|' + archivo.lastModified()
+                + '|' + longitudPatron + '|' + pasoPatron + '|' + (analisisSeisMarcos && esConteoDeCodones());
+    }
+
+    /**
+     * Vuelve a publicar un análisis guardado en la caché, con su tabla tal cual. Si el
+     * árbol no se había construido, queda pendiente y se arma con {@link #obtenerArbol()}.
+     */
+    private void restaurarAnalisis(CacheAnalisis.Entrada entrada) {
+        reemplazarSecuencia(entrada.secuencia, entrada.indiceRegistros);
+        this.tablaPatronesADN = entrada.tablaPatrones;
+        this.arbolFrecuenciaPatrones = entrada.arbolFrecuenciaPatrones;
+        this.patronesPublicados = entrada.patrones;
+        this.patronesPorMarco = entrada.patronesPorMarco;
+    }
+
+    /**
+     * Guarda el análisis recién hecho como instantánea del archivo. Si no se puede
+     * escribir (por ejemplo, en una carpeta de solo lectura) la carga no falla: el error
+     * se registra en {@link #errorInstantanea} y la próxima carga volverá a analizar el archivo.
+     */
+    private void guardarInstantanea(File archivo) {
+        InstantaneaAnalisis instantanea = new InstantaneaAnalisis(secuenciaPrincipalADN, indiceRegistros,
+                longitudPatron, pasoPatron, patronesPublicados, ordenarPatrones(), patronesPorMarco);
         try {
-            br = new BufferedReader(new FileReader(archivo));
-            String linea;
-            while ((linea = br.readLine()) != null) {
-                sb.append(linea.trim().toUpperCase());
+            instantanea.guardar(archivo);
+        } catch (IOException e) {
+            this.errorInstantanea = e;
+        }
+    }
+
+    /**
+     * Obtiene los patrones en el orden del árbol de frecuencias. Si el árbol todavía no
+     * se construyó, ordena una copia de los patrones publicados con
+     * {@link PatronADN#compareTo}, que es el mismo orden, en lugar de armarlo solo para esto.
+     */
+    private PatronADN[] ordenarPatrones() {
+        if (arbolFrecuenciaPatrones != null) {
+            return arbolFrecuenciaPatrones.obtenerPatronesOrdenados();
+        }
+        PatronADN[] ordenados = patronesPublicados.clone();
+        Arrays.sort(ordenados);
+        return ordenados;
+    }
+
+    /**
+     * Carga un archivo comprimido, mirando el primer carácter descomprimido para
+     * decidir si es FASTA/FASTQ o texto plano.
+     */
+    private void cargarComprimido(File archivo, int compresion) throws IOException {
+        // Una secuencia de ADN comprimida ocupa unas cuatro veces menos que el texto.
+        long basesEstimadas = archivo.length() * 4;
+        PushbackInputStream entrada = new PushbackInputStream(
+                EntradaComprimida.abrir(archivo, compresion, ForkJoinPool.commonPool()));
+        int primero;
+        try {
+            do {
+                primero = entrada.read();
+            } while (primero == ' ' || primero == '\t' || primero == '\r' || primero == '\n');
+            if (primero >= 0) {
+                entrada.unread(primero);
             }
-            this.secuenciaPrincipalADN = sb.toString();
+        } catch (IOException e) {
+            entrada.close();
+            throw e;
+        }
+        if (primero == '>' || primero == '@') {
+            cargarRegistros(entrada, basesEstimadas);
+        } else {
+            cargarTextoPlano(null, entrada, basesEstimadas);
+        }
+    }
+
+    /**
+     * Carga una secuencia en texto plano con un {@link CargadorSecuencia}, desde el archivo
+     * proyectado en memoria o, si {@code entrada} no es {@code null}, desde ese flujo.
+     */
+    private void cargarTextoPlano(File archivo, InputStream entrada, long basesEstimadas) throws IOException {
+        SecuenciaEmpaquetada secuencia = new SecuenciaEmpaquetada(basesEstimadas, true);
+        boolean contarDuranteCarga = esConteoDeCodones() && !procesamientoParalelo && !analisisSeisMarcos;
+        ContadorCodones contador = contarDuranteCarga ? new ContadorCodones() : null;
+        CargadorSecuencia cargador = new CargadorSecuencia(secuencia, contador);
+        boolean cargada = false;
+        try {
+            if (entrada != null) {
+                cargador.cargar(entrada);
+            } else {
+                cargador.cargar(archivo);
+            }
+            cargada = true;
+        } finally {
+            if (!cargada) {
+                if (contador != null) {
+                    contador.liberar();
+                }
+                secuencia.liberar();
+            }
+        }
+        reemplazarSecuencia(secuencia, null);
+        this.velocidadCargaMBs = cargador.getVelocidadMBs();
+        publicarCarga(contador);
+    }
+
+    /**
+     * Carga un archivo FASTA o FASTQ desde un flujo, registro por registro, con un
+     * {@link CargadorRegistros}. Los registros quedan uno tras otro en la secuencia principal,
+     * separados por bases inválidas y alineados al marco 0, y sus nombres y tramos pueden
+     * consultarse con {@link #getIndiceRegistros()}. El archivo nunca se tiene completo en
+     * memoria: se lee con un buffer fijo y, mientras se sigue leyendo, los codones de los
+     * registros ya leídos se cuentan en paralelo (siempre, sin importar
+     * {@link #isProcesamientoParalelo()}, ya que el resultado es el mismo).
+     * Con otra configuración de patrones, o con seis marcos, el análisis se hace al
+     * terminar con {@link #procesarSecuenciaADN()}.
+     *
+     * @param entrada El flujo con el contenido del archivo; se cierra al terminar.
+     * @param tamanoEstimado Una estimación de la cantidad de bases, para reservar la secuencia.
+     * @throws IOException Si ocurre un error de lectura o el contenido está mal formado.
+     */
+    public void cargarRegistros(InputStream entrada, long tamanoEstimado) throws IOException {
+        SecuenciaEmpaquetada secuencia = new SecuenciaEmpaquetada(tamanoEstimado, true);
+        boolean contarDuranteCarga = esConteoDeCodones() && !analisisSeisMarcos;
+        CargadorRegistros cargador = new CargadorRegistros(secuencia, contarDuranteCarga, ForkJoinPool.commonPool());
+        boolean cargada = false;
+        try {
+            cargador.cargar(entrada);
+            cargada = true;
         } finally {
-            if (br != null) {
-                br.close();
+            if (!cargada) {
+                secuencia.liberar();
             }
         }
-        procesarSecuenciaADN();
+        reemplazarSecuencia(secuencia, cargador.getIndice());
+        this.velocidadCargaMBs = cargador.getVelocidadMBs();
+        publicarCarga(cargador.getContador());
+    }
+
+    /**
+     * Reemplaza la secuencia principal por una recién cargada y libera la anterior,
+     * salvo que la conserve la caché de análisis.
+     */
+    private void reemplazarSecuencia(SecuenciaEmpaquetada secuencia, IndiceRegistros indice) {
+        if (secuenciaPrincipalADN != secuencia && !cacheAnalisis.contieneSecuencia(secuenciaPrincipalADN)) {
+            secuenciaPrincipalADN.liberar();
+        }
+        this.secuenciaPrincipalADN = secuencia;
+        this.indiceRegistros = indice;
+        this.indiceFM = null;
+        cacheAnalisis.setSecuenciaEnUso(secuencia);
     }
 
     /**
-     * Procesa la secuencia de ADN principal para extraer patrones de longitud 3
-     * y los almacena en la tabla hash. Cada patrón se introduce como clave
+     * Publica los patrones de una carga: los del contador si los codones se contaron
+     * durante la lectura, o los de {@link #procesarSecuenciaADN()} si no.
+     *
+     * @param contadorDeCarga El contador usado durante la carga, o {@code null}.
+     */
+    private void publicarCarga(ContadorCodones contadorDeCarga) {
+        if (contadorDeCarga != null) {
+            if (secuenciaPrincipalADN.longitud() < 3) {
+                System.out.println("La secuencia de ADN es demasiado corta para extraer patrones.");
+            }
+            publicarPatrones(contadorDeCarga.construirPatrones());
+        } else {
+            this.tablaPatronesADN = new MiHashTableAbierta(64);
+            this.arbolFrecuenciaPatrones = null;
+            this.patronesPublicados = new PatronADN[0];
+            procesarSecuenciaADN();
+        }
+    }
+
+    /**
+     * Procesa la secuencia de ADN principal para extraer patrones de la longitud
+     * configurada (3 por defecto) y los almacena en la tabla hash. Cada patrón se introduce como clave
      * y un objeto {@link PatronADN} como valor, registrando su frecuencia
      * y sus ubicaciones dentro de la secuencia.
-     * Si un patrón ya existe, se actualiza su frecuencia y ubicaciones.
-     * Finalmente, todos los patrones únicos se transfieren al árbol binario de búsqueda
-     * para su ordenamiento por frecuencia.
+     * Los codones (longitud y paso 3) se cuentan con un {@link ContadorCodones}, que codifica
+     * cada codón como entero y no crea objetos por codón; en modo paralelo se reparte entre
+     * los núcleos con {@link ConteoParaleloCodones}. Cualquier otra configuración
+     * se cuenta con un {@link ContadorKmers}.
+     * Si el análisis de seis marcos está activo, los codones de los seis marcos se cuentan
+     * en un solo recorrido con {@link ContadorSeisMarcos}, y la tabla recibe los del marco +1.
+     * El árbol binario de búsqueda no se construye aquí, sino la primera vez que se
+     * consulta el orden completo por frecuencia.
      * <p>
-     * Nota: La tabla hash y el árbol binario de búsqueda se reinician antes de cada procesamiento
-     * para manejar nuevas cargas de secuencia.
+     * Nota: La tabla hash y el árbol binario de búsqueda se reinician antes de cada procesamiento,
+     * por lo que este método puede usarse para volver a analizar la secuencia ya cargada.
      * </p>
      */
-    private void procesarSecuenciaADN() {
-        if (secuenciaPrincipalADN.length() < 3) {
+    public void procesarSecuenciaADN() {
+        if (secuenciaPrincipalADN.longitud() < longitudPatron) {
             System.out.println("La secuencia de ADN es demasiado corta para extraer patrones.");
             return;
         }
 
-        // Reinicia las estructuras para un nuevo procesamiento
-        this.tablaPatronesADN = new MiHashTable(101);
-        this.arbolFrecuenciaPatrones = new MiArbolBinarioBusqueda();
-
-       
-        for (int i = 0; i <= secuenciaPrincipalADN.length() - 3; i += 3) {
-            String secuenciaFragmento = secuenciaPrincipalADN.substring(i, i + 3);
-
-            // Valida que el fragmento contenga solo bases de ADN (A, T, C, G)
-            if (secuenciaFragmento.matches("[ATCG]+")) {
-                // Busca si el patrón ya existe en la tabla hash
-                PatronADN patronExistente = (PatronADN) tablaPatronesADN.buscar(secuenciaFragmento);
-
-                if (patronExistente != null) {
-                   
-                    patronExistente.incrementarFrecuencia();
-                    patronExistente.agregarUbicacion(i);
-                } else {
-                    
-                    PatronADN nuevoPatron = new PatronADN(secuenciaFragmento);
-                    nuevoPatron.incrementarFrecuencia(); 
-                    nuevoPatron.agregarUbicacion(i);
-                    tablaPatronesADN.insertar(secuenciaFragmento, nuevoPatron);
-                }
+        if (!esConteoDeCodones()) {
+            ContadorKmers contadorKmers = new ContadorKmers(longitudPatron, pasoPatron);
+            try {
+                contadorKmers.contar(secuenciaPrincipalADN);
+                publicarPatrones(contadorKmers.construirPatrones());
+            } finally {
+                contadorKmers.liberar();
+            }
+            return;
+        }
+
+        if (analisisSeisMarcos) {
+            ContadorSeisMarcos contadorMarcos = new ContadorSeisMarcos();
+            try {
+                contadorMarcos.contar(secuenciaPrincipalADN);
+                PatronADN[][] marcos = contadorMarcos.construirPatrones();
+                publicarPatrones(marcos[0]);
+                this.patronesPorMarco = marcos;
+            } finally {
+                contadorMarcos.liberar();
             }
+            return;
         }
 
-       
-        transferirPatronesATree();
+        ContadorCodones contador;
+        if (procesamientoParalelo) {
+            contador = ConteoParaleloCodones.contar(secuenciaPrincipalADN, ForkJoinPool.commonPool());
+        } else {
+            contador = new ContadorCodones();
+            contador.contar(secuenciaPrincipalADN, 0, secuenciaPrincipalADN.longitud());
+        }
+        publicarPatrones(contador.construirPatrones());
     }
 
     /**
-     * Transfiere todos los objetos {@link PatronADN} desde la {@link MiHashTable}
-     * al {@link MiArbolBinarioBusqueda}. Esto asegura que el árbol se construya
+     * Indica si la configuración actual corresponde a codones del marco 0
+     * (longitud 3 y paso 3), que tienen un contador especializado.
+     */
+    private boolean esConteoDeCodones() {
+        return longitudPatron == 3 && pasoPatron == 3;
+    }
+
+    /**
+     * Reinicia la tabla hash con los patrones contabilizados, insertando cada patrón
+     * con su secuencia como clave. El árbol y los resultados por marco se descartan.
+     *
+     * @param patrones Los patrones con sus frecuencias y ubicaciones ya acumuladas.
+     */
+    private void publicarPatrones(PatronADN[] patrones) {
+        this.tablaPatronesADN = new MiHashTableAbierta(patrones.length);
+        this.arbolFrecuenciaPatrones = null;
+        this.patronesPorMarco = null;
+        this.patronesPublicados = patrones;
+        for (PatronADN patron : patrones) {
+            tablaPatronesADN.insertar(patron.getSecuencia(), patron);
+        }
+    }
+
+    /**
+     * Obtiene el árbol de frecuencias, construyéndolo con {@link #transferirPatronesATree()}
+     * si aún no existe para los patrones actuales.
+     *
+     * @return El árbol con todos los patrones de la tabla hash.
+     */
+    private MiArbolBinarioBusqueda obtenerArbol() {
+        if (arbolFrecuenciaPatrones == null) {
+            transferirPatronesATree();
+        }
+        return arbolFrecuenciaPatrones;
+    }
+
+    /**
+     * Transfiere todos los objetos {@link PatronADN} desde la tabla hash
+     * a un nuevo {@link MiArbolBinarioBusqueda}. Esto asegura que el árbol se construya
      * con las frecuencias finales de cada patrón, permitiendo que el árbol
      * mantenga su propiedad de ordenación por frecuencia.
-     * Se invoca después de que todos los patrones de ADN han sido extraídos y contabilizados.
      */
     private void transferirPatronesATree() {
-       
-        Object[] todosLosPatrones = tablaPatronesADN.getTodosLosValores();
+        MiArbolBinarioBusqueda arbol = new MiArbolBinarioBusqueda();
+        tablaPatronesADN.recorrerValores(obj -> {
+            if (obj instanceof PatronADN) {
+                arbol.insertar((PatronADN) obj);
+            }
+        });
+        this.arbolFrecuenciaPatrones = arbol;
+    }
 
-        if (todosLosPatrones != null) {
-           
-            for (Object obj : todosLosPatrones) {
-                if (obj instanceof PatronADN) {
-                    arbolFrecuenciaPatrones.insertar((PatronADN) obj);
-                }
+    /**
+     * Configura la longitud y el paso de los patrones que se extraen de la secuencia.
+     * Con longitud 3 y paso 3 (valores por defecto) se obtienen los codones del marco 0;
+     * con paso 1 se obtiene el perfil completo de k-mers solapados.
+     * Si ya hay una secuencia cargada, se vuelve a procesar con la nueva configuración.
+     *
+     * @param longitud La longitud de los patrones (1 a {@link ContadorKmers#LONGITUD_MAXIMA}).
+     * @param paso La distancia entre los inicios de patrones consecutivos (al menos 1).
+     * @throws IllegalArgumentException Si la longitud o el paso están fuera de rango.
+     */
+    public void configurarPatrones(int longitud, int paso) {
+        ContadorKmers.validar(longitud, paso);
+        this.longitudPatron = longitud;
+        this.pasoPatron = paso;
+        if (secuenciaPrincipalADN.longitud() > 0) {
+            procesarSecuenciaADN();
+        }
+    }
+
+    /**
+     * Obtiene la longitud configurada de los patrones.
+     * @return La longitud de los patrones.
+     */
+    public int getLongitudPatron() {
+        return longitudPatron;
+    }
+
+    /**
+     * Obtiene el paso configurado entre patrones consecutivos.
+     * @return El paso entre patrones.
+     */
+    public int getPasoPatron() {
+        return pasoPatron;
+    }
+
+    /**
+     * Activa o desactiva el conteo paralelo de codones. El resultado es el mismo en
+     * ambos modos; solo cambia cómo se reparte el trabajo.
+     *
+     * @param procesamientoParalelo {@code true} para contar con varios núcleos.
+     */
+    public void setProcesamientoParalelo(boolean procesamientoParalelo) {
+        this.procesamientoParalelo = procesamientoParalelo;
+    }
+
+    /**
+     * Indica si el conteo de codones se realiza en paralelo.
+     * @return {@code true} si el modo paralelo está activo.
+     */
+    public boolean isProcesamientoParalelo() {
+        return procesamientoParalelo;
+    }
+
+    /**
+     * Activa o desactiva el uso de instantáneas del análisis al cargar archivos
+     * (ver {@link InstantaneaAnalisis}).
+     *
+     * @param usarInstantaneas {@code true} para abrir y guardar los índices junto a los archivos.
+     */
+    public void setUsarInstantaneas(boolean usarInstantaneas) {
+        this.usarInstantaneas = usarInstantaneas;
+    }
+
+    /**
+     * Indica si al cargar archivos se usan las instantáneas del análisis.
+     * @return {@code true} si las instantáneas están activas.
+     */
+    public boolean isUsarInstantaneas() {
+        return usarInstantaneas;
+    }
+
+    /**
+     * Obtiene el error que impidió guardar la instantánea en la última carga de archivo.
+     *
+     * @return La excepción al escribir la instantánea, o {@code null} si se guardó,
+     * se reutilizó una existente o las instantáneas están desactivadas.
+     */
+    public IOException getErrorInstantanea() {
+        return errorInstantanea;
+    }
+
+    /**
+     * Obtiene la caché de análisis de archivos, con sus estadísticas de aciertos,
+     * fallos y desalojos. Su capacidad puede cambiarse con
+     * {@link CacheAnalisis#setCapacidadBytes(long)}.
+     * @return La caché de análisis del modelo.
+     */
+    public CacheAnalisis getCacheAnalisis() {
+        return cacheAnalisis;
+    }
+
+    /**
+     * Activa o desactiva el análisis de los seis marcos de lectura. Solo se aplica
+     * al procesar codones (longitud 3 y paso 3); si ya hay una secuencia cargada,
+     * se vuelve a procesar.
+     *
+     * @param analisisSeisMarcos {@code true} para contar los seis marcos.
+     */
+    public void setAnalisisSeisMarcos(boolean analisisSeisMarcos) {
+        this.analisisSeisMarcos = analisisSeisMarcos;
+        if (secuenciaPrincipalADN.longitud() > 0) {
+            procesarSecuenciaADN();
+        }
+    }
+
+    /**
+     * Indica si el análisis de seis marcos está activo.
+     * @return {@code true} si se cuentan los seis marcos de lectura.
+     */
+    public boolean isAnalisisSeisMarcos() {
+        return analisisSeisMarcos;
+    }
+
+    /**
+     * Obtiene el índice de registros del último archivo FASTA o FASTQ cargado.
+     * @return El índice con el nombre y el tramo de cada registro, o {@code null}
+     * si el último archivo era de texto plano.
+     */
+    public IndiceRegistros getIndiceRegistros() {
+        return indiceRegistros;
+    }
+
+    /**
+     * Selecciona la tabla de traducción del NCBI (por ejemplo 2 para mitocondrias de
+     * vertebrados u 11 para bacterias) que usan el reporte de aminoácidos, la búsqueda
+     * de ORF y las traducciones. Los conteos de codones no dependen de la tabla, así que
+     * no hace falta volver a procesar la secuencia.
+     *
+     * @param idTabla El número de la tabla (ver {@link CodigoGenetico#getTablasDisponibles()}).
+     * @throws IllegalArgumentException Si no existe una tabla con ese número.
+     */
+    public void setTablaGenetica(int idTabla) {
+        mapeadorCodones.setTablaGenetica(idTabla);
+        if (traductorProteinas.getCodigoGenetico() != mapeadorCodones.getCodigoGenetico()) {
+            traductorProteinas = new TraductorProteinas(mapeadorCodones.getCodigoGenetico());
+        }
+    }
+
+    /**
+     * Obtiene la tabla de traducción seleccionada.
+     * @return El código genético en uso.
+     */
+    public CodigoGenetico getTablaGenetica() {
+        return mapeadorCodones.getCodigoGenetico();
+    }
+
+    /**
+     * Indica si hay resultados por marco del último procesamiento.
+     * @return {@code true} si se pueden consultar los seis marcos.
+     */
+    public boolean hayResultadosPorMarco() {
+        return patronesPorMarco != null;
+    }
+
+    /**
+     * Obtiene los codones encontrados en un marco de lectura, en el orden de su
+     * primera aparición. Las ubicaciones de los marcos inversos están en coordenadas
+     * de la hebra directa (ver {@link ContadorSeisMarcos}).
+     *
+     * @param marco El índice del marco: 0 a 2 para {@code +1} a {@code +3}, 3 a 5 para {@code -1} a {@code -3}.
+     * @return Un arreglo nuevo con los patrones del marco, vacío si no hay resultados por marco.
+     * @throws IllegalArgumentException Si el índice está fuera de rango.
+     */
+    public PatronADN[] getPatronesMarco(int marco) {
+        ContadorSeisMarcos.validarMarco(marco);
+        if (patronesPorMarco == null) {
+            return new PatronADN[0];
+        }
+        return patronesPorMarco[marco].clone();
+    }
+
+    /**
+     * Obtiene la frecuencia de un codón en un marco de lectura.
+     *
+     * @param codon El codón de ADN (se ignoran mayúsculas y minúsculas).
+     * @param marco El índice del marco (ver {@link #getPatronesMarco(int)}).
+     * @return La cantidad de apariciones en el marco, o 0 si no aparece o no hay resultados por marco.
+     * @throws IllegalArgumentException Si el índice está fuera de rango.
+     */
+    public long getFrecuenciaEnMarco(String codon, int marco) {
+        ContadorSeisMarcos.validarMarco(marco);
+        if (patronesPorMarco == null || codon == null) {
+            return 0;
+        }
+        String buscado = codon.toUpperCase();
+        for (PatronADN patron : patronesPorMarco[marco]) {
+            if (patron.getSecuencia().equals(buscado)) {
+                return patron.getFrecuencia();
             }
         }
+        return 0;
+    }
+
+    /**
+     * Busca los marcos abiertos de lectura (ORF) en los seis marcos de la secuencia
+     * cargada, repartiendo el recorrido entre los núcleos con un {@link BuscadorORF}.
+     *
+     * @param longitudMinima La cantidad mínima de aminoácidos que debe codificar un ORF.
+     * @return Los ORF encontrados, agrupados por marco y en orden de lectura.
+     * @throws IllegalArgumentException Si la longitud mínima es negativa.
+     */
+    public MarcoAbiertoLectura[] buscarMarcosAbiertos(int longitudMinima) {
+        BuscadorORF buscador = new BuscadorORF(traductorProteinas, longitudMinima);
+        return buscador.buscar(secuenciaPrincipalADN, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Traduce a proteína un tramo de la secuencia cargada, un aminoácido por byte
+     * (ver {@link TraductorProteinas}).
+     *
+     * @param inicio La primera posición del tramo (incluida).
+     * @param fin La posición final del tramo (excluida).
+     * @param inversa {@code true} para leer la hebra complementaria inversa desde {@code fin}.
+     * @return La proteína traducida.
+     * @throws IndexOutOfBoundsException Si el tramo no está dentro de la secuencia.
+     */
+    public byte[] traducirTramo(long inicio, long fin, boolean inversa) {
+        verificarTramo(inicio, fin);
+        return traductorProteinas.traducir(secuenciaPrincipalADN, inicio, fin, inversa);
+    }
+
+    /**
+     * Abre un flujo que traduce un tramo de la secuencia cargada a medida que se lee,
+     * útil para tramos (o genomas completos) que no conviene traducir de una vez.
+     * El flujo deja de ser válido si se carga otro archivo.
+     *
+     * @param inicio La primera posición del tramo (incluida).
+     * @param fin La posición final del tramo (excluida).
+     * @param inversa {@code true} para leer la hebra complementaria inversa desde {@code fin}.
+     * @return Un flujo con la proteína, un aminoácido por byte.
+     * @throws IndexOutOfBoundsException Si el tramo no está dentro de la secuencia.
+     */
+    public InputStream abrirTraduccion(long inicio, long fin, boolean inversa) {
+        verificarTramo(inicio, fin);
+        return traductorProteinas.abrirFlujo(secuenciaPrincipalADN, inicio, fin, inversa);
+    }
+
+    /**
+     * Abre un flujo con la traducción completa de un marco de lectura de la secuencia cargada.
+     *
+     * @param marco El índice del marco: 0 a 2 para {@code +1} a {@code +3}, 3 a 5 para {@code -1} a {@code -3}.
+     * @return Un flujo con la proteína del marco, un aminoácido por byte.
+     * @throws IllegalArgumentException Si el índice está fuera de rango.
+     */
+    public InputStream abrirTraduccionMarco(int marco) {
+        ContadorSeisMarcos.validarMarco(marco);
+        long longitud = secuenciaPrincipalADN.longitud();
+        int desfase = (int) Math.min(marco % 3, longitud);
+        return marco < 3
+                ? abrirTraduccion(desfase, longitud, false)
+                : abrirTraduccion(0, longitud - desfase, true);
+    }
+
+    private void verificarTramo(long inicio, long fin) {
+        if (inicio < 0 || fin < inicio || fin > secuenciaPrincipalADN.longitud()) {
+            throw new IndexOutOfBoundsException("Tramo [" + inicio + ", " + fin + ") fuera de la secuencia de longitud "
+                    + secuenciaPrincipalADN.longitud());
+        }
+    }
+
+    /**
+     * Obtiene la velocidad alcanzada en la última carga de archivo.
+     *
+     * @return La velocidad de carga en MB/s, o 0 si aún no se ha cargado ningún archivo.
+     */
+    public double getVelocidadCargaMBs() {
+        return velocidadCargaMBs;
     }
 
     /**
      * Obtiene una lista de todos los patrones de ADN únicos, ordenados
      * por su frecuencia de aparición (de mayor a menor).
-     * Esta información se recupera del árbol binario de búsqueda.
+     * Esta información se recupera del árbol binario de búsqueda, que se construye
+     * en este momento si aún no existía. Si solo se necesitan los primeros o los
+     * últimos patrones, {@link #getTopK(int)} y {@link #getBottomK(int)} son más baratos.
      * La complejidad esperada es O(N) donde N es la cantidad de patrones únicos,
      * debido al recorrido del árbol.
      *
      * @return Un arreglo de objetos {@link PatronADN} ordenados por frecuencia.
      */
     public PatronADN[] getPatronesOrdenadosPorFrecuencia() {
-        return arbolFrecuenciaPatrones.obtenerPatronesOrdenados();
+        return obtenerArbol().obtenerPatronesOrdenados();
+    }
+
+    /**
+     * Obtiene el rango de un patrón: su posición (desde 1) en
+     * {@link #getPatronesOrdenadosPorFrecuencia()}, donde 1 es el más frecuente.
+     * Se calcula en O(log n) con los tamaños de subárbol del árbol de frecuencias.
+     *
+     * @param secuencia La secuencia de ADN del patrón.
+     * @return El rango del patrón, o -1 si no existe.
+     */
+    public int getRangoPatron(String secuencia) {
+        return obtenerArbol().rango(secuencia.toUpperCase());
+    }
+
+    /**
+     * Obtiene el patrón que ocupa un rango dado (desde 1) en el orden por frecuencia, en O(log n).
+     *
+     * @param rango El rango buscado.
+     * @return El patrón con ese rango, o {@code null} si el rango está fuera de límites.
+     */
+    public PatronADN getPatronPorRango(int rango) {
+        return obtenerArbol().seleccionarPorRango(rango);
+    }
+
+    /**
+     * Obtiene los patrones cuya frecuencia está entre dos valores (ambos incluidos),
+     * de mayor a menor frecuencia.
+     *
+     * @param frecuenciaMinima La frecuencia mínima (incluida).
+     * @param frecuenciaMaxima La frecuencia máxima (incluida).
+     * @return Los patrones dentro del intervalo; vacío si no hay ninguno.
+     */
+    public PatronADN[] getPatronesEntreFrecuencias(long frecuenciaMinima, long frecuenciaMaxima) {
+        return obtenerArbol().obtenerPorRangoDeFrecuencia(frecuenciaMinima, frecuenciaMaxima);
+    }
+
+    /**
+     * Obtiene la frecuencia correspondiente a un percentil de la distribución de
+     * frecuencias de los patrones (método del rango más cercano): el valor que no es
+     * superado por al menos ese porcentaje de los patrones. El percentil 0 es la
+     * frecuencia mínima y el 100 la máxima.
+     *
+     * @param percentil El percentil, entre 0 y 100.
+     * @return La frecuencia en ese percentil, o 0 si no hay patrones.
+     * @throws IllegalArgumentException Si el percentil está fuera de [0, 100].
+     */
+    public long getFrecuenciaEnPercentil(double percentil) {
+        if (!(percentil >= 0 && percentil <= 100)) {
+            throw new IllegalArgumentException("El percentil debe estar entre 0 y 100: " + percentil);
+        }
+        MiArbolBinarioBusqueda arbol = obtenerArbol();
+        int cantidad = arbol.getCantidadNodos();
+        if (cantidad == 0) {
+            return 0;
+        }
+        // Posición en orden ascendente de frecuencia; el árbol ordena de mayor a menor.
+        int posicionAscendente = Math.max(1, (int) Math.ceil(percentil / 100.0 * cantidad));
+        return arbol.seleccionarPorRango(cantidad - posicionAscendente + 1).getFrecuencia();
+    }
+
+    /**
+     * Obtiene los patrones cuya frecuencia está entre dos percentiles de la distribución
+     * (por ejemplo, entre el 90 y el 99), de mayor a menor frecuencia. Los patrones con
+     * la misma frecuencia quedan siempre juntos dentro o fuera del resultado.
+     *
+     * @param percentilDesde El percentil inferior, entre 0 y 100.
+     * @param percentilHasta El percentil superior, entre 0 y 100.
+     * @return Los patrones dentro del intervalo; vacío si no hay ninguno.
+     * @throws IllegalArgumentException Si algún percentil está fuera de [0, 100].
+     */
+    public PatronADN[] getPatronesEntrePercentiles(double percentilDesde, double percentilHasta) {
+        long frecuenciaMinima = getFrecuenciaEnPercentil(percentilDesde);
+        long frecuenciaMaxima = getFrecuenciaEnPercentil(percentilHasta);
+        if (obtenerArbol().getCantidadNodos() == 0) {
+            return new PatronADN[0];
+        }
+        return getPatronesEntreFrecuencias(frecuenciaMinima, frecuenciaMaxima);
+    }
+
+    /**
+     * Obtiene los {@code k} patrones más frecuentes, en el mismo orden que
+     * {@link #getPatronesOrdenadosPorFrecuencia()} (el de {@link PatronADN#compareTo}).
+     * Se calculan en una sola pasada sobre la tabla hash con un {@link MonticuloAcotado},
+     * en O(n log k) y sin construir el árbol ni ordenar todos los patrones.
+     *
+     * @param k La cantidad de patrones a obtener.
+     * @return Hasta {@code k} patrones, del más al menos frecuente.
+     * @throws IllegalArgumentException Si {@code k} es negativo.
+     */
+    public PatronADN[] getTopK(int k) {
+        return seleccionarExtremos(k, true);
+    }
+
+    /**
+     * Obtiene los {@code k} patrones menos frecuentes. Se devuelven en el orden de
+     * {@link PatronADN#compareTo}, de modo que coinciden con los últimos {@code k}
+     * elementos de {@link #getPatronesOrdenadosPorFrecuencia()}.
+     *
+     * @param k La cantidad de patrones a obtener.
+     * @return Hasta {@code k} patrones; el último es el menos frecuente.
+     * @throws IllegalArgumentException Si {@code k} es negativo.
+     */
+    public PatronADN[] getBottomK(int k) {
+        return seleccionarExtremos(k, false);
+    }
+
+    private PatronADN[] seleccionarExtremos(int k, boolean masFrecuentes) {
+        MonticuloAcotado monticulo = new MonticuloAcotado(Math.min(k, tablaPatronesADN.getCantidadElementos()), masFrecuentes);
+        tablaPatronesADN.recorrerValores(obj -> {
+            if (obj instanceof PatronADN) {
+                monticulo.ofrecer((PatronADN) obj);
+            }
+        });
+        return monticulo.obtenerOrdenados();
     }
 
     /**
@@ -183,33 +950,137 @@ public class Modelo {
         return (PatronADN) tablaPatronesADN.buscar(secuencia.toUpperCase());
     }
 
+    /**
+     * Cuenta las apariciones de una subcadena de cualquier longitud en cualquier posición
+     * de la secuencia (no solo en el marco 0), usando el {@link IndiceFM} de la secuencia.
+     * Si tiene códigos de ambigüedad IUPAC se cuenta recorriendo la secuencia (ver
+     * {@link #buscarApariciones(String)}).
+     *
+     * @param secuencia Las bases a buscar (A, C, G, T o códigos IUPAC).
+     * @return La cantidad de apariciones, incluidas las que se solapan.
+     * @throws IllegalArgumentException Si la secuencia está vacía o contiene otros caracteres.
+     */
+    public long contarApariciones(String secuencia) {
+        return tieneCodigosAmbiguos(secuencia)
+                ? buscarCodigosIUPAC(secuencia).length
+                : obtenerIndiceFM().contar(secuencia);
+    }
+
+    /**
+     * Busca todas las apariciones de una subcadena de cualquier longitud en cualquier
+     * posición de la secuencia, usando el {@link IndiceFM} de la secuencia. A diferencia
+     * de {@link #buscarPatron(String)}, no se limita a los patrones precalculados.
+     * <p>
+     * El índice FM solo contiene A, C, G y T. Una subcadena con códigos de ambigüedad
+     * IUPAC (por ejemplo {@code GRCGYC}, hasta {@link BuscadorAproximado#LONGITUD_MAXIMA}
+     * caracteres) se busca en cambio con el {@link BuscadorAproximado} sin diferencias, que
+     * recorre la secuencia con una máscara de bits por posición y salta las regiones de N
+     * que el patrón no acepta.
+     * </p>
+     *
+     * @param secuencia Las bases a buscar (A, C, G, T o códigos IUPAC).
+     * @return Un {@link PatronADN} con la cantidad y las posiciones de las apariciones,
+     * o {@code null} si no aparece.
+     * @throws IllegalArgumentException Si la secuencia está vacía o contiene otros caracteres.
+     */
+    public PatronADN buscarApariciones(String secuencia) {
+        long[] ubicaciones = tieneCodigosAmbiguos(secuencia)
+                ? buscarCodigosIUPAC(secuencia)
+                : obtenerIndiceFM().localizar(secuencia, ForkJoinPool.commonPool());
+        if (ubicaciones.length == 0) {
+            return null;
+        }
+        ListaUbicacionesComprimida lista = new ListaUbicacionesComprimida();
+        for (long ubicacion : ubicaciones) {
+            lista.agregar(ubicacion);
+        }
+        lista.compactar();
+        return new PatronADN(secuencia.toUpperCase(), ubicaciones.length, lista);
+    }
+
+    /**
+     * Indica si una subcadena tiene caracteres que no son A, C, G ni T.
+     */
+    private static boolean tieneCodigosAmbiguos(String secuencia) {
+        for (int i = 0; i < secuencia.length(); i++) {
+            if (SecuenciaEmpaquetada.codificarBase(secuencia.charAt(i)) < 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Busca las apariciones exactas de un patrón con códigos IUPAC recorriendo la secuencia.
+     *
+     * @return Las posiciones de inicio, en orden ascendente.
+     */
+    private long[] buscarCodigosIUPAC(String patron) {
+        CoincidenciaAproximada[] coincidencias = buscarAproximado(patron, 0, false);
+        long[] ubicaciones = new long[coincidencias.length];
+        for (int i = 0; i < coincidencias.length; i++) {
+            ubicaciones[i] = coincidencias[i].getInicio();
+        }
+        return ubicaciones;
+    }
+
+    /**
+     * Busca las apariciones aproximadas de un patrón en toda la secuencia, con a lo sumo
+     * {@code maximoDiferencias} diferencias, repartiendo el recorrido entre los núcleos
+     * (ver {@link BuscadorAproximado}). Sirve, por ejemplo, para verificar dónde puede
+     * hibridar un cebador o una sonda.
+     *
+     * @param patron Las bases a buscar (A, C, G, T o códigos IUPAC), hasta {@link BuscadorAproximado#LONGITUD_MAXIMA}.
+     * @param maximoDiferencias La cantidad máxima de diferencias, menor que la longitud del patrón.
+     * @param permitirIndels {@code true} para usar la distancia de edición (con inserciones y
+     * eliminaciones), {@code false} para contar solo sustituciones.
+     * @return Las coincidencias con su posición y distancia, ordenadas por posición final.
+     * @throws IllegalArgumentException Si el patrón o la cantidad de diferencias no son válidos.
+     */
+    public CoincidenciaAproximada[] buscarAproximado(String patron, int maximoDiferencias, boolean permitirIndels) {
+        return new BuscadorAproximado(patron, maximoDiferencias, permitirIndels)
+                .buscar(secuenciaPrincipalADN, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Obtiene el índice FM de la secuencia principal, construyéndolo si aún no existe.
+     *
+     * @return El índice de la secuencia actual.
+     */
+    private IndiceFM obtenerIndiceFM() {
+        if (indiceFM == null) {
+            indiceFM = IndiceFM.construir(secuenciaPrincipalADN, ForkJoinPool.commonPool());
+        }
+        return indiceFM;
+    }
+
     /**
      * Identifica y retorna el patrón de ADN con la mayor frecuencia de aparición.
-     * Esta operación aprovecha las propiedades del árbol binario de búsqueda
-     * y tiene una complejidad de tiempo de O(log n) en el caso promedio.
+     * Esta operación aprovecha las propiedades del árbol binario de búsqueda,
+     * que al ser rojo-negro tiene una complejidad de O(log n) incluso en el peor caso.
      *
      * @return El objeto {@link PatronADN} que representa el patrón más frecuente.
      */
     public PatronADN getPatronMasFrecuente() {
-        return arbolFrecuenciaPatrones.obtenerPatronMasFrecuente();
+        return obtenerArbol().obtenerPatronMasFrecuente();
     }
 
     /**
      * Identifica y retorna el patrón de ADN con la menor frecuencia de aparición.
-     * Esta operación aprovecha las propiedades del árbol binario de búsqueda
-     * y tiene una complejidad de tiempo de O(log n) en el caso promedio.
+     * Esta operación aprovecha las propiedades del árbol binario de búsqueda,
+     * que al ser rojo-negro tiene una complejidad de O(log n) incluso en el peor caso.
      *
      * @return El objeto {@link PatronADN} que representa el patrón menos frecuente.
      */
     public PatronADN getPatronMenosFrecuente() {
-        return arbolFrecuenciaPatrones.obtenerPatronMenosFrecuente();
+        return obtenerArbol().obtenerPatronMenosFrecuente();
     }
 
     /**
      * Genera un reporte detallado sobre las colisiones ocurridas en la
-     * {@link MiHashTable} utilizada para almacenar los patrones de ADN.
-     * Este reporte incluye información sobre la cantidad de colisiones
-     * por celda y un resumen global.
+     * tabla hash utilizada para almacenar los patrones de ADN.
+     * Este reporte incluye información sobre las distancias de sondeo
+     * de los elementos desplazados y un resumen global.
      *
      * @return Una cadena de texto con el reporte de colisiones.
      */
@@ -221,47 +1092,25 @@ public class Modelo {
      * Genera un reporte completo sobre los aminoácidos, indicando las tripletas de ADN
      * que los generan (convertidas a codones de ARN) y la frecuencia total de aparición
      * de estos aminoácidos en la secuencia principal de ADN.
-     * Utiliza el {@link MapeadorCodones} para la traducción y una tabla hash auxiliar
-     * para acumular las frecuencias por aminoácido.
+     * Utiliza el {@link MapeadorCodones} (con la tabla genética seleccionada) para la
+     * traducción y una {@link MiHashTableAbierta}
+     * auxiliar para acumular las frecuencias por aminoácido.
+     * Si hay resultados de los seis marcos de lectura, se agrega al final la frecuencia
+     * de cada aminoácido en cada marco.
      *
      * @return Una cadena de texto con el reporte de aminoácidos y sus frecuencias/codones asociados.
      */
     public String generarReporteAminoacidos() {
+        if (longitudPatron != 3) {
+            return "El reporte de aminoácidos requiere patrones de longitud 3.";
+        }
         Object[] todosLosPatrones = tablaPatronesADN.getTodosLosValores();
 
         if (todosLosPatrones == null || todosLosPatrones.length == 0) {
             return "No se han procesado patrones de ADN.";
         }
 
-       
-        MiHashTable aminoacidosFrecuencia = new MiHashTable(50);
-
-        for (Object obj : todosLosPatrones) {
-            if (obj instanceof PatronADN) {
-                PatronADN patron = (PatronADN) obj;
-                String codonARN = mapeadorCodones.convertirADN_a_ARN(patron.getSecuencia());
-                Aminoacido amino = mapeadorCodones.getAminoacido(codonARN); 
-
-                if (amino != null) {
-                    String claveAmino = amino.getNombreCompleto();
-
-                    
-                    Aminoacido acumuladorAmino = (Aminoacido) aminoacidosFrecuencia.buscar(claveAmino);
-
-                    if (acumuladorAmino != null) {
-                       
-                        acumuladorAmino.incrementarFrecuenciaGlobal(patron.getFrecuencia());
-                        acumuladorAmino.agregarCodonAsociado(codonARN);
-                    } else {
-                        
-                        Aminoacido nuevoAcumuladorAmino = new Aminoacido(amino.getNombreCompleto(), amino.getAbreviatura3Letras(), amino.getAbreviatura1Letra());
-                        nuevoAcumuladorAmino.incrementarFrecuenciaGlobal(patron.getFrecuencia()); // Suma la frecuencia del primer patrón
-                        nuevoAcumuladorAmino.agregarCodonAsociado(codonARN);
-                        aminoacidosFrecuencia.insertar(claveAmino, nuevoAcumuladorAmino);
-                    }
-                }
-            }
-        }
+        TablaHash aminoacidosFrecuencia = acumularAminoacidos(todosLosPatrones);
 
         StringBuilder reporte = new StringBuilder("Reporte de Aminoácidos:\n");
         reporte.append("----------------------------------------------------------------\n");
@@ -294,6 +1143,64 @@ public class Modelo {
             reporte.append("No se encontraron aminoácidos para reportar.\n");
         }
 
+        if (patronesPorMarco != null) {
+            agregarReportePorMarco(reporte);
+        }
+
         return reporte.toString();
     }
+
+    /**
+     * Agrega al reporte una línea por marco de lectura con la frecuencia de cada
+     * aminoácido (abreviatura de 3 letras) en ese marco.
+     */
+    private void agregarReportePorMarco(StringBuilder reporte) {
+        reporte.append("Frecuencia por marco de lectura:\n");
+        for (int marco = 0; marco < ContadorSeisMarcos.NUM_MARCOS; marco++) {
+            reporte.append("  Marco ").append(ContadorSeisMarcos.getNombreMarco(marco)).append(": ");
+            Object[] aminoacidos = acumularAminoacidos(patronesPorMarco[marco]).getTodosLosValores();
+            boolean primero = true;
+            for (Object obj : aminoacidos) {
+                Aminoacido amino = (Aminoacido) obj;
+                if (!primero) {
+                    reporte.append(", ");
+                }
+                reporte.append(amino.getAbreviatura3Letras()).append(' ').append(amino.getFrecuenciaGlobal());
+                primero = false;
+            }
+            reporte.append("\n");
+        }
+        reporte.append("----------------------------------------------------------------\n");
+    }
+
+    /**
+     * Acumula por aminoácido las frecuencias y los codones de un conjunto de patrones.
+     *
+     * @param patrones Los patrones (codones de ADN) a traducir.
+     * @return Una tabla con un {@link Aminoacido} acumulador por cada aminoácido encontrado.
+     */
+    private TablaHash acumularAminoacidos(Object[] patrones) {
+        // Son a lo sumo 64 codones y unos 21 aminoácidos.
+        TablaHash aminoacidosFrecuencia = new MiHashTableAbierta(32);
+
+        for (Object obj : patrones) {
+            if (obj instanceof PatronADN) {
+                PatronADN patron = (PatronADN) obj;
+                String codonARN = MapeadorCodones.convertirADN_a_ARN(patron.getSecuencia());
+                Aminoacido amino = mapeadorCodones.getAminoacido(codonARN); 
+
+                if (amino != null) {
+                    aminoacidosFrecuencia.insertarOActualizar(amino.getNombreCompleto(),
+                            clave -> new Aminoacido(amino.getNombreCompleto(), amino.getAbreviatura3Letras(), amino.getAbreviatura1Letra()),
+                            valor -> {
+                                Aminoacido acumuladorAmino = (Aminoacido) valor;
+                                acumuladorAmino.incrementarFrecuenciaGlobal(patron.getFrecuencia());
+                                acumuladorAmino.agregarCodonAsociado(codonARN);
+                            });
+                }
+            }
+        }
+
+        return aminoacidosFrecuencia;
+    }
 }
\ No newline at end of file
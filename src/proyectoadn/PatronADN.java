@@ -4,6 +4,8 @@
  */
 package proyectoadn;
 
+import java.util.PrimitiveIterator;
+
 /**
  *
  * @author Gloria
@@ -12,25 +14,44 @@ public class PatronADN implements Comparable<PatronADN> {
     private String secuencia;
     /**
      * La frecuencia de aparición de este patrón en la secuencia de ADN analizada.
+     * Es {@code long}, como las posiciones: un patrón corto en un genoma de miles de
+     * millones de bases puede aparecer más de 2^31 veces.
+     */
+    private long frecuencia;
+    /**
+     * Las ubicaciones donde aparece el patrón, comprimidas por bloques
+     * (ver {@link ListaUbicacionesComprimida}).
      */
-    private int frecuencia;
-    private int[] ubicaciones;
-    private int numUbicaciones;
+    private ListaUbicacionesComprimida ubicaciones;
 
     /**
      * Constructor para crear una nueva instancia de `PatronADN`.
      * Inicializa el patrón con la secuencia dada, establece su frecuencia inicial a 0,
-     * y prepara un arreglo para las ubicaciones con una capacidad inicial predefinida.
+     * y prepara una lista comprimida vacía para las ubicaciones.
      *
      * @param secuencia La secuencia de ADN (String) para este patrón.
      */
     public PatronADN(String secuencia) {
         this.secuencia = secuencia;
         this.frecuencia = 0; 
-        this.ubicaciones = new int[10]; 
-        this.numUbicaciones = 0;
+        this.ubicaciones = new ListaUbicacionesComprimida();
     }
-    
+
+    /**
+     * Constructor para crear un `PatronADN` con resultados ya contabilizados,
+     * por ejemplo por un {@link ContadorCodones}. La lista de ubicaciones se
+     * adopta tal cual, sin copiarla.
+     *
+     * @param secuencia La secuencia de ADN (String) para este patrón.
+     * @param frecuencia La frecuencia de aparición del patrón.
+     * @param ubicaciones Las ubicaciones del patrón, en orden ascendente.
+     */
+    public PatronADN(String secuencia, long frecuencia, ListaUbicacionesComprimida ubicaciones) {
+        this.secuencia = secuencia;
+        this.frecuencia = frecuencia;
+        this.ubicaciones = ubicaciones;
+    }
+
     /**
      * Obtiene la secuencia de ADN de este patrón.
      * @return La secuencia de ADN como String.
@@ -43,28 +64,56 @@ public class PatronADN implements Comparable<PatronADN> {
      * Obtiene la frecuencia de aparición de este patrón.
      * @return La frecuencia del patrón.
      */
-    public int getFrecuencia() {
+    public long getFrecuencia() {
         return frecuencia;
     }
 
     /**
-     * Obtiene una copia del arreglo de ubicaciones donde se encontró este patrón.
-     * Retorna un nuevo arreglo para proteger la integridad del arreglo interno.
-     * @return Un arreglo de enteros que contiene las ubicaciones del patrón.
+     * Obtiene las ubicaciones donde se encontró este patrón, decodificadas en un
+     * arreglo nuevo. Son {@code long} para admitir secuencias de más de 2^31 bases.
+     * Para recorrerlas sin crear el arreglo conviene usar {@link #iterarUbicaciones()}.
+     * @return Un arreglo que contiene las ubicaciones del patrón.
      */
-    public int[] getUbicaciones() {
-        // Retorna una copia para evitar la modificación externa del arreglo interno.
-        int[] copiaUbicaciones = new int[numUbicaciones];
-        System.arraycopy(ubicaciones, 0, copiaUbicaciones, 0, numUbicaciones);
-        return copiaUbicaciones;
+    public long[] getUbicaciones() {
+        return ubicaciones.aArreglo();
+    }
+
+    /**
+     * Obtiene la lista comprimida de ubicaciones tal cual, sin decodificarla.
+     * La usa {@link InstantaneaAnalisis} para guardarla en el índice.
+     * @return La lista de ubicaciones del patrón.
+     */
+    ListaUbicacionesComprimida getListaUbicaciones() {
+        return ubicaciones;
+    }
+
+    /**
+     * Obtiene un iterador que decodifica las ubicaciones a medida que se recorren,
+     * sin copiarlas.
+     * @return Un iterador sobre las ubicaciones, en orden de registro.
+     */
+    public PrimitiveIterator.OfLong iterarUbicaciones() {
+        return ubicaciones.iterador();
+    }
+
+    /**
+     * Cuenta las ubicaciones del patrón dentro del intervalo {@code [desde, hasta)}
+     * sin decodificar la lista completa.
+     *
+     * @param desde El inicio del intervalo (incluido).
+     * @param hasta El fin del intervalo (excluido).
+     * @return La cantidad de ubicaciones en el intervalo.
+     */
+    public long contarUbicacionesEnRango(long desde, long hasta) {
+        return ubicaciones.contarEnRango(desde, hasta);
     }
 
     /**
      * Obtiene el número de ubicaciones registradas para este patrón.
      * @return El número de ubicaciones.
      */
-    public int getNumUbicaciones() {
-        return numUbicaciones;
+    public long getNumUbicaciones() {
+        return ubicaciones.tamano();
     }
 
     /**
@@ -76,22 +125,14 @@ public class PatronADN implements Comparable<PatronADN> {
     }
 
     /**
-     * Agrega una nueva ubicación (índice de inicio) donde se encontró este patrón.
-     * Si el arreglo de ubicaciones alcanza su capacidad máxima, se redimensiona
-     * automáticamente al doble de su tamaño actual para acomodar más ubicaciones.
+     * Agrega una nueva ubicación (índice de inicio) donde se encontró este patrón
+     * al final de su lista comprimida.
      *
      * @param ubicacion La posición de inicio (índice) de la secuencia de ADN
      * donde se encontró el patrón.
      */
-    public void agregarUbicacion(int ubicacion) {
-        // Si el arreglo está lleno, lo redimensiona.
-        if (numUbicaciones == ubicaciones.length) {
-            int[] nuevoArray = new int[ubicaciones.length * 2];
-            System.arraycopy(ubicaciones, 0, nuevoArray, 0, ubicaciones.length);
-            ubicaciones = nuevoArray;
-        }
-        // Agrega la nueva ubicación y actualiza el contador.
-        ubicaciones[numUbicaciones++] = ubicacion;
+    public void agregarUbicacion(long ubicacion) {
+        ubicaciones.agregar(ubicacion);
     }
 
     /**
@@ -178,7 +219,7 @@ public class PatronADN implements Comparable<PatronADN> {
     @Override
     public int compareTo(PatronADN otro) {
       
-        int comparacionFrecuencia = Integer.compare(otro.frecuencia, this.frecuencia);
+        int comparacionFrecuencia = Long.compare(otro.frecuencia, this.frecuencia);
         if (comparacionFrecuencia != 0) {
             return comparacionFrecuencia;
         }
@@ -196,9 +237,10 @@ public class PatronADN implements Comparable<PatronADN> {
     public String toString() {
         StringBuilder ubicacionesStr = new StringBuilder();
         ubicacionesStr.append("[");
-        for (int i = 0; i < numUbicaciones; i++) {
-            ubicacionesStr.append(ubicaciones[i]);
-            if (i < numUbicaciones - 1) {
+        PrimitiveIterator.OfLong it = ubicaciones.iterador();
+        while (it.hasNext()) {
+            ubicacionesStr.append(it.nextLong());
+            if (it.hasNext()) {
                 ubicacionesStr.append(", ");
             }
         }
@@ -0,0 +1,22 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Interface.java to edit this template
+ */
+package proyectoadn;
+
+/**
+ * Interfaz para los objetos que procesan las bases de una secuencia a medida que
+ * se cargan, sin esperar a que termine la lectura del archivo.
+ */
+public interface ReceptorBases {
+
+    /**
+     * Se invoca cada vez que se agrega un bloque de bases a la secuencia.
+     * Los bloques llegan en orden y sin huecos.
+     *
+     * @param secuencia La secuencia que se está cargando.
+     * @param desde La posición de la primera base nueva.
+     * @param hasta La longitud de la secuencia después de agregar el bloque.
+     */
+    void basesAgregadas(SecuenciaEmpaquetada secuencia, long desde, long hasta);
+}
@@ -0,0 +1,71 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package proyectoadn;
+
+/**
+ * Un registro de un archivo FASTA o FASTQ: su nombre (la línea de encabezado sin
+ * el '>' o '@' inicial) y el tramo que ocupan sus bases dentro de la
+ * {@link SecuenciaEmpaquetada} donde se cargaron.
+ */
+public class RegistroSecuencia {
+
+    private final String nombre;
+    private final long inicio;
+    private final long longitud;
+
+    /**
+     * Constructor de `RegistroSecuencia`.
+     *
+     * @param nombre La línea de encabezado del registro, sin el carácter inicial.
+     * @param inicio La posición de la primera base del registro en la secuencia.
+     * @param longitud La cantidad de bases del registro.
+     */
+    public RegistroSecuencia(String nombre, long inicio, long longitud) {
+        this.nombre = nombre;
+        this.inicio = inicio;
+        this.longitud = longitud;
+    }
+
+    /**
+     * Obtiene el nombre del registro.
+     * @return La línea de encabezado, sin el '>' o '@' inicial.
+     */
+    public String getNombre() {
+        return nombre;
+    }
+
+    /**
+     * Obtiene la posición de la primera base del registro.
+     * @return La posición de inicio en la secuencia donde se cargó.
+     */
+    public long getInicio() {
+        return inicio;
+    }
+
+    /**
+     * Obtiene la posición siguiente a la última base del registro.
+     * @return La posición final (exclusiva).
+     */
+    public long getFin() {
+        return inicio + longitud;
+    }
+
+    /**
+     * Obtiene la cantidad de bases del registro.
+     * @return La longitud del registro.
+     */
+    public long getLongitud() {
+        return longitud;
+    }
+
+    /**
+     * Devuelve el nombre y el tramo del registro.
+     * @return Una cadena como "chr1 [0, 1500)".
+     */
+    @Override
+    public String toString() {
+        return nombre + " [" + inicio + ", " + getFin() + ")";
+    }
+}
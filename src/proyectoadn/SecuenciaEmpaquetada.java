@@ -0,0 +1,666 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package proyectoadn;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+
+/**
+ * La clase `SecuenciaEmpaquetada` almacena una secuencia de ADN utilizando
+ * 2 bits por base (A=0, C=1, G=2, T=3), empaquetando 32 bases en cada {@code long}.
+ * Comparada con un {@code String}, reduce el consumo de memoria entre 4 y 8 veces
+ * y permite secuencias de más de 2^31 bases, ya que todas las posiciones son {@code long}.
+ * <p>
+ * Los caracteres que no son A, C, G o T no caben en 2 bits; se guardan como
+ * regiones inválidas (inicio, longitud y letra), de modo que las coordenadas de la
+ * secuencia original se conservan y los codones que las tocan pueden descartarse.
+ * La letra de cada región es el código de ambigüedad IUPAC que se leyó (N, R, Y...,
+ * ver {@link CodigoIUPAC}) o {@link CodigoIUPAC#SIN_BASE} para cualquier otro carácter
+ * y para los separadores; así un tramo de miles de N ocupa una sola región y los
+ * recorridos pueden saltarlo entero sin perder las coordenadas.
+ * </p>
+ * <p>
+ * Las palabras se acceden como un {@link MemorySegment}, que puede estar respaldado
+ * por un arreglo del heap o por memoria nativa fuera del heap. En el segundo caso la
+ * secuencia no ocupa espacio que el recolector de basura deba recorrer o copiar,
+ * y su memoria se devuelve explícitamente con {@link #liberar()}.
+ * </p>
+ */
+public class SecuenciaEmpaquetada {
+
+    /**
+     * Cantidad de bases que caben en cada palabra de 64 bits.
+     */
+    private static final int BASES_POR_PALABRA = 32;
+
+    /**
+     * Letras de las bases indexadas por su código de 2 bits.
+     */
+    private static final char[] BASES = {'A', 'C', 'G', 'T'};
+
+    /**
+     * Texto de los 64 codones posibles, indexado por su código de 6 bits.
+     * Permite obtener la representación de un codón sin crear un {@code String} nuevo.
+     */
+    private static final String[] TEXTO_CODONES = new String[64];
+
+    /**
+     * Para cada código de codón, el código de su complementario inverso
+     * (el codón que se lee en la otra hebra).
+     */
+    private static final int[] COMPLEMENTARIO_INVERSO = new int[64];
+
+    static {
+        for (int codigo = 0; codigo < 64; codigo++) {
+            TEXTO_CODONES[codigo] = new String(new char[] {
+                BASES[(codigo >>> 4) & 3], BASES[(codigo >>> 2) & 3], BASES[codigo & 3]
+            });
+            // Con A=0, C=1, G=2, T=3 el complemento de una base es 3 - base (XOR 3).
+            int b0 = (codigo >>> 4) ^ 3;
+            int b1 = ((codigo >>> 2) & 3) ^ 3;
+            int b2 = (codigo & 3) ^ 3;
+            COMPLEMENTARIO_INVERSO[codigo] = (b2 << 4) | (b1 << 2) | b0;
+        }
+    }
+
+    /**
+     * Clasificación de cada byte ASCII: 0 a 3 para las bases, {@link #BYTE_ESPACIO}
+     * para espacios y saltos de línea, y {@link #BYTE_INVALIDO} para el resto.
+     */
+    private static final byte[] CODIGOS_ASCII = new byte[256];
+    private static final byte BYTE_INVALIDO = -1;
+    private static final byte BYTE_ESPACIO = -2;
+
+    static {
+        java.util.Arrays.fill(CODIGOS_ASCII, BYTE_INVALIDO);
+        CODIGOS_ASCII['A'] = 0; CODIGOS_ASCII['a'] = 0;
+        CODIGOS_ASCII['C'] = 1; CODIGOS_ASCII['c'] = 1;
+        CODIGOS_ASCII['G'] = 2; CODIGOS_ASCII['g'] = 2;
+        CODIGOS_ASCII['T'] = 3; CODIGOS_ASCII['t'] = 3;
+        CODIGOS_ASCII['\n'] = BYTE_ESPACIO;
+        CODIGOS_ASCII['\r'] = BYTE_ESPACIO;
+        CODIGOS_ASCII[' '] = BYTE_ESPACIO;
+        CODIGOS_ASCII['\t'] = BYTE_ESPACIO;
+    }
+
+    private MemorySegment palabras;
+    private long numPalabras;
+    private long longitud;
+
+    /**
+     * Arena dueña de la memoria nativa de las palabras, o {@code null} si están en el heap.
+     */
+    private Arena arena;
+    private final boolean fueraDelHeap;
+
+    /**
+     * Regiones de bases inválidas, ordenadas por posición y sin solaparse. Dos regiones
+     * contiguas solo se unen si tienen la misma letra.
+     */
+    private long[] inicioRegionesInvalidas;
+    private long[] longitudRegionesInvalidas;
+    private byte[] letraRegionesInvalidas;
+    private int numRegionesInvalidas;
+
+    /**
+     * Constructor para crear una secuencia empaquetada vacía.
+     */
+    public SecuenciaEmpaquetada() {
+        this(1024);
+    }
+
+    /**
+     * Constructor para crear una secuencia empaquetada vacía con una capacidad
+     * inicial estimada, evitando redimensionamientos cuando el tamaño se conoce de antemano.
+     *
+     * @param capacidadBases La cantidad de bases que se espera almacenar.
+     */
+    public SecuenciaEmpaquetada(long capacidadBases) {
+        this(capacidadBases, false);
+    }
+
+    /**
+     * Constructor para crear una secuencia empaquetada vacía eligiendo dónde se guardan
+     * sus palabras. Fuera del heap la capacidad no está limitada por el tamaño máximo
+     * de un arreglo, pero la secuencia debe liberarse con {@link #liberar()}.
+     *
+     * @param capacidadBases La cantidad de bases que se espera almacenar.
+     * @param fueraDelHeap {@code true} para usar memoria nativa, {@code false} para el heap.
+     */
+    public SecuenciaEmpaquetada(long capacidadBases, boolean fueraDelHeap) {
+        long palabrasIniciales = Math.max(1, (capacidadBases + BASES_POR_PALABRA - 1) / BASES_POR_PALABRA);
+        if (!fueraDelHeap && palabrasIniciales > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Capacidad demasiado grande: " + capacidadBases);
+        }
+        this.fueraDelHeap = fueraDelHeap;
+        reservar(palabrasIniciales);
+        this.longitud = 0;
+        this.inicioRegionesInvalidas = new long[4];
+        this.longitudRegionesInvalidas = new long[4];
+        this.letraRegionesInvalidas = new byte[4];
+        this.numRegionesInvalidas = 0;
+    }
+
+    /**
+     * Convierte una base (mayúscula o minúscula) en su código de 2 bits.
+     *
+     * @param base El carácter de la base.
+     * @return El código de la base (0 a 3), o -1 si no es A, C, G ni T.
+     */
+    public static int codificarBase(int base) {
+        if (base < 0 || base > 255) {
+            return -1;
+        }
+        int codigo = CODIGOS_ASCII[base];
+        return codigo >= 0 ? codigo : -1;
+    }
+
+    /**
+     * Convierte un código de 2 bits en la letra de su base.
+     *
+     * @param codigo El código de la base (0 a 3).
+     * @return La letra correspondiente.
+     */
+    public static char decodificarBase(int codigo) {
+        return BASES[codigo & 3];
+    }
+
+    /**
+     * Obtiene el texto de un codón a partir de su código de 6 bits.
+     * El primer nucleótido ocupa los bits más significativos, por lo que el orden
+     * numérico de los códigos coincide con el orden lexicográfico de los codones.
+     *
+     * @param codigo El código del codón (0 a 63).
+     * @return El codón como {@code String} (compartido, no se crea uno nuevo).
+     */
+    public static String codonComoTexto(int codigo) {
+        return TEXTO_CODONES[codigo];
+    }
+
+    /**
+     * Obtiene el código del complementario inverso de un codón, es decir, el codón
+     * que se lee en la hebra complementaria sobre las mismas tres posiciones.
+     *
+     * @param codigo El código del codón (0 a 63).
+     * @return El código del codón complementario inverso.
+     */
+    public static int codonComplementarioInverso(int codigo) {
+        return COMPLEMENTARIO_INVERSO[codigo];
+    }
+
+    /**
+     * Agrega una base al final de la secuencia. Cualquier carácter que no sea
+     * A, C, G o T se registra como una posición inválida, con su letra IUPAC si la tiene.
+     *
+     * @param base El carácter de la base a agregar.
+     */
+    public void agregarBase(int base) {
+        int codigo = codificarBase(base);
+        if (longitud == numPalabras * BASES_POR_PALABRA) {
+            redimensionar();
+        }
+        if (codigo < 0) {
+            registrarInvalidas(longitud, 1, CodigoIUPAC.letraAmbigua(base));
+        } else if (codigo != 0) {
+            long indice = longitud >>> 5;
+            palabras.setAtIndex(ValueLayout.JAVA_LONG, indice,
+                    palabra(indice) | (long) codigo << ((longitud & 31) << 1));
+        }
+        longitud++;
+    }
+
+    /**
+     * Agrega en bloque las bases contenidas en un arreglo de bytes ASCII.
+     * Los espacios, tabuladores y saltos de línea se ignoran; cualquier otro carácter
+     * que no sea A, C, G o T se registra como una posición inválida, con su letra IUPAC si la tiene.
+     * Las bases se acumulan en una palabra local y se escriben de 32 en 32.
+     *
+     * @param datos Los bytes a agregar.
+     * @param desde El índice del primer byte (inclusivo).
+     * @param hasta El índice del último byte (exclusivo).
+     */
+    public void agregarBases(byte[] datos, int desde, int hasta) {
+        if (desde >= hasta) {
+            return;
+        }
+        asegurarCapacidad(longitud + (hasta - desde));
+        long posicion = longitud;
+        long indicePalabra = posicion >>> 5;
+        long palabra = palabra(indicePalabra);
+        for (int i = desde; i < hasta; i++) {
+            int codigo = CODIGOS_ASCII[datos[i] & 0xFF];
+            if (codigo < 0) {
+                if (codigo == BYTE_ESPACIO) {
+                    continue;
+                }
+                registrarInvalidas(posicion, 1, CodigoIUPAC.letraAmbigua(datos[i] & 0xFF));
+                codigo = 0;
+            }
+            palabra |= (long) codigo << ((posicion & 31) << 1);
+            posicion++;
+            if ((posicion & 31) == 0) {
+                palabras.setAtIndex(ValueLayout.JAVA_LONG, indicePalabra++, palabra);
+                palabra = 0;
+            }
+        }
+        if ((posicion & 31) != 0) {
+            palabras.setAtIndex(ValueLayout.JAVA_LONG, indicePalabra, palabra);
+        }
+        longitud = posicion;
+    }
+
+    /**
+     * Agrega al final todas las bases de otra secuencia, incluidas sus regiones inválidas.
+     * Las palabras se copian de 32 en 32 bases, desplazadas según la posición en que
+     * termina esta secuencia, sin decodificar base por base.
+     *
+     * @param otra La secuencia cuyas bases se agregan (no se modifica).
+     */
+    public void agregarSecuencia(SecuenciaEmpaquetada otra) {
+        long cantidad = otra.longitud;
+        if (cantidad == 0) {
+            return;
+        }
+        asegurarCapacidad(longitud + cantidad);
+        int desplazamiento = (int) (longitud & 31) << 1;
+        long indice = longitud >>> 5;
+        long palabrasOtra = (cantidad + BASES_POR_PALABRA - 1) / BASES_POR_PALABRA;
+        for (long i = 0; i < palabrasOtra; i++) {
+            long valor = otra.palabra(i);
+            if (desplazamiento == 0) {
+                palabras.setAtIndex(ValueLayout.JAVA_LONG, indice + i, valor);
+            } else {
+                palabras.setAtIndex(ValueLayout.JAVA_LONG, indice + i, palabra(indice + i) | valor << desplazamiento);
+                // Los bits que no caben pasan a la palabra siguiente; más allá de la
+                // capacidad solo quedarían bits en cero.
+                if (indice + i + 1 < numPalabras) {
+                    palabras.setAtIndex(ValueLayout.JAVA_LONG, indice + i + 1, valor >>> (64 - desplazamiento));
+                }
+            }
+        }
+        for (int r = 0; r < otra.numRegionesInvalidas; r++) {
+            registrarInvalidas(longitud + otra.inicioRegionesInvalidas[r], otra.longitudRegionesInvalidas[r],
+                    (char) otra.letraRegionesInvalidas[r]);
+        }
+        longitud += cantidad;
+    }
+
+    /**
+     * Agrega al final una cantidad de bases inválidas, por ejemplo para separar
+     * dos secuencias de modo que ningún codón ni k-mer las atraviese. Se guardan con la
+     * letra {@link CodigoIUPAC#SIN_BASE}, que no coincide con ningún patrón.
+     *
+     * @param cantidad La cantidad de posiciones inválidas a agregar.
+     */
+    public void agregarInvalidas(long cantidad) {
+        if (cantidad <= 0) {
+            return;
+        }
+        asegurarCapacidad(longitud + cantidad);
+        registrarInvalidas(longitud, cantidad, CodigoIUPAC.SIN_BASE);
+        longitud += cantidad;
+    }
+
+    /**
+     * Crea una secuencia de solo lectura sobre palabras ya empaquetadas, por ejemplo
+     * proyectadas en memoria desde un archivo de {@link InstantaneaAnalisis}.
+     * La arena queda a cargo de la secuencia y se cierra con {@link #liberar()}.
+     *
+     * @param palabras Las palabras de la secuencia, en el orden de bytes nativo.
+     * @param longitud La cantidad de bases.
+     * @param iniciosInvalidas Las posiciones de inicio de las regiones inválidas, en orden.
+     * @param longitudesInvalidas Las longitudes de esas regiones.
+     * @param letrasInvalidas Las letras de esas regiones.
+     * @param arena La arena dueña del segmento de palabras.
+     */
+    SecuenciaEmpaquetada(MemorySegment palabras, long longitud, long[] iniciosInvalidas,
+            long[] longitudesInvalidas, byte[] letrasInvalidas, Arena arena) {
+        this.fueraDelHeap = true;
+        this.palabras = palabras;
+        this.numPalabras = palabras.byteSize() / Long.BYTES;
+        this.longitud = longitud;
+        this.arena = arena;
+        this.numRegionesInvalidas = iniciosInvalidas.length;
+        this.inicioRegionesInvalidas = numRegionesInvalidas > 0 ? iniciosInvalidas : new long[4];
+        this.longitudRegionesInvalidas = numRegionesInvalidas > 0 ? longitudesInvalidas : new long[4];
+        this.letraRegionesInvalidas = numRegionesInvalidas > 0 ? letrasInvalidas : new byte[4];
+    }
+
+    /**
+     * Escribe las palabras usadas por la secuencia, tal como están en memoria
+     * (en el orden de bytes nativo), copiándolas por tramos a un buffer.
+     *
+     * @param salida El flujo donde se escriben.
+     * @throws IOException Si ocurre un error al escribir.
+     */
+    void escribirPalabras(OutputStream salida) throws IOException {
+        byte[] tramo = new byte[64 * 1024];
+        long bytesTotales = getNumPalabrasUsadas() * Long.BYTES;
+        for (long desde = 0; desde < bytesTotales; desde += tramo.length) {
+            int cantidad = (int) Math.min(tramo.length, bytesTotales - desde);
+            MemorySegment.copy(palabras, ValueLayout.JAVA_BYTE, desde, tramo, 0, cantidad);
+            salida.write(tramo, 0, cantidad);
+        }
+    }
+
+    /**
+     * Obtiene la cantidad de palabras que contienen al menos una base.
+     * @return El número de palabras usadas.
+     */
+    long getNumPalabrasUsadas() {
+        return (longitud + BASES_POR_PALABRA - 1) / BASES_POR_PALABRA;
+    }
+
+    /**
+     * Obtiene la posición de inicio de una región inválida.
+     * @param region El índice de la región, entre 0 y {@link #getNumRegionesInvalidas()} - 1.
+     * @return La primera posición inválida de la región.
+     */
+    long getInicioRegionInvalida(int region) {
+        return inicioRegionesInvalidas[region];
+    }
+
+    /**
+     * Obtiene la longitud de una región inválida.
+     * @param region El índice de la región, entre 0 y {@link #getNumRegionesInvalidas()} - 1.
+     * @return La cantidad de posiciones inválidas consecutivas.
+     */
+    long getLongitudRegionInvalida(int region) {
+        return longitudRegionesInvalidas[region];
+    }
+
+    /**
+     * Obtiene la letra de una región inválida.
+     * @param region El índice de la región, entre 0 y {@link #getNumRegionesInvalidas()} - 1.
+     * @return El código IUPAC de la región, o {@link CodigoIUPAC#SIN_BASE}.
+     */
+    char getLetraRegionInvalida(int region) {
+        return (char) letraRegionesInvalidas[region];
+    }
+
+    /**
+     * Garantiza espacio para al menos la cantidad de bases indicada.
+     */
+    private void asegurarCapacidad(long bases) {
+        while (bases > numPalabras * BASES_POR_PALABRA) {
+            redimensionar();
+        }
+    }
+
+    /**
+     * Reserva un espacio de palabras en ceros, en el heap o en una arena nueva.
+     * Las palabras anteriores (y su arena, si la había) se descartan.
+     */
+    private void reservar(long cantidadPalabras) {
+        if (fueraDelHeap) {
+            arena = Arena.ofShared();
+            palabras = arena.allocate(cantidadPalabras * Long.BYTES, Long.BYTES);
+        } else {
+            palabras = MemorySegment.ofArray(new long[(int) cantidadPalabras]);
+        }
+        numPalabras = cantidadPalabras;
+    }
+
+    /**
+     * Duplica la capacidad de las palabras. Fuera del heap, la arena anterior se cierra
+     * en cuanto las palabras se copian a la nueva.
+     */
+    private void redimensionar() {
+        long nuevaCapacidad = fueraDelHeap
+                ? numPalabras * 2
+                : Math.min(numPalabras * 2, Integer.MAX_VALUE - 8);
+        if (nuevaCapacidad == numPalabras) {
+            throw new IllegalStateException("La secuencia excede la capacidad máxima.");
+        }
+        MemorySegment anteriores = palabras;
+        Arena arenaAnterior = arena;
+        reservar(nuevaCapacidad);
+        MemorySegment.copy(anteriores, 0, palabras, 0, anteriores.byteSize());
+        if (arenaAnterior != null) {
+            arenaAnterior.close();
+        }
+    }
+
+    /**
+     * Devuelve la memoria nativa de la secuencia. Después de llamarlo la secuencia
+     * queda vacía y no debe volver a usarse. En el heap no tiene efecto.
+     */
+    public void liberar() {
+        if (arena != null) {
+            arena.close();
+            arena = null;
+            palabras = MemorySegment.ofArray(new long[0]);
+            numPalabras = 0;
+            longitud = 0;
+            numRegionesInvalidas = 0;
+        }
+    }
+
+    /**
+     * Indica si las palabras de la secuencia están en memoria nativa.
+     * @return {@code true} si la secuencia está fuera del heap.
+     */
+    public boolean isFueraDelHeap() {
+        return fueraDelHeap;
+    }
+
+    /**
+     * Marca como inválidas las posiciones {@code [inicio, inicio + cantidad)}, que deben
+     * estar después de la última región; si es contigua a ella y tiene la misma letra, la extiende.
+     */
+    private void registrarInvalidas(long inicio, long cantidad, char letra) {
+        if (numRegionesInvalidas > 0) {
+            int ultima = numRegionesInvalidas - 1;
+            if (inicioRegionesInvalidas[ultima] + longitudRegionesInvalidas[ultima] == inicio
+                    && letraRegionesInvalidas[ultima] == letra) {
+                longitudRegionesInvalidas[ultima] += cantidad;
+                return;
+            }
+        }
+        if (numRegionesInvalidas == inicioRegionesInvalidas.length) {
+            long[] nuevosInicios = new long[numRegionesInvalidas * 2];
+            long[] nuevasLongitudes = new long[numRegionesInvalidas * 2];
+            byte[] nuevasLetras = new byte[numRegionesInvalidas * 2];
+            System.arraycopy(inicioRegionesInvalidas, 0, nuevosInicios, 0, numRegionesInvalidas);
+            System.arraycopy(longitudRegionesInvalidas, 0, nuevasLongitudes, 0, numRegionesInvalidas);
+            System.arraycopy(letraRegionesInvalidas, 0, nuevasLetras, 0, numRegionesInvalidas);
+            inicioRegionesInvalidas = nuevosInicios;
+            longitudRegionesInvalidas = nuevasLongitudes;
+            letraRegionesInvalidas = nuevasLetras;
+        }
+        inicioRegionesInvalidas[numRegionesInvalidas] = inicio;
+        longitudRegionesInvalidas[numRegionesInvalidas] = cantidad;
+        letraRegionesInvalidas[numRegionesInvalidas] = (byte) letra;
+        numRegionesInvalidas++;
+    }
+
+    /**
+     * Obtiene la cantidad de bases almacenadas (incluidas las inválidas).
+     * @return La longitud de la secuencia.
+     */
+    public long longitud() {
+        return longitud;
+    }
+
+    /**
+     * Obtiene el código de 2 bits de la base en una posición. Para posiciones
+     * inválidas el valor retornado no tiene significado; ver {@link #esValida(long)}.
+     *
+     * @param posicion La posición de la base (desde 0).
+     * @return El código de la base (0 a 3).
+     */
+    public int codigoEn(long posicion) {
+        return (int) (palabra(posicion >>> 5) >>> ((posicion & 31) << 1)) & 3;
+    }
+
+    /**
+     * Obtiene una palabra empaquetada completa (32 bases, la primera en los bits menos
+     * significativos), para recorridos que procesan la secuencia palabra por palabra.
+     *
+     * @param indice El índice de la palabra (posición / 32).
+     * @return Los 64 bits de la palabra.
+     */
+    long palabra(long indice) {
+        return palabras.getAtIndex(ValueLayout.JAVA_LONG, indice);
+    }
+
+    /**
+     * Indica si la base en una posición es A, C, G o T.
+     *
+     * @param posicion La posición a consultar.
+     * @return {@code true} si la base es válida.
+     */
+    public boolean esValida(long posicion) {
+        return siguientePosicionInvalida(posicion) != posicion;
+    }
+
+    /**
+     * Obtiene la letra de la base en una posición dada.
+     *
+     * @param posicion La posición de la base (desde 0).
+     * @return La base ('A', 'C', 'G' o 'T'), o la letra de la región si la posición es
+     * inválida (un código IUPAC como 'N' o 'R', o {@link CodigoIUPAC#SIN_BASE}).
+     */
+    public char baseEn(long posicion) {
+        verificarRango(posicion, 1);
+        int region = regionInvalidaDesde(posicion);
+        return region >= 0 && inicioRegionesInvalidas[region] <= posicion
+                ? (char) letraRegionesInvalidas[region]
+                : BASES[codigoEn(posicion)];
+    }
+
+    /**
+     * Obtiene una porción de la secuencia como texto.
+     *
+     * @param inicio La posición inicial de la porción.
+     * @param cantidad La cantidad de bases a extraer.
+     * @return La subsecuencia, con la letra de su región en las posiciones inválidas.
+     */
+    public String subsecuencia(long inicio, int cantidad) {
+        verificarRango(inicio, cantidad);
+        char[] resultado = new char[cantidad];
+        int region = regionInvalidaDesde(inicio);
+        for (int i = 0; i < cantidad; i++) {
+            long posicion = inicio + i;
+            if (region >= 0 && posicion >= inicioRegionesInvalidas[region]) {
+                resultado[i] = (char) letraRegionesInvalidas[region];
+                if (posicion + 1 == inicioRegionesInvalidas[region] + longitudRegionesInvalidas[region]) {
+                    region = region + 1 < numRegionesInvalidas ? region + 1 : -1;
+                }
+            } else {
+                resultado[i] = BASES[codigoEn(posicion)];
+            }
+        }
+        return new String(resultado);
+    }
+
+    /**
+     * Obtiene el código de 6 bits del codón que comienza en una posición.
+     *
+     * @param posicion La posición de la primera base del codón.
+     * @return El código del codón (0 a 63), o -1 si alguna de sus bases es inválida.
+     */
+    public int codonEn(long posicion) {
+        verificarRango(posicion, 3);
+        if (siguientePosicionInvalida(posicion) < posicion + 3) {
+            return -1;
+        }
+        return (codigoEn(posicion) << 4) | (codigoEn(posicion + 1) << 2) | codigoEn(posicion + 2);
+    }
+
+    /**
+     * Extrae en bloque los codones consecutivos (paso 3) a partir de una posición.
+     * Recorre las palabras empaquetadas directamente, sin crear objetos por codón.
+     *
+     * @param inicio La posición de la primera base del primer codón.
+     * @param destino El arreglo donde se escriben los códigos de los codones
+     * (-1 para los codones que contienen bases inválidas).
+     * @param cantidad La cantidad máxima de codones a extraer.
+     * @return La cantidad de codones extraídos realmente.
+     */
+    public int extraerCodones(long inicio, int[] destino, int cantidad) {
+        int extraidos = 0;
+        long posicion = inicio;
+        long siguienteInvalida = siguientePosicionInvalida(posicion);
+        while (extraidos < cantidad && posicion + 3 <= longitud) {
+            if (siguienteInvalida < posicion + 3) {
+                destino[extraidos++] = -1;
+                posicion += 3;
+                if (siguienteInvalida < posicion) {
+                    siguienteInvalida = siguientePosicionInvalida(posicion);
+                }
+                continue;
+            }
+            destino[extraidos++] = (codigoEn(posicion) << 4) | (codigoEn(posicion + 1) << 2) | codigoEn(posicion + 2);
+            posicion += 3;
+        }
+        return extraidos;
+    }
+
+    /**
+     * Busca la primera posición inválida a partir de una posición dada,
+     * mediante búsqueda binaria sobre las regiones inválidas.
+     *
+     * @param desde La posición desde la cual buscar.
+     * @return La primera posición inválida mayor o igual a {@code desde},
+     * o la longitud de la secuencia si no hay ninguna.
+     */
+    public long siguientePosicionInvalida(long desde) {
+        int encontrada = regionInvalidaDesde(desde);
+        if (encontrada < 0) {
+            return longitud;
+        }
+        return Math.max(desde, inicioRegionesInvalidas[encontrada]);
+    }
+
+    /**
+     * Busca, mediante búsqueda binaria, la primera región inválida que termina después
+     * de una posición: la que la contiene o, si la posición es válida, la siguiente.
+     *
+     * @param desde La posición desde la cual buscar.
+     * @return El índice de la región, o -1 si no queda ninguna a partir de {@code desde}.
+     */
+    int regionInvalidaDesde(long desde) {
+        int bajo = 0;
+        int alto = numRegionesInvalidas - 1;
+        int encontrada = -1;
+        while (bajo <= alto) {
+            int medio = (bajo + alto) >>> 1;
+            if (inicioRegionesInvalidas[medio] + longitudRegionesInvalidas[medio] > desde) {
+                encontrada = medio;
+                alto = medio - 1;
+            } else {
+                bajo = medio + 1;
+            }
+        }
+        return encontrada;
+    }
+
+    /**
+     * Obtiene la cantidad de regiones de bases inválidas registradas.
+     * @return El número de regiones inválidas.
+     */
+    public int getNumRegionesInvalidas() {
+        return numRegionesInvalidas;
+    }
+
+    /**
+     * Estima la memoria ocupada por la secuencia empaquetada, en bytes.
+     * @return Los bytes usados por las palabras (dentro o fuera del heap) y las regiones inválidas.
+     */
+    public long getBytesUsados() {
+        return palabras.byteSize() + (long) inicioRegionesInvalidas.length * (2 * Long.BYTES + 1);
+    }
+
+    private void verificarRango(long inicio, long cantidad) {
+        if (inicio < 0 || cantidad < 0 || inicio + cantidad > longitud) {
+            throw new IndexOutOfBoundsException("Rango [" + inicio + ", " + (inicio + cantidad)
+                    + ") fuera de la secuencia de longitud " + longitud);
+        }
+    }
+}
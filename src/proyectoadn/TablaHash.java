@@ -0,0 +1,90 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Interface.java to edit this template
+ */
+package proyectoadn;
+
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Interfaz común de las tablas hash del proyecto, que asocian claves {@code String}
+ * con valores {@code Object}. Permite elegir la implementación
+ * ({@link MiHashTable} con encadenamiento separado o {@link MiHashTableAbierta}
+ * con direccionamiento abierto) sin cambiar el código que las usa.
+ * Ninguna es segura para varios hilos: los conteos se hacen antes en arreglos
+ * ({@link ContadorCodones}, uno por hilo, o {@link TablaKmers}) y la tabla de
+ * patrones se llena después desde un solo hilo.
+ */
+public interface TablaHash {
+
+    /**
+     * Inserta un par clave-valor, o actualiza el valor si la clave ya existe.
+     *
+     * @param clave La clave ({@code String}) a insertar o actualizar.
+     * @param valor El valor ({@code Object}) asociado a la clave.
+     */
+    void insertar(String clave, Object valor);
+
+    /**
+     * Busca el valor asociado a una clave.
+     *
+     * @param clave La clave a buscar.
+     * @return El valor asociado, o {@code null} si la clave no existe.
+     */
+    Object buscar(String clave);
+
+    /**
+     * Busca el valor de una clave o, si no existe, lo crea e inserta; después le aplica
+     * una actualización.
+     *
+     * @param clave La clave a buscar.
+     * @param creador La función que crea el valor cuando la clave no existe.
+     * @param actualizacion La modificación a aplicar sobre el valor, o {@code null} para ninguna.
+     * @return El valor (existente o creado) después de la actualización.
+     */
+    default Object insertarOActualizar(String clave, Function<String, Object> creador, Consumer<Object> actualizacion) {
+        Object valor = buscar(clave);
+        if (valor == null) {
+            valor = creador.apply(clave);
+            insertar(clave, valor);
+        }
+        if (actualizacion != null) {
+            actualizacion.accept(valor);
+        }
+        return valor;
+    }
+
+    /**
+     * Obtiene todos los valores almacenados en la tabla.
+     *
+     * @return Un arreglo con los valores; vacío si la tabla no contiene elementos.
+     */
+    Object[] getTodosLosValores();
+
+    /**
+     * Aplica una acción a cada valor de la tabla, sin crear un arreglo intermedio
+     * cuando la implementación puede recorrer su almacenamiento directamente.
+     *
+     * @param accion La acción a aplicar sobre cada valor.
+     */
+    default void recorrerValores(Consumer<Object> accion) {
+        for (Object valor : getTodosLosValores()) {
+            accion.accept(valor);
+        }
+    }
+
+    /**
+     * Obtiene la cantidad de elementos almacenados.
+     *
+     * @return El número de pares clave-valor en la tabla.
+     */
+    int getCantidadElementos();
+
+    /**
+     * Genera un reporte de texto sobre las colisiones de la tabla.
+     *
+     * @return El reporte de colisiones.
+     */
+    String getReporteColisiones();
+}
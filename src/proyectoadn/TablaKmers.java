@@ -0,0 +1,276 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package proyectoadn;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+
+/**
+ * Tabla hash de direccionamiento abierto (sondeo lineal) para k-mers empaquetados
+ * en un {@code long}. Las claves y los conteos (también {@code long}, porque un k-mer
+ * corto puede aparecer más de 2^31 veces) viven en segmentos paralelos de memoria
+ * nativa, sin objetos por entrada, y la tabla se duplica al superar el factor de carga.
+ * <p>
+ * Opcionalmente guarda las ubicaciones de cada k-mer en un único espacio plano:
+ * una vez conocidos los conteos, {@link #prepararUbicaciones(long)} reserva el tamaño
+ * exacto que necesita cada k-mer, sin redimensionar arreglos por entrada.
+ * Como el espacio está fuera del heap no tiene el límite de tamaño de un arreglo;
+ * usa {@code int} mientras las posiciones y los índices quepan en 32 bits y solo las
+ * secuencias más largas pasan a {@code long}.
+ * </p>
+ * <p>
+ * Nada de esto lo recorre el recolector de basura: la memoria se devuelve al cerrar
+ * sus arenas con {@link #liberarUbicaciones()} y {@link #liberar()}.
+ * </p>
+ */
+class TablaKmers {
+
+    private static final long VACIO = -1L;
+    private static final double FACTOR_CARGA = 0.6;
+
+    private Arena arenaTabla;
+    private MemorySegment claves;
+    private MemorySegment conteos;
+    private int capacidad;
+    private int mascara;
+    private int ocupados;
+    private int umbral;
+
+    // Ubicaciones: para cada ranura, el índice donde se escribe su siguiente ubicación.
+    // Los cursores y las posiciones usan int o long según lo que haga falta.
+    private Arena arenaUbicaciones;
+    private MemorySegment cursores;
+    private boolean cursoresCortos;
+    private MemorySegment posiciones;
+    private boolean posicionesCortas;
+
+    /**
+     * Constructor de `TablaKmers`.
+     *
+     * @param capacidadInicial La cantidad de k-mers distintos que se espera almacenar.
+     */
+    TablaKmers(int capacidadInicial) {
+        int capacidad = Integer.highestOneBit(Math.max(16, (int) (capacidadInicial / FACTOR_CARGA)) - 1) << 1;
+        inicializar(capacidad);
+    }
+
+    private void inicializar(int capacidad) {
+        this.arenaTabla = Arena.ofShared();
+        this.claves = arenaTabla.allocate((long) capacidad * Long.BYTES, Long.BYTES);
+        claves.fill((byte) 0xFF); // Todos los bits en uno: VACIO.
+        this.conteos = arenaTabla.allocate((long) capacidad * Long.BYTES, Long.BYTES);
+        this.capacidad = capacidad;
+        this.mascara = capacidad - 1;
+        this.ocupados = 0;
+        this.umbral = (int) (capacidad * FACTOR_CARGA);
+    }
+
+    /**
+     * Dispersa los bits de la clave (finalizador de MurmurHash3) para que los
+     * k-mers cercanos no caigan en ranuras contiguas.
+     */
+    private static int mezclar(long clave) {
+        clave ^= clave >>> 33;
+        clave *= 0xff51afd7ed558ccdL;
+        clave ^= clave >>> 33;
+        clave *= 0xc4ceb9fe1a85ec53L;
+        clave ^= clave >>> 33;
+        return (int) clave;
+    }
+
+    /**
+     * Incrementa en uno el conteo de un k-mer, insertándolo si no existía.
+     *
+     * @param clave El k-mer empaquetado (no negativo).
+     */
+    void incrementar(long clave) {
+        int indice = mezclar(clave) & mascara;
+        while (true) {
+            long actual = getClave(indice);
+            if (actual == clave) {
+                conteos.setAtIndex(ValueLayout.JAVA_LONG, indice, getConteo(indice) + 1);
+                return;
+            }
+            if (actual == VACIO) {
+                claves.setAtIndex(ValueLayout.JAVA_LONG, indice, clave);
+                conteos.setAtIndex(ValueLayout.JAVA_LONG, indice, 1L);
+                if (++ocupados > umbral) {
+                    redimensionar();
+                }
+                return;
+            }
+            indice = (indice + 1) & mascara;
+        }
+    }
+
+    /**
+     * Busca la ranura que ocupa un k-mer.
+     *
+     * @param clave El k-mer empaquetado.
+     * @return El índice de la ranura, o -1 si el k-mer no está en la tabla.
+     */
+    int buscarRanura(long clave) {
+        int indice = mezclar(clave) & mascara;
+        while (true) {
+            long actual = getClave(indice);
+            if (actual == clave) {
+                return indice;
+            }
+            if (actual == VACIO) {
+                return -1;
+            }
+            indice = (indice + 1) & mascara;
+        }
+    }
+
+    private void redimensionar() {
+        Arena arenaAnterior = arenaTabla;
+        MemorySegment clavesAnteriores = claves;
+        MemorySegment conteosAnteriores = conteos;
+        int capacidadAnterior = capacidad;
+        inicializar(capacidadAnterior * 2);
+        for (int i = 0; i < capacidadAnterior; i++) {
+            long clave = clavesAnteriores.getAtIndex(ValueLayout.JAVA_LONG, i);
+            if (clave != VACIO) {
+                int indice = mezclar(clave) & mascara;
+                while (getClave(indice) != VACIO) {
+                    indice = (indice + 1) & mascara;
+                }
+                claves.setAtIndex(ValueLayout.JAVA_LONG, indice, clave);
+                conteos.setAtIndex(ValueLayout.JAVA_LONG, indice, conteosAnteriores.getAtIndex(ValueLayout.JAVA_LONG, i));
+                ocupados++;
+            }
+        }
+        arenaAnterior.close();
+    }
+
+    /**
+     * Reserva el espacio plano de ubicaciones según los conteos actuales.
+     * Después de llamarlo la tabla no debe recibir k-mers nuevos.
+     *
+     * @param longitudSecuencia La longitud de la secuencia, que acota las posiciones a guardar.
+     */
+    void prepararUbicaciones(long longitudSecuencia) {
+        liberarUbicaciones();
+        long total = 0;
+        for (int i = 0; i < capacidad; i++) {
+            if (estaOcupada(i)) {
+                total += getConteo(i);
+            }
+        }
+        arenaUbicaciones = Arena.ofShared();
+        cursoresCortos = total <= Integer.MAX_VALUE;
+        long bytesCursor = cursoresCortos ? Integer.BYTES : Long.BYTES;
+        cursores = arenaUbicaciones.allocate(capacidad * bytesCursor, bytesCursor);
+        long acumulado = 0;
+        for (int i = 0; i < capacidad; i++) {
+            escribirCursor(i, acumulado);
+            if (estaOcupada(i)) {
+                acumulado += getConteo(i);
+            }
+        }
+
+        posicionesCortas = longitudSecuencia <= Integer.MAX_VALUE;
+        long bytesPosicion = posicionesCortas ? Integer.BYTES : Long.BYTES;
+        posiciones = arenaUbicaciones.allocate(Math.max(1, total) * bytesPosicion, bytesPosicion);
+    }
+
+    private long leerCursor(int ranura) {
+        return cursoresCortos
+                ? cursores.getAtIndex(ValueLayout.JAVA_INT, ranura)
+                : cursores.getAtIndex(ValueLayout.JAVA_LONG, ranura);
+    }
+
+    private void escribirCursor(int ranura, long valor) {
+        if (cursoresCortos) {
+            cursores.setAtIndex(ValueLayout.JAVA_INT, ranura, (int) valor);
+        } else {
+            cursores.setAtIndex(ValueLayout.JAVA_LONG, ranura, valor);
+        }
+    }
+
+    /**
+     * Agrega una ubicación a la lista de un k-mer ya contado.
+     *
+     * @param ranura La ranura del k-mer (ver {@link #buscarRanura(long)}).
+     * @param posicion La posición de inicio del k-mer en la secuencia.
+     */
+    void registrarUbicacion(int ranura, long posicion) {
+        long indice = leerCursor(ranura);
+        escribirCursor(ranura, indice + 1);
+        if (posicionesCortas) {
+            posiciones.setAtIndex(ValueLayout.JAVA_INT, indice, (int) posicion);
+        } else {
+            posiciones.setAtIndex(ValueLayout.JAVA_LONG, indice, posicion);
+        }
+    }
+
+    /**
+     * Copia las ubicaciones registradas de una ranura a una lista comprimida nueva.
+     * Solo es válido después de registrar todas las ubicaciones.
+     *
+     * @param ranura La ranura del k-mer.
+     * @return Las ubicaciones del k-mer en orden de registro.
+     */
+    ListaUbicacionesComprimida getUbicaciones(int ranura) {
+        long fin = leerCursor(ranura);
+        ListaUbicacionesComprimida lista = new ListaUbicacionesComprimida();
+        for (long indice = fin - getConteo(ranura); indice < fin; indice++) {
+            lista.agregar(posicionesCortas
+                    ? posiciones.getAtIndex(ValueLayout.JAVA_INT, indice)
+                    : posiciones.getAtIndex(ValueLayout.JAVA_LONG, indice));
+        }
+        lista.compactar();
+        return lista;
+    }
+
+    /**
+     * Libera el espacio plano de ubicaciones.
+     */
+    void liberarUbicaciones() {
+        if (arenaUbicaciones != null) {
+            arenaUbicaciones.close();
+            arenaUbicaciones = null;
+            cursores = null;
+            posiciones = null;
+        }
+    }
+
+    /**
+     * Libera toda la memoria nativa de la tabla, incluidas las ubicaciones.
+     * Después de llamarlo solo {@link #getOcupados()} sigue siendo válido.
+     */
+    void liberar() {
+        liberarUbicaciones();
+        if (arenaTabla != null) {
+            arenaTabla.close();
+            arenaTabla = null;
+            claves = null;
+            conteos = null;
+            capacidad = 0;
+        }
+    }
+
+    int getCapacidad() {
+        return capacidad;
+    }
+
+    boolean estaOcupada(int ranura) {
+        return getClave(ranura) != VACIO;
+    }
+
+    long getClave(int ranura) {
+        return claves.getAtIndex(ValueLayout.JAVA_LONG, ranura);
+    }
+
+    long getConteo(int ranura) {
+        return conteos.getAtIndex(ValueLayout.JAVA_LONG, ranura);
+    }
+
+    int getOcupados() {
+        return ocupados;
+    }
+}
@@ -0,0 +1,247 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package proyectoadn;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * La clase `TraductorProteinas` traduce tramos de una {@link SecuenciaEmpaquetada} a
+ * proteínas, con un aminoácido por byte (su letra de un carácter, y
+ * {@link CodigoGenetico#PARADA} para las paradas). Los codones se extraen ya codificados
+ * y cada uno se traduce con un acceso al arreglo de 64 letras de un {@link CodigoGenetico},
+ * sin crear cadenas ni objetos por codón.
+ * <p>
+ * Un tramo {@code [inicio, fin)} se lee en la hebra directa desde {@code inicio}, o
+ * en la complementaria inversa desde {@code fin} hacia atrás; las bases que sobran
+ * al final de la lectura (menos de un codón) se ignoran. Los codones con bases
+ * inválidas se traducen como {@link #AMINOACIDO_DESCONOCIDO}.
+ * </p>
+ * <p>
+ * Además de traducir un tramo completo a un arreglo, puede traducir por partes en un
+ * arreglo del llamador o abrir un flujo que traduce a medida que se lee, para tramos
+ * que no conviene (o no se puede) tener enteros en memoria.
+ * </p>
+ */
+public class TraductorProteinas {
+
+    /**
+     * Letra usada para los codones que contienen bases inválidas.
+     */
+    public static final byte AMINOACIDO_DESCONOCIDO = 'X';
+
+    private static final int CODONES_POR_BLOQUE = 1024;
+
+    private final CodigoGenetico codigoGenetico;
+    private final byte[] letras;
+
+    /**
+     * Constructor de `TraductorProteinas`.
+     *
+     * @param codigoGenetico La tabla de traducción a usar.
+     */
+    public TraductorProteinas(CodigoGenetico codigoGenetico) {
+        this.codigoGenetico = codigoGenetico;
+        this.letras = new byte[64];
+        for (int codigo = 0; codigo < 64; codigo++) {
+            letras[codigo] = codigoGenetico.getAminoacido(codigo);
+        }
+    }
+
+    /**
+     * Obtiene la tabla de traducción que usa este traductor.
+     * @return El código genético del traductor.
+     */
+    public CodigoGenetico getCodigoGenetico() {
+        return codigoGenetico;
+    }
+
+    /**
+     * Obtiene la letra del aminoácido de un codón codificado.
+     *
+     * @param codigoCodon El código de 6 bits del codón, o -1 si es inválido.
+     * @return La letra del aminoácido, o {@link #AMINOACIDO_DESCONOCIDO} si el codón es inválido.
+     */
+    public byte getLetra(int codigoCodon) {
+        return codigoCodon < 0 ? AMINOACIDO_DESCONOCIDO : letras[codigoCodon];
+    }
+
+    /**
+     * Calcula cuántos codones completos tiene un tramo.
+     *
+     * @param inicio La primera posición del tramo (incluida).
+     * @param fin La posición final del tramo (excluida).
+     * @return La cantidad de codones, o 0 si el tramo está vacío.
+     */
+    public static long contarCodones(long inicio, long fin) {
+        return fin > inicio ? (fin - inicio) / 3 : 0;
+    }
+
+    /**
+     * Traduce un tramo completo a un arreglo nuevo.
+     *
+     * @param secuencia La secuencia a traducir.
+     * @param inicio La primera posición del tramo (incluida).
+     * @param fin La posición final del tramo (excluida).
+     * @param inversa {@code true} para leer la hebra complementaria inversa.
+     * @return La proteína, un aminoácido por byte.
+     * @throws ArithmeticException Si la proteína no cabe en un arreglo; en ese caso
+     * conviene usar {@link #abrirFlujo(SecuenciaEmpaquetada, long, long, boolean)}.
+     */
+    public byte[] traducir(SecuenciaEmpaquetada secuencia, long inicio, long fin, boolean inversa) {
+        byte[] proteina = new byte[Math.toIntExact(contarCodones(inicio, fin))];
+        int[] codones = new int[Math.min(CODONES_POR_BLOQUE, Math.max(1, proteina.length))];
+        int hecho = 0;
+        while (hecho < proteina.length) {
+            hecho += traducir(secuencia, inicio, fin, inversa, hecho, proteina, hecho,
+                    proteina.length - hecho, codones);
+        }
+        return proteina;
+    }
+
+    /**
+     * Traduce un tramo completo a una cadena.
+     *
+     * @param secuencia La secuencia a traducir.
+     * @param inicio La primera posición del tramo (incluida).
+     * @param fin La posición final del tramo (excluida).
+     * @param inversa {@code true} para leer la hebra complementaria inversa.
+     * @return La proteína en letras de un carácter.
+     */
+    public String traducirComoTexto(SecuenciaEmpaquetada secuencia, long inicio, long fin, boolean inversa) {
+        return new String(traducir(secuencia, inicio, fin, inversa), StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Traduce parte de un tramo en un arreglo del llamador, sin reservar memoria.
+     *
+     * @param secuencia La secuencia a traducir.
+     * @param inicio La primera posición del tramo (incluida).
+     * @param fin La posición final del tramo (excluida).
+     * @param inversa {@code true} para leer la hebra complementaria inversa.
+     * @param primerCodon El índice, en orden de lectura, del primer codón a traducir.
+     * @param destino El arreglo donde se escriben las letras.
+     * @param desplazamiento La posición de {@code destino} donde se escribe la primera letra.
+     * @param cantidad La cantidad máxima de codones a traducir.
+     * @param codones Un arreglo auxiliar para los códigos; su largo limita los codones por llamada.
+     * @return La cantidad de codones traducidos (0 si {@code primerCodon} ya está al final del tramo).
+     */
+    public int traducir(SecuenciaEmpaquetada secuencia, long inicio, long fin, boolean inversa,
+            long primerCodon, byte[] destino, int desplazamiento, int cantidad, int[] codones) {
+        long restantes = contarCodones(inicio, fin) - primerCodon;
+        int bloque = (int) Math.max(0, Math.min(Math.min(cantidad, codones.length), restantes));
+        if (bloque == 0) {
+            return 0;
+        }
+        if (inversa) {
+            // El codón k se lee en fin - 3 - 3k; el bloque se extrae de izquierda a derecha y se invierte.
+            long primeraPosicion = fin - 3 * (primerCodon + bloque);
+            secuencia.extraerCodones(primeraPosicion, codones, bloque);
+            for (int i = 0; i < bloque; i++) {
+                int codigo = codones[bloque - 1 - i];
+                destino[desplazamiento + i] = codigo < 0
+                        ? AMINOACIDO_DESCONOCIDO
+                        : letras[SecuenciaEmpaquetada.codonComplementarioInverso(codigo)];
+            }
+        } else {
+            secuencia.extraerCodones(inicio + 3 * primerCodon, codones, bloque);
+            for (int i = 0; i < bloque; i++) {
+                int codigo = codones[i];
+                destino[desplazamiento + i] = codigo < 0 ? AMINOACIDO_DESCONOCIDO : letras[codigo];
+            }
+        }
+        return bloque;
+    }
+
+    /**
+     * Abre un flujo que traduce el tramo a medida que se lee, un bloque de codones
+     * a la vez. El tramo no se recorre hasta que se piden sus bytes.
+     *
+     * @param secuencia La secuencia a traducir; debe seguir disponible mientras se lee el flujo.
+     * @param inicio La primera posición del tramo (incluida).
+     * @param fin La posición final del tramo (excluida).
+     * @param inversa {@code true} para leer la hebra complementaria inversa.
+     * @return Un flujo con la proteína, un aminoácido por byte.
+     */
+    public InputStream abrirFlujo(SecuenciaEmpaquetada secuencia, long inicio, long fin, boolean inversa) {
+        return new FlujoProteina(secuencia, inicio, fin, inversa);
+    }
+
+    /**
+     * Flujo que traduce bajo demanda, reutilizando sus arreglos de bloque.
+     */
+    private final class FlujoProteina extends InputStream {
+        private final SecuenciaEmpaquetada secuencia;
+        private final long inicio;
+        private final long fin;
+        private final boolean inversa;
+        private final int[] codones = new int[CODONES_POR_BLOQUE];
+        private final byte[] bloque = new byte[CODONES_POR_BLOQUE];
+        private long siguienteCodon;
+        private int posicionBloque;
+        private int tamanoBloque;
+
+        FlujoProteina(SecuenciaEmpaquetada secuencia, long inicio, long fin, boolean inversa) {
+            this.secuencia = secuencia;
+            this.inicio = inicio;
+            this.fin = fin;
+            this.inversa = inversa;
+        }
+
+        private boolean llenarBloque() {
+            if (posicionBloque < tamanoBloque) {
+                return true;
+            }
+            tamanoBloque = traducir(secuencia, inicio, fin, inversa, siguienteCodon, bloque, 0, bloque.length, codones);
+            siguienteCodon += tamanoBloque;
+            posicionBloque = 0;
+            return tamanoBloque > 0;
+        }
+
+        @Override
+        public int read() {
+            return llenarBloque() ? bloque[posicionBloque++] & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] destino, int desplazamiento, int longitud) {
+            if (longitud == 0) {
+                return 0;
+            }
+            if (posicionBloque == tamanoBloque && longitud >= codones.length) {
+                // Lectura grande: se traduce directamente en el arreglo del llamador.
+                int traducidos = traducir(secuencia, inicio, fin, inversa, siguienteCodon,
+                        destino, desplazamiento, longitud, codones);
+                siguienteCodon += traducidos;
+                return traducidos > 0 ? traducidos : -1;
+            }
+            if (!llenarBloque()) {
+                return -1;
+            }
+            int copiados = Math.min(longitud, tamanoBloque - posicionBloque);
+            System.arraycopy(bloque, posicionBloque, destino, desplazamiento, copiados);
+            posicionBloque += copiados;
+            return copiados;
+        }
+
+        @Override
+        public long skip(long n) {
+            long saltados = 0;
+            if (n > 0 && posicionBloque < tamanoBloque) {
+                saltados = Math.min(n, tamanoBloque - posicionBloque);
+                posicionBloque += (int) saltados;
+            }
+            long restantes = contarCodones(inicio, fin) - siguienteCodon;
+            long directos = Math.max(0, Math.min(n - saltados, restantes));
+            siguienteCodon += directos;
+            return saltados + directos;
+        }
+
+        @Override
+        public int available() {
+            return tamanoBloque - posicionBloque;
+        }
+    }
+}